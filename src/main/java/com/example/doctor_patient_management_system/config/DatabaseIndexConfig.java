@@ -0,0 +1,141 @@
+package com.example.doctor_patient_management_system.config;
+
+import com.example.doctor_patient_management_system.dto.CancellationMessage;
+import com.example.doctor_patient_management_system.service.AppointmentServiceImpl;
+import com.example.doctor_patient_management_system.service.DoctorCalendarServiceImpl;
+import com.example.doctor_patient_management_system.service.DoctorCapacityServiceImpl;
+import com.example.doctor_patient_management_system.service.RabbitProducerServiceImpl;
+import com.example.doctor_patient_management_system.service.SlotOccupancyServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Indexes that ddl-auto cannot express. Runs after Hibernate has created/updated the tables.
+@Configuration
+public class DatabaseIndexConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseIndexConfig.class);
+
+    @Bean
+    @Order(0)
+    public CommandLineRunner createPartialIndexes(JdbcTemplate jdbcTemplate,
+                                                  PlatformTransactionManager transactionManager,
+                                                  DoctorCapacityServiceImpl doctorCapacityService,
+                                                  RabbitProducerServiceImpl rabbitProducerService,
+                                                  SlotOccupancyServiceImpl slotOccupancyService,
+                                                  DoctorCalendarServiceImpl doctorCalendarService) {
+        return args -> {
+            createConfirmedSlotIndex(jdbcTemplate, new TransactionTemplate(transactionManager), doctorCapacityService,
+                    rabbitProducerService, slotOccupancyService, doctorCalendarService);
+
+            // Expiry job walks confirmed appointments by (date, id) and checks for a prescription per row
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_appointments_confirmed_date"
+                    + " ON appointments (appointment_date, id) WHERE status = 'CONFIRMED'");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_prescriptions_appointment_id"
+                    + " ON prescriptions (appointment_id)");
+            // User deletion finds appointments by patient and their reviews by appointment
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_appointments_patient_id"
+                    + " ON appointments (patient_id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_reviews_appointment_id"
+                    + " ON reviews (appointment_id)");
+            // ...and its unsent outbox messages, which are few next to the sent ones
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_message_outbox_unsent"
+                    + " ON message_outbox (message_type) WHERE status <> 'SENT'");
+            // Admin appointment listing pages by (appointment_date, id) descending
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_appointments_date_id"
+                    + " ON appointments (appointment_date DESC, id DESC)");
+
+            // Admin user search is a substring match on lower(email), which only a trigram index can serve
+            try {
+                jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_users_email_trgm"
+                        + " ON users USING gin (lower(email) gin_trgm_ops)");
+            } catch (Exception e) {
+                log.warn(" Could not create idx_users_email_trgm (user search will scan users): {}", e.getMessage());
+            }
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_users_role_id ON users (role, id)");
+        };
+    }
+
+    // At most one confirmed appointment per doctor, day and slot; cancelled rows don't count.
+    // Bookings rely on this index alone, so startup fails if it cannot be created. A database from before
+    // the index may hold duplicate confirmed bookings: the earliest of each slot is kept and the rest are
+    // cancelled, with writers locked out until the index exists so no new duplicate can slip in between.
+    // Their patients are notified through the outbox in the same transaction, like any other cancellation.
+    static void createConfirmedSlotIndex(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                         DoctorCapacityServiceImpl doctorCapacityService,
+                                         RabbitProducerServiceImpl rabbitProducerService,
+                                         SlotOccupancyServiceImpl slotOccupancyService,
+                                         DoctorCalendarServiceImpl doctorCalendarService) {
+        String existing = jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+                AppointmentServiceImpl.CONFIRMED_SLOT_INDEX);
+        if (existing != null) {
+            return;
+        }
+
+        List<CancelledDuplicate> cancelled = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE appointments IN SHARE ROW EXCLUSIVE MODE");
+            List<CancelledDuplicate> rows = jdbcTemplate.query(
+                    "WITH cancelled AS (" +
+                            "UPDATE appointments SET status = 'CANCELLED' WHERE id IN (" +
+                            "SELECT id FROM (SELECT id, row_number() OVER (" +
+                            "PARTITION BY doctor_id, appointment_date, slot_id ORDER BY id) AS rn " +
+                            "FROM appointments WHERE status = 'CONFIRMED' AND slot_id IS NOT NULL) d " +
+                            "WHERE d.rn > 1) " +
+                            "RETURNING id, doctor_id, patient_id, appointment_date, appointment_time) " +
+                            "SELECT c.id, c.doctor_id, c.appointment_date, c.appointment_time, u.email, " +
+                            "p.patient_name, d.doctor_name " +
+                            "FROM cancelled c JOIN users u ON u.id = c.patient_id " +
+                            "LEFT JOIN patients_info p ON p.id = c.patient_id " +
+                            "LEFT JOIN doctors d ON d.id = c.doctor_id",
+                    (rs, rowNum) -> {
+                        String email = rs.getString("email");
+                        String name = rs.getString("patient_name");
+                        return new CancelledDuplicate(rs.getLong("doctor_id"), new CancellationMessage(
+                                rs.getLong("id"), email, name != null ? name : email, rs.getString("doctor_name"),
+                                rs.getObject("appointment_date", LocalDate.class), rs.getString("appointment_time"),
+                                "The slot was booked twice and the earlier booking was kept"));
+                    });
+            rabbitProducerService.saveCancellationMessages(
+                    rows.stream().map(CancelledDuplicate::message).toList());
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + AppointmentServiceImpl.CONFIRMED_SLOT_INDEX
+                    + " ON appointments (doctor_id, appointment_date, slot_id) WHERE status = 'CONFIRMED'");
+            return rows;
+        });
+
+        if (cancelled == null || cancelled.isEmpty()) {
+            return;
+        }
+        log.warn(" Cancelled duplicate confirmed bookings {} before creating {}",
+                cancelled.stream().map(row -> row.message().getAppointmentId()).toList(),
+                AppointmentServiceImpl.CONFIRMED_SLOT_INDEX);
+
+        Set<Long> doctors = new HashSet<>();
+        for (CancelledDuplicate row : cancelled) {
+            LocalDate date = row.message().getAppointmentDate();
+            doctors.add(row.doctorId());
+            // The slot stays booked by the kept appointment, so the day is reloaded rather than marked freed
+            slotOccupancyService.invalidate(row.doctorId(), date);
+            try {
+                doctorCalendarService.evict(row.doctorId(), YearMonth.from(date));
+            } catch (Exception e) {
+                log.warn(" Could not evict calendar of doctor {} for {}: {}", row.doctorId(), date, e.getMessage());
+            }
+        }
+        doctorCapacityService.rebuild(doctors);
+    }
+
+    private record CancelledDuplicate(Long doctorId, CancellationMessage message) {}
+}
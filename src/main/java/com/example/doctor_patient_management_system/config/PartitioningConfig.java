@@ -0,0 +1,35 @@
+package com.example.doctor_patient_management_system.config;
+
+import com.example.doctor_patient_management_system.service.AppointmentPartitionServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+// Converts appointments to monthly partitions when app.partitioning.enabled is set.
+// Runs before DatabaseIndexConfig so its indexes are created on the partitioned table.
+@Configuration
+public class PartitioningConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitioningConfig.class);
+
+    @Bean
+    @Order(-1)
+    public CommandLineRunner partitionAppointments(AppointmentPartitionServiceImpl partitionService) {
+        return args -> {
+            if (!partitionService.isEnabled()) {
+                return;
+            }
+            // Retention and the archive path assume the partitioned layout, so a failed conversion stops startup
+            try {
+                partitionService.migrateIfNeeded();
+                partitionService.ensurePartitions();
+            } catch (Exception e) {
+                log.error(" Could not partition appointments: {}", e.getMessage(), e);
+                throw new IllegalStateException("Appointment partitioning is enabled but the migration failed", e);
+            }
+        };
+    }
+}
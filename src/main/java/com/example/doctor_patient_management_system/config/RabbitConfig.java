@@ -17,6 +17,7 @@ public class RabbitConfig {
     // Queue names
     public static final String BOOKING_QUEUE = "booking.queue";
     public static final String REGISTRATION_QUEUE = "registration.queue";
+    public static final String CANCELLATION_QUEUE = "cancellation.queue";
 
     // Exchange name
     public static final String EXCHANGE = "doctor.patient.exchange";
@@ -24,6 +25,7 @@ public class RabbitConfig {
     // Routing keys
     public static final String BOOKING_ROUTING_KEY = "booking.key";
     public static final String REGISTRATION_ROUTING_KEY = "registration.key";
+    public static final String CANCELLATION_ROUTING_KEY = "cancellation.key";
 
     // Declare Booking Queue
     @Bean
@@ -37,6 +39,12 @@ public class RabbitConfig {
         return new Queue(REGISTRATION_QUEUE, true);
     }
 
+    // Declare Cancellation Queue
+    @Bean
+    public Queue cancellationQueue() {
+        return new Queue(CANCELLATION_QUEUE, true);
+    }
+
     // Declare Exchange
     @Bean
     public TopicExchange exchange() {
@@ -61,6 +69,15 @@ public class RabbitConfig {
                 .with(REGISTRATION_ROUTING_KEY);
     }
 
+    // Bind Cancellation Queue to Exchange
+    @Bean
+    public Binding cancellationBinding(Queue cancellationQueue, TopicExchange exchange) {
+        return BindingBuilder
+                .bind(cancellationQueue)
+                .to(exchange)
+                .with(CANCELLATION_ROUTING_KEY);
+    }
+
     // JSON Message Converter
     @Bean
     public MessageConverter jsonMessageConverter() {
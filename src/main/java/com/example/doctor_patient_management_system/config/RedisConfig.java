@@ -15,6 +15,7 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -68,6 +69,14 @@ public class RedisConfig {
         return template;
     }
 
+    // Pub/sub listeners (live slot updates) register themselves on this container
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
     //Cache Manager with custom serialization
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
@@ -90,6 +99,9 @@ public class RedisConfig {
         cacheConfigurations.put("doctorByUserId", defaultCacheConfig.entryTtl(Duration.ofMinutes(15)));
         cacheConfigurations.put("doctorsWithRatings", defaultCacheConfig.entryTtl(Duration.ofMinutes(10)));
 
+        // Month calendars; keys carry the current date, so entries only need to outlive the day
+        cacheConfigurations.put("doctorCalendar", defaultCacheConfig.entryTtl(Duration.ofMinutes(30)));
+
         // Patient caches
         cacheConfigurations.put("patient", defaultCacheConfig.entryTtl(Duration.ofMinutes(15)));
         cacheConfigurations.put("patientByUserId", defaultCacheConfig.entryTtl(Duration.ofMinutes(15)));
@@ -1,30 +1,58 @@
 package com.example.doctor_patient_management_system.controller;
 
-import com.example.doctor_patient_management_system.dto.DashboardStats;
-import com.example.doctor_patient_management_system.dto.DoctorAppointmentDto;
+import com.example.doctor_patient_management_system.dto.AdminAppointmentRow;
+import com.example.doctor_patient_management_system.dto.AdminDashboard;
+import com.example.doctor_patient_management_system.dto.AdminDashboardQuery;
+import com.example.doctor_patient_management_system.dto.BulkBookingRequest;
+import com.example.doctor_patient_management_system.dto.BulkBookingResult;
+import com.example.doctor_patient_management_system.dto.CapacityCheckResult;
+import com.example.doctor_patient_management_system.dto.UserPurgeStatus;
 import com.example.doctor_patient_management_system.model.Appointment;
 import com.example.doctor_patient_management_system.model.User;
 import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
 import com.example.doctor_patient_management_system.security.UserPrincipal;
+import com.example.doctor_patient_management_system.service.AdminDashboardServiceImpl;
 import com.example.doctor_patient_management_system.service.AdminServiceImpl;
+import com.example.doctor_patient_management_system.service.BulkBookingServiceImpl;
+import com.example.doctor_patient_management_system.service.DoctorCapacityServiceImpl;
+import com.example.doctor_patient_management_system.service.UserPurgeServiceImpl;
 import com.example.doctor_patient_management_system.service.UserServiceImpl;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
 @Controller
 @RequestMapping("/admin")
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
     private final AdminServiceImpl adminService;
-
-    public AdminController(AdminServiceImpl adminService) {
+    private final DoctorCapacityServiceImpl doctorCapacityService;
+    private final BulkBookingServiceImpl bulkBookingService;
+    private final AdminDashboardServiceImpl adminDashboardService;
+    private final UserPurgeServiceImpl userPurgeService;
+
+    public AdminController(AdminServiceImpl adminService, DoctorCapacityServiceImpl doctorCapacityService,
+                           BulkBookingServiceImpl bulkBookingService, AdminDashboardServiceImpl adminDashboardService,
+                           UserPurgeServiceImpl userPurgeService) {
         this.adminService = adminService;
+        this.doctorCapacityService = doctorCapacityService;
+        this.bulkBookingService = bulkBookingService;
+        this.adminDashboardService = adminDashboardService;
+        this.userPurgeService = userPurgeService;
     }
 
     @GetMapping("/dashboard")
@@ -33,46 +61,90 @@ public class AdminController {
             @RequestParam(defaultValue = "10") int userSize,
             @RequestParam(required = false) String role,
             @RequestParam(required = false) String userSearch,
+            @RequestParam(required = false) Long userAfterId,
             @RequestParam(defaultValue = "0") int appointmentPage,
             @RequestParam(defaultValue = "10") int appointmentSize,
             @RequestParam(required = false) AppointmentStatus statusFilter,
             @RequestParam(required = false) String appointmentSearch,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) Long appointmentAfterId,
+            HttpServletResponse response,
             Model model) {
 
-        DashboardStats stats = adminService.getDashboardStats();
-        model.addAttribute("stats", stats);
+        AdminDashboard dashboard = adminDashboardService.load(new AdminDashboardQuery(userPage, userSize, role,
+                userSearch, userAfterId, appointmentPage, appointmentSize, statusFilter, appointmentSearch,
+                startDate, endDate, appointmentAfterId));
+
+        // Per-section load times, visible in the browser's network panel
+        StringJoiner serverTiming = new StringJoiner(", ");
+        dashboard.sectionMillis().forEach((section, millis) -> serverTiming.add(section + ";dur=" + millis));
+        response.setHeader("Server-Timing", serverTiming.toString());
+
+        model.addAttribute("stats", dashboard.stats());
 
-        Page<User> usersPage = adminService.getUsers(userPage, userSize, role, userSearch);
-        model.addAttribute("users", usersPage.getContent());
+        Page<User> usersPage = dashboard.users();
+        List<User> users = usersPage.getContent();
+        model.addAttribute("users", users);
+        model.addAttribute("userNextAfterId", users.isEmpty() ? null : users.get(users.size() - 1).getId());
         model.addAttribute("userCurrentPage", usersPage.getNumber());
         model.addAttribute("userTotalPages", usersPage.getTotalPages());
         model.addAttribute("userTotalElements", usersPage.getTotalElements());
+        model.addAttribute("userPageWindowStart", Math.max(0, usersPage.getNumber() - 2));
+        model.addAttribute("userPageWindowEnd",
+                Math.max(0, Math.min(usersPage.getTotalPages() - 1, usersPage.getNumber() + 2)));
         model.addAttribute("roleFilter", role != null ? role : "");
         model.addAttribute("userSearchQuery", userSearch != null ? userSearch : "");
 
-        Page<DoctorAppointmentDto> appointmentsPage = adminService.getAppointments(
-                appointmentPage, appointmentSize, statusFilter, appointmentSearch, startDate, endDate);
-        model.addAttribute("appointments", appointmentsPage.getContent());
+        Page<AdminAppointmentRow> appointmentsPage = dashboard.appointments();
+        List<AdminAppointmentRow> appointments = appointmentsPage.getContent();
+        model.addAttribute("appointments", appointments);
+        model.addAttribute("appointmentNextAfterId",
+                appointments.isEmpty() ? null : appointments.get(appointments.size() - 1).getId());
         model.addAttribute("appointmentCurrentPage", appointmentsPage.getNumber());
         model.addAttribute("appointmentTotalPages", appointmentsPage.getTotalPages());
         model.addAttribute("appointmentTotalElements", appointmentsPage.getTotalElements());
+        model.addAttribute("appointmentPageWindowStart", Math.max(0, appointmentsPage.getNumber() - 2));
+        model.addAttribute("appointmentPageWindowEnd",
+                Math.max(0, Math.min(appointmentsPage.getTotalPages() - 1, appointmentsPage.getNumber() + 2)));
         model.addAttribute("statusFilter", statusFilter != null ? statusFilter.name() : "");
         model.addAttribute("appointmentSearchQuery", appointmentSearch != null ? appointmentSearch : "");
         model.addAttribute("startDate", startDate != null ? startDate : "");
         model.addAttribute("endDate", endDate != null ? endDate : "");
 
-        model.addAttribute("recentRegistrations", adminService.getRecentRegistrations(5));
-        model.addAttribute("recentAppointments", adminService.getRecentAppointments(5));
-        model.addAttribute("confirmedAppointments", adminService.getConfirmedAppointments(5));
-        model.addAttribute("incompleteProfiles", adminService.getIncompleteProfilesCount());
+        model.addAttribute("recentRegistrations", dashboard.recentRegistrations());
+        model.addAttribute("recentAppointments", dashboard.recentAppointments());
+        model.addAttribute("confirmedAppointments", dashboard.confirmedAppointments());
+        model.addAttribute("incompleteProfiles", dashboard.incompleteProfiles());
 
-        model.addAttribute("alerts", adminService.getAlerts());
+        model.addAttribute("alerts", dashboard.alerts());
 
         return "admin/dashboard";
     }
 
+    @PostMapping("/capacity/rebuild")
+    @ResponseBody
+    public Map<String, Object> rebuildCapacity() {
+        int doctors = doctorCapacityService.rebuildAll();
+        return Map.of("rebuiltDoctors", doctors);
+    }
+
+    @GetMapping("/capacity/check")
+    @ResponseBody
+    public CapacityCheckResult checkCapacity(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        return doctorCapacityService.check(startDate, endDate, repair);
+    }
+
+    // Books a list of patients with one doctor, e.g. a whole clinic day
+    @PostMapping("/appointments/bulk")
+    @ResponseBody
+    public BulkBookingResult bulkBook(@RequestBody BulkBookingRequest request) {
+        return bulkBookingService.book(request.getDoctorId(), request.getItems());
+    }
+
     @PostMapping("/users/{id}/delete")
     public String deleteUser(
             @PathVariable Long id,
@@ -102,6 +174,16 @@ public class AdminController {
         return "redirect:/admin/dashboard";
     }
 
+    @GetMapping("/users/purge/{jobId}")
+    @ResponseBody
+    public UserPurgeStatus purgeStatus(@PathVariable String jobId) {
+        UserPurgeStatus status = userPurgeService.getStatus(jobId);
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired deletion job: " + jobId);
+        }
+        return status;
+    }
+
     @PostMapping("/appointments/{id}/cancel")
     public String cancelAppointment(
             @PathVariable Long id,
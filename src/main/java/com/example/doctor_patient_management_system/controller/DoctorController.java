@@ -15,6 +15,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,12 +31,20 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 
@@ -42,6 +52,11 @@ import java.util.stream.Collectors;
 @RequestMapping("/doctors")
 public class DoctorController {
 
+    private static final Logger log = LoggerFactory.getLogger(DoctorController.class);
+
+    private static final long BOOKING_TIMEOUT_SECONDS = 10;
+    private static final int MAX_BLOCK_RANGE_DAYS = 90;
+
     private final RabbitProducerServiceImpl rabbitProducerService;
     private final DoctorServiceImpl doctorService;
     private final UserServiceImpl userService;
@@ -51,7 +66,13 @@ public class DoctorController {
     private final AppointmentServiceImpl appointmentService;
     private final DoctorCalendarServiceImpl doctorCalendarService;
     private final DoctorSlotServiceImpl doctorSlotService;
-
+    private final CalendarBatchServiceImpl calendarBatchService;
+    private final SlotUpdateBroadcasterImpl slotUpdateBroadcaster;
+    private final SlotSearchServiceImpl slotSearchService;
+    private final SlotHoldServiceImpl slotHoldService;
+    private final BookingDispatcherImpl bookingDispatcher;
+    private final IdempotencyServiceImpl idempotencyService;
+    private final BulkBookingServiceImpl bulkBookingService;
 
     public DoctorController(DoctorServiceImpl doctorService,
                             UserServiceImpl userService,
@@ -61,7 +82,14 @@ public class DoctorController {
                             PrescriptionServiceImpl prescriptionService,
                             AppointmentServiceImpl appointmentService,
                             DoctorCalendarServiceImpl doctorCalendarService,
-                            DoctorSlotServiceImpl doctorSlotService) {
+                            DoctorSlotServiceImpl doctorSlotService,
+                            CalendarBatchServiceImpl calendarBatchService,
+                            SlotUpdateBroadcasterImpl slotUpdateBroadcaster,
+                            SlotSearchServiceImpl slotSearchService,
+                            SlotHoldServiceImpl slotHoldService,
+                            BookingDispatcherImpl bookingDispatcher,
+                            IdempotencyServiceImpl idempotencyService,
+                            BulkBookingServiceImpl bulkBookingService) {
         this.doctorService = doctorService;
         this.userService = userService;
         this.jwtUtil = jwtUtil;
@@ -71,6 +99,13 @@ public class DoctorController {
         this.appointmentService = appointmentService;
         this.doctorCalendarService = doctorCalendarService;
         this.doctorSlotService = doctorSlotService;
+        this.calendarBatchService = calendarBatchService;
+        this.slotUpdateBroadcaster = slotUpdateBroadcaster;
+        this.slotSearchService = slotSearchService;
+        this.slotHoldService = slotHoldService;
+        this.bookingDispatcher = bookingDispatcher;
+        this.idempotencyService = idempotencyService;
+        this.bulkBookingService = bulkBookingService;
     }
 
     @GetMapping("/{id}/profile")
@@ -132,6 +167,32 @@ public class DoctorController {
         return "doctors/profile";
     }
 
+    @GetMapping("/api/calendars")
+    @ResponseBody
+    public ResponseEntity<StreamingResponseBody> getCalendars(
+            @RequestParam List<Long> doctorIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(calendarBatchService.streamCalendars(principal.getUser().getId(), doctorIds, startDate, endDate));
+    }
+
+    @GetMapping("/api/earliest-slots")
+    @ResponseBody
+    public List<SlotSearchResult> getEarliestSlots(
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        LocalDate from = startDate != null ? startDate : LocalDate.now();
+        LocalDate to = endDate != null ? endDate : from.plusDays(13);
+        return slotSearchService.findEarliestSlots(speciality, from, to, limit);
+    }
+
     @GetMapping("/{id}/api/slots")
     @ResponseBody
     public ResponseEntity<List<TimeSlot>> getAvailableSlots(
@@ -148,74 +209,156 @@ public class DoctorController {
         }
     }
 
+    @GetMapping(value = "/{id}/api/slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamSlotUpdates(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return slotUpdateBroadcaster.subscribe(id, date);
+    }
+
+    @PostMapping("/{id}/api/hold")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> holdSlot(
+            @PathVariable Long id,
+            @RequestBody BookAppointmentRequest request,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        if (request.getAppointmentDate() == null) {
+            return ResponseEntity.badRequest().body(Map.of("held", false, "error", "Appointment date is required"));
+        }
+        long expiresAt;
+        try {
+            expiresAt = slotHoldService.hold(id, request.getAppointmentDate(), request.getSlotId(),
+                    principal.getUser().getId());
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(Map.of("held", false, "error", e.getReason()));
+        }
+        if (expiresAt < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("held", false, "error", "Slot is being booked by another patient"));
+        }
+        return ResponseEntity.ok(Map.of("held", true, "expiresAt", expiresAt));
+    }
+
+    @DeleteMapping("/{id}/api/hold")
+    @ResponseBody
+    public ResponseEntity<Void> releaseSlot(
+            @PathVariable Long id,
+            @RequestBody BookAppointmentRequest request,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        if (request.getAppointmentDate() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        slotHoldService.release(id, request.getAppointmentDate(), request.getSlotId(), principal.getUser().getId());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/{id}/api/book")
-    @Transactional
     @ResponseBody
     public ResponseEntity<BookAppointmentResponse> bookAppointmentAPI(
             @PathVariable Long id,
             @RequestBody BookAppointmentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Authentication authentication) {
 
-        try {
-            if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal)) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new BookAppointmentResponse(false, "Please login as a patient"));
-            }
-
-            User currentUser = ((UserPrincipal) authentication.getPrincipal()).getUser();
-            if (currentUser.getRole() != Role.PATIENT) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(new BookAppointmentResponse(false, "Only patients can book appointments"));
-            }
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new BookAppointmentResponse(false, "Please login as a patient"));
+        }
 
-            Doctor doctor = doctorService.getDoctorById(id);
+        User currentUser = ((UserPrincipal) authentication.getPrincipal()).getUser();
+        if (currentUser.getRole() != Role.PATIENT) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new BookAppointmentResponse(false, "Only patients can book appointments"));
+        }
 
-            List<TimeSlot> slots = doctorSlotService.getAvailableSlots(id, request.getAppointmentDate());
+        if (request.getAppointmentDate() == null) {
+            return ResponseEntity.badRequest()
+                    .body(new BookAppointmentResponse(false, "Appointment date is required"));
+        }
 
-            //TimeSlot: id, slotName, startTime, endTime, session;
+        if (idempotencyKey == null) {
+            return bookSlot(id, request, currentUser);
+        }
 
-            TimeSlot selectedSlot = slots.stream()
-                    .filter(s -> s.getId() == request.getSlotId())
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Slot not available"));
+        // Retries with the same key get the first outcome back without booking again. A booking still queued
+        // when this request stops waiting keeps the key pending, and its real outcome is stored once it finishes.
+        try {
+            String fingerprint = id + ":" + request.getAppointmentDate() + ":" + request.getSlotId();
+            IdempotentResponse response = idempotencyService.execute(currentUser.getId(), idempotencyKey, fingerprint,
+                    () -> submitBooking(id, request, currentUser).thenApply(result ->
+                            new IdempotentResponse(fingerprint, result.getStatusCode().value(), result.getBody())));
+            return ResponseEntity.status(response.getStatus()).body(response.getBody());
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .body(new BookAppointmentResponse(false, e.getReason()));
+        }
+    }
 
-            String timeRange = selectedSlot.getStartTime() + " - " + selectedSlot.getEndTime();
+    private ResponseEntity<BookAppointmentResponse> bookSlot(Long id, BookAppointmentRequest request, User currentUser) {
+        try {
+            return submitBooking(id, request, currentUser).get(BOOKING_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new BookAppointmentResponse(false, "Booking is taking too long, please check your appointments"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new BookAppointmentResponse(false, "Booking was interrupted, please check your appointments"));
+        } catch (ExecutionException e) {
+            return bookingFailed(e.getCause());
+        }
+    }
 
-            Appointment appointment = new Appointment(
-                    doctor,
-                    currentUser,
-                    request.getSlotId(),
-                    request.getAppointmentDate(),
-                    timeRange
-            );
-            Appointment saved = appointmentService.bookAppointment(appointment);
-
-            Patient patientProfile = patientService.findPatientByUserIdOrNull(currentUser.getId());
-
-            String patientName = patientProfile != null ?
-                    patientProfile.getPatientName() : currentUser.getEmail();
-
-            BookingMessage bookingMessage = new BookingMessage(
-                    saved.getId(),
-                    currentUser.getEmail(),
-                    patientName,
-                    doctor.getEmail(),
-                    doctor.getDoctorName(),
-                    request.getAppointmentDate(),
-                    timeRange,
-                    doctor.getSpeciality(),
-                    doctor.getConsultationFee()
-            );
+    // Queued on the doctor's booking lane; appointment and outbox message are written in one transaction.
+    // The future always completes with a response: refusals keep their status and anything unexpected is a 500,
+    // which the idempotency store does not remember.
+    private CompletableFuture<ResponseEntity<BookAppointmentResponse>> submitBooking(Long id, BookAppointmentRequest request,
+                                                                                   User currentUser) {
+        // Rejected at Redis speed while another patient holds the slot
+        if (slotHoldService.isHeldByOther(id, request.getAppointmentDate(), request.getSlotId(), currentUser.getId())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new BookAppointmentResponse(false, "Slot is being booked by another patient")));
+        }
 
-            rabbitProducerService.saveBookingMessage(bookingMessage);
+        return bookingDispatcher.submit(id, currentUser, request.getSlotId(), request.getAppointmentDate())
+                .handle((saved, error) -> {
+                    slotHoldService.release(id, request.getAppointmentDate(), request.getSlotId(), currentUser.getId());
+                    if (error != null) {
+                        return bookingFailed(error instanceof CompletionException ? error.getCause() : error);
+                    }
+                    return ResponseEntity.ok(
+                            new BookAppointmentResponse(true, "Booking confirmed successfully", saved.getId()));
+                });
+    }
 
-            return ResponseEntity.ok(
-                    new BookAppointmentResponse(true, "Booking confirmed successfully", saved.getId())
-            );
+    private ResponseEntity<BookAppointmentResponse> bookingFailed(Throwable error) {
+        if (error instanceof ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .body(new BookAppointmentResponse(false, e.getReason()));
+        }
+        log.error(" Booking failed: {}", error.getMessage(), error);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new BookAppointmentResponse(false, "Booking failed, please try again"));
+    }
 
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new BookAppointmentResponse(false, e.getMessage()));
+    // Books the same slot on a series of dates; conflicts are reported per date
+    @PostMapping("/{id}/api/book/recurring")
+    @ResponseBody
+    public ResponseEntity<?> bookRecurringAPI(@PathVariable Long id,
+                                              @RequestBody RecurringBookingRequest request,
+                                              @AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null || principal.getUser().getRole() != Role.PATIENT) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new BookAppointmentResponse(false, "Only patients can book appointments"));
+        }
+        try {
+            return ResponseEntity.ok(bulkBookingService.bookRecurring(id, principal.getUser(), request));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .body(new BookAppointmentResponse(false, e.getReason()));
         }
     }
 
@@ -593,6 +736,43 @@ public class DoctorController {
         return "redirect:/doctors/" + id + "/profile";
     }
 
+    @PostMapping("/{id}/block-range")
+    @PreAuthorize("hasRole('DOCTOR')")
+    @Transactional
+    public String blockRange(@PathVariable Long id,
+                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                             @AuthenticationPrincipal UserPrincipal principal,
+                             RedirectAttributes ra) {
+
+        if (principal == null || !principal.getUser().getId().equals(id)) {
+            ra.addFlashAttribute("error", "Access denied");
+            return "redirect:/doctors/" + id + "/profile";
+        }
+
+        if (startDate.isBefore(LocalDate.now())) {
+            ra.addFlashAttribute("error", "Cannot block past dates");
+            return "redirect:/doctors/" + id + "/block-days";
+        }
+        if (endDate.isBefore(startDate) || startDate.plusDays(MAX_BLOCK_RANGE_DAYS).isBefore(endDate)) {
+            ra.addFlashAttribute("error", "Choose an end date within " + MAX_BLOCK_RANGE_DAYS + " days of the start date");
+            return "redirect:/doctors/" + id + "/block-days";
+        }
+
+        int cancelledCount = appointmentService.cancelConfirmedAppointmentsForDoctorBetween(id, startDate, endDate);
+
+        doctorService.blockDays(id, startDate, endDate);
+        if (cancelledCount > 0) {
+            ra.addFlashAttribute("warning",
+                    "Days blocked successfully! " + cancelledCount +
+                            " existing appointment(s) have been cancelled.");
+        } else {
+            ra.addFlashAttribute("success", "Days blocked successfully!");
+        }
+
+        return "redirect:/doctors/" + id + "/block-days";
+    }
+
     @PostMapping("/{id}/unblock-day")
     @PreAuthorize("hasRole('DOCTOR')")
     @Transactional
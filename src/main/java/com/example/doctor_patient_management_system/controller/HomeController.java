@@ -2,6 +2,8 @@ package com.example.doctor_patient_management_system.controller;
 
 import com.example.doctor_patient_management_system.dto.AvailableDoctorSummary;
 import com.example.doctor_patient_management_system.service.DoctorAvailabilityServiceImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -29,16 +31,15 @@ public class HomeController {
             @RequestParam(defaultValue = "12") int size,
             Model model) {
 
-        List<AvailableDoctorSummary> allDoctors =
-                doctorAvailabilityService.getAvailableDoctors(Integer.MAX_VALUE);
+        if (page < 1) page = 1;
+        if (size < 1) size = 1;
 
-        int totalDoctors = allDoctors.size();
-        int totalPages = (int) Math.ceil((double) totalDoctors / size);
-        int startIndex = (page - 1) * size;
-        int endIndex = Math.min(startIndex + size, totalDoctors);
+        Page<AvailableDoctorSummary> doctorsPage =
+                doctorAvailabilityService.getAvailableDoctorsPage(PageRequest.of(page - 1, size));
 
-        List<AvailableDoctorSummary> currentPageDoctors =
-                allDoctors.subList(startIndex, endIndex);
+        List<AvailableDoctorSummary> currentPageDoctors = doctorsPage.getContent();
+        long totalDoctors = doctorsPage.getTotalElements();
+        int totalPages = doctorsPage.getTotalPages();
 
         model.addAttribute("availableDoctors", currentPageDoctors);
         model.addAttribute("currentPage", page);
@@ -38,6 +38,7 @@ public class PatientController {
     private final UserServiceImpl userService;
     private final AppointmentServiceImpl appointmentService;
     private final DoctorAvailabilityServiceImpl doctorAvailabilityService;
+    private final AppointmentPartitionServiceImpl appointmentPartitionService;
 
     public PatientController(PatientServiceImpl patientService,
                              JwtUtil jwtUtil,
@@ -46,7 +47,8 @@ public class PatientController {
                              RabbitProducerServiceImpl rabbitProducerService,
                              UserServiceImpl userService,
                              AppointmentServiceImpl appointmentService,
-                             DoctorAvailabilityServiceImpl doctorAvailabilityService) {
+                             DoctorAvailabilityServiceImpl doctorAvailabilityService,
+                             AppointmentPartitionServiceImpl appointmentPartitionService) {
         this.patientService = patientService;
         this.jwtUtil = jwtUtil;
         this.doctorService = doctorService;
@@ -55,6 +57,7 @@ public class PatientController {
         this.userService = userService;
         this.appointmentService = appointmentService;
         this.doctorAvailabilityService = doctorAvailabilityService;
+        this.appointmentPartitionService = appointmentPartitionService;
     }
 
 
@@ -220,6 +223,13 @@ public class PatientController {
         return "patients/appointments";
     }
 
+    // Appointments older than the retention window, moved out of the live table
+    @GetMapping("/api/appointments/archive")
+    @ResponseBody
+    public List<ArchivedAppointment> archivedAppointments(@AuthenticationPrincipal UserPrincipal principal) {
+        return appointmentPartitionService.getArchivedAppointments(principal.getUser().getId());
+    }
+
     @PreAuthorize("hasRole('PATIENT')")
     @PutMapping("/me")
     @ResponseBody
@@ -0,0 +1,33 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.LocalDate;
+
+// One row of the admin appointment table, read in a single query with names and prescription presence
+public class AdminAppointmentRow {
+    private Long id;
+    private LocalDate appointmentDate;
+    private String status;
+    private String doctorName;
+    private String patientName;
+    private String patientEmail;
+    private boolean hasPrescription;
+
+    public AdminAppointmentRow(Long id, LocalDate appointmentDate, String status, String doctorName,
+                               String patientName, String patientEmail, boolean hasPrescription) {
+        this.id = id;
+        this.appointmentDate = appointmentDate;
+        this.status = status;
+        this.doctorName = doctorName;
+        this.patientName = patientName;
+        this.patientEmail = patientEmail;
+        this.hasPrescription = hasPrescription;
+    }
+
+    public Long getId() { return id; }
+    public LocalDate getAppointmentDate() { return appointmentDate; }
+    public String getStatus() { return status; }
+    public String getDoctorName() { return doctorName; }
+    public String getPatientName() { return patientName; }
+    public String getPatientEmail() { return patientEmail; }
+    public boolean isHasPrescription() { return hasPrescription; }
+}
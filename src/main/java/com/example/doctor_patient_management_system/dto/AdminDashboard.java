@@ -0,0 +1,21 @@
+package com.example.doctor_patient_management_system.dto;
+
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.User;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+// Everything the admin dashboard renders; sections that failed or timed out hold empty defaults
+public record AdminDashboard(
+        DashboardStats stats,
+        Page<User> users,
+        Page<AdminAppointmentRow> appointments,
+        List<User> recentRegistrations,
+        List<Appointment> recentAppointments,
+        List<Appointment> confirmedAppointments,
+        long incompleteProfiles,
+        List<String> alerts,
+        Map<String, Long> sectionMillis
+) {}
@@ -0,0 +1,19 @@
+package com.example.doctor_patient_management_system.dto;
+
+import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
+
+// Filters and paging for the two tables on the admin dashboard
+public record AdminDashboardQuery(
+        int userPage,
+        int userSize,
+        String role,
+        String userSearch,
+        Long userAfterId,
+        int appointmentPage,
+        int appointmentSize,
+        AppointmentStatus statusFilter,
+        String appointmentSearch,
+        String startDate,
+        String endDate,
+        Long appointmentAfterId
+) {}
@@ -0,0 +1,33 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.LocalDate;
+
+// Appointment row read from the archive schema for patient history
+public class ArchivedAppointment {
+    private Long id;
+    private Long doctorId;
+    private String doctorName;
+    private String speciality;
+    private LocalDate appointmentDate;
+    private String appointmentTime;
+    private String status;
+
+    public ArchivedAppointment(Long id, Long doctorId, String doctorName, String speciality,
+                               LocalDate appointmentDate, String appointmentTime, String status) {
+        this.id = id;
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.speciality = speciality;
+        this.appointmentDate = appointmentDate;
+        this.appointmentTime = appointmentTime;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+    public Long getDoctorId() { return doctorId; }
+    public String getDoctorName() { return doctorName; }
+    public String getSpeciality() { return speciality; }
+    public LocalDate getAppointmentDate() { return appointmentDate; }
+    public String getAppointmentTime() { return appointmentTime; }
+    public String getStatus() { return status; }
+}
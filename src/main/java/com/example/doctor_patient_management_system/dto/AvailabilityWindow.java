@@ -0,0 +1,92 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+// Confirmed-booking counts and blocked days for a set of doctors over a date range,
+// loaded with a fixed number of queries and answered in memory.
+public class AvailabilityWindow {
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final int days;
+    private final Map<Long, DoctorDays> doctors = new HashMap<>();
+
+    public AvailabilityWindow(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+    }
+
+    public void addDoctor(DoctorSchedule schedule) {
+        doctors.put(schedule.getDoctorId(), new DoctorDays(schedule, new int[days], new BitSet(days)));
+    }
+
+    public void addBookedCount(Long doctorId, LocalDate date, int count) {
+        DoctorDays entry = doctors.get(doctorId);
+        if (entry != null && contains(date)) {
+            entry.booked[offset(date)] = count;
+        }
+    }
+
+    public void addBlockedDay(Long doctorId, LocalDate date) {
+        DoctorDays entry = doctors.get(doctorId);
+        if (entry != null && contains(date)) {
+            entry.blocked.set(offset(date));
+        }
+    }
+
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+
+    public DoctorSchedule getSchedule(Long doctorId) {
+        return doctors.get(doctorId).schedule;
+    }
+
+    public boolean isOffDay(Long doctorId, LocalDate date) {
+        DoctorDays entry = doctors.get(doctorId);
+        return entry.blocked.get(offset(date)) || entry.schedule.isWeeklyOffDay(date);
+    }
+
+    public int getBookedCount(Long doctorId, LocalDate date) {
+        return doctors.get(doctorId).booked[offset(date)];
+    }
+
+    public int getTotalSlots(Long doctorId) {
+        return doctors.get(doctorId).schedule.getTotalSlots();
+    }
+
+    // Working day that is not fully booked. A day with nothing booked counts even for a doctor
+    // without slots, as it always has on the weekly listing
+    public boolean isOpen(Long doctorId, LocalDate date) {
+        int booked = getBookedCount(doctorId, date);
+        return !isOffDay(doctorId, date) && (booked == 0 || booked < getTotalSlots(doctorId));
+    }
+
+    // Working day with at least one free slot
+    public boolean hasFreeSlot(Long doctorId, LocalDate date) {
+        int total = getTotalSlots(doctorId);
+        return !isOffDay(doctorId, date) && total > 0 && getBookedCount(doctorId, date) < total;
+    }
+
+    // Free slots on the day, 0 for off days
+    public int getFreeSlots(Long doctorId, LocalDate date) {
+        if (isOffDay(doctorId, date)) {
+            return 0;
+        }
+        return getTotalSlots(doctorId) - getBookedCount(doctorId, date);
+    }
+
+    private boolean contains(LocalDate date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+
+    private int offset(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(startDate, date);
+    }
+
+    private record DoctorDays(DoctorSchedule schedule, int[] booked, BitSet blocked) {}
+}
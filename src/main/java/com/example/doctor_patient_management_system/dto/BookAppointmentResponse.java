@@ -7,6 +7,9 @@ public class BookAppointmentResponse {
     private Long appointmentId;
     private String error;
 
+    public BookAppointmentResponse() {
+    }
+
     // Success constructor
     public BookAppointmentResponse(boolean success, String message, Long appointmentId) {
         this.success = success;
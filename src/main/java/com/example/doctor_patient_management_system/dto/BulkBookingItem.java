@@ -0,0 +1,27 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.LocalDate;
+
+public class BulkBookingItem {
+    private Long patientId; // user id of the patient
+    private Integer slotId;
+    private LocalDate appointmentDate;
+
+    public BulkBookingItem() {
+    }
+
+    public BulkBookingItem(Long patientId, Integer slotId, LocalDate appointmentDate) {
+        this.patientId = patientId;
+        this.slotId = slotId;
+        this.appointmentDate = appointmentDate;
+    }
+
+    public Long getPatientId() { return patientId; }
+    public void setPatientId(Long patientId) { this.patientId = patientId; }
+
+    public Integer getSlotId() { return slotId; }
+    public void setSlotId(Integer slotId) { this.slotId = slotId; }
+
+    public LocalDate getAppointmentDate() { return appointmentDate; }
+    public void setAppointmentDate(LocalDate appointmentDate) { this.appointmentDate = appointmentDate; }
+}
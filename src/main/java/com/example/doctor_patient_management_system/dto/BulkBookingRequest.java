@@ -0,0 +1,14 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.util.List;
+
+public class BulkBookingRequest {
+    private Long doctorId;
+    private List<BulkBookingItem> items;
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+    public List<BulkBookingItem> getItems() { return items; }
+    public void setItems(List<BulkBookingItem> items) { this.items = items; }
+}
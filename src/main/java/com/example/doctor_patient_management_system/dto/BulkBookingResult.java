@@ -0,0 +1,51 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Per-item outcome of a bulk booking, in request order
+public class BulkBookingResult {
+    private int booked;
+    private int failed;
+    private List<Item> items;
+
+    public BulkBookingResult(List<Item> items) {
+        this.items = items;
+        for (Item item : items) {
+            if (item.isSuccess()) {
+                booked++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public int getBooked() { return booked; }
+    public int getFailed() { return failed; }
+    public List<Item> getItems() { return items; }
+
+    public static class Item {
+        private Long patientId;
+        private Integer slotId;
+        private LocalDate appointmentDate;
+        private boolean success;
+        private Long appointmentId;
+        private String error;
+
+        public Item(BulkBookingItem request, Long appointmentId, String error) {
+            this.patientId = request.getPatientId();
+            this.slotId = request.getSlotId();
+            this.appointmentDate = request.getAppointmentDate();
+            this.success = error == null;
+            this.appointmentId = appointmentId;
+            this.error = error;
+        }
+
+        public Long getPatientId() { return patientId; }
+        public Integer getSlotId() { return slotId; }
+        public LocalDate getAppointmentDate() { return appointmentDate; }
+        public boolean isSuccess() { return success; }
+        public Long getAppointmentId() { return appointmentId; }
+        public String getError() { return error; }
+    }
+}
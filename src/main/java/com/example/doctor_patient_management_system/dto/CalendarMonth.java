@@ -0,0 +1,20 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.util.List;
+
+// Cached form of a doctor's month calendar
+public class CalendarMonth {
+    private List<DayStatus> days;
+    private long computedAt;
+
+    public CalendarMonth() {
+    }
+
+    public CalendarMonth(List<DayStatus> days, long computedAt) {
+        this.days = days;
+        this.computedAt = computedAt;
+    }
+
+    public List<DayStatus> getDays() { return days; }
+    public long getComputedAt() { return computedAt; }
+}
@@ -0,0 +1,65 @@
+package com.example.doctor_patient_management_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Tells a patient their appointment was cancelled because the doctor blocked the day
+public class CancellationMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long appointmentId;
+    private String patientEmail;
+    private String patientName;
+    private String doctorName;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate appointmentDate;
+
+    private String appointmentTime;
+    private String reason;
+
+    public CancellationMessage() {}
+
+    public CancellationMessage(Long appointmentId, String patientEmail, String patientName, String doctorName,
+                               LocalDate appointmentDate, String appointmentTime, String reason) {
+        this.appointmentId = appointmentId;
+        this.patientEmail = patientEmail;
+        this.patientName = patientName;
+        this.doctorName = doctorName;
+        this.appointmentDate = appointmentDate;
+        this.appointmentTime = appointmentTime;
+        this.reason = reason;
+    }
+
+    public Long getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+
+    public String getPatientEmail() { return patientEmail; }
+    public void setPatientEmail(String patientEmail) { this.patientEmail = patientEmail; }
+
+    public String getPatientName() { return patientName; }
+    public void setPatientName(String patientName) { this.patientName = patientName; }
+
+    public String getDoctorName() { return doctorName; }
+    public void setDoctorName(String doctorName) { this.doctorName = doctorName; }
+
+    public LocalDate getAppointmentDate() { return appointmentDate; }
+    public void setAppointmentDate(LocalDate appointmentDate) { this.appointmentDate = appointmentDate; }
+
+    public String getAppointmentTime() { return appointmentTime; }
+    public void setAppointmentTime(String appointmentTime) { this.appointmentTime = appointmentTime; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    @Override
+    public String toString() {
+        return "CancellationMessage{" +
+                "appointmentId=" + appointmentId +
+                ", patientEmail='" + patientEmail + '\'' +
+                ", appointmentDate=" + appointmentDate +
+                '}';
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.doctor_patient_management_system.dto;
+
+// Bookings and cancellations seen in one sliding window
+public record CancellationRate(long booked, long cancelled) {
+
+    public long total() {
+        return booked + cancelled;
+    }
+
+    public double rate() {
+        long total = total();
+        return total == 0 ? 0 : (double) cancelled / total;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class CapacityCheckResult {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int doctorsChecked;
+    private List<Long> mismatchedDoctorIds;
+    private boolean repaired;
+
+    public CapacityCheckResult(LocalDate startDate, LocalDate endDate, int doctorsChecked,
+                               List<Long> mismatchedDoctorIds, boolean repaired) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.doctorsChecked = doctorsChecked;
+        this.mismatchedDoctorIds = mismatchedDoctorIds;
+        this.repaired = repaired;
+    }
+
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public int getDoctorsChecked() { return doctorsChecked; }
+    public List<Long> getMismatchedDoctorIds() { return mismatchedDoctorIds; }
+    public boolean isRepaired() { return repaired; }
+}
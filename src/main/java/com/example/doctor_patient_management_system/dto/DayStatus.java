@@ -10,6 +10,9 @@ public class DayStatus {
     private boolean isToday;
     private String dayName;
 
+    public DayStatus() {
+    }
+
     public DayStatus(LocalDate date, String status, int bookedCount, int availableCount, boolean isToday, String dayName) {
         this.date = date;
         this.status = status;
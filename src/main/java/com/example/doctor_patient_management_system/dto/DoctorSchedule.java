@@ -0,0 +1,45 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+// A doctor's weekly schedule parsed once: the off days and the number of slots in a working day.
+public class DoctorSchedule {
+
+    private final Long doctorId;
+    private final Set<DayOfWeek> offDays;
+    private final int totalSlots;
+
+    public DoctorSchedule(Long doctorId, Set<DayOfWeek> offDays, int totalSlots) {
+        this.doctorId = doctorId;
+        this.offDays = offDays;
+        this.totalSlots = totalSlots;
+    }
+
+    // "FRIDAY, saturday" -> {FRIDAY, SATURDAY}; unknown names are ignored
+    public static EnumSet<DayOfWeek> parseOffDays(String offDays) {
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (offDays == null || offDays.isBlank()) {
+            return days;
+        }
+        for (String name : offDays.split(",")) {
+            String trimmed = name.trim();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (day.name().equalsIgnoreCase(trimmed)) {
+                    days.add(day);
+                }
+            }
+        }
+        return days;
+    }
+
+    public Long getDoctorId() { return doctorId; }
+    public Set<DayOfWeek> getOffDays() { return offDays; }
+    public int getTotalSlots() { return totalSlots; }
+
+    public boolean isWeeklyOffDay(LocalDate date) {
+        return offDays.contains(date.getDayOfWeek());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.doctor_patient_management_system.dto;
+
+// Outcome of a booking request remembered under its Idempotency-Key, with the request it answered
+public class IdempotentResponse {
+    private String fingerprint;
+    private int status;
+    private BookAppointmentResponse body;
+
+    public IdempotentResponse() {
+    }
+
+    public IdempotentResponse(String fingerprint, int status, BookAppointmentResponse body) {
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.body = body;
+    }
+
+    public String getFingerprint() { return fingerprint; }
+    public int getStatus() { return status; }
+    public BookAppointmentResponse getBody() { return body; }
+}
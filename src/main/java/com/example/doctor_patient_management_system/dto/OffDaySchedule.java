@@ -0,0 +1,47 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+// A doctor's weekly off days plus the days blocked through overrides within [windowStart, windowEnd].
+public class OffDaySchedule {
+
+    private final Long doctorId;
+    private final Set<DayOfWeek> offDays;
+    private final NavigableSet<LocalDate> blockedDates;
+    private final LocalDate windowStart;
+    private final LocalDate windowEnd;
+    private final long loadedAt;
+
+    public OffDaySchedule(Long doctorId, Set<DayOfWeek> offDays, Iterable<LocalDate> blockedDates,
+                          LocalDate windowStart, LocalDate windowEnd) {
+        TreeSet<LocalDate> sorted = new TreeSet<>();
+        blockedDates.forEach(sorted::add);
+
+        this.doctorId = doctorId;
+        this.offDays = offDays;
+        this.blockedDates = Collections.unmodifiableNavigableSet(sorted);
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    public Long getDoctorId() { return doctorId; }
+    public Set<DayOfWeek> getOffDays() { return offDays; }
+    public NavigableSet<LocalDate> getBlockedDates() { return blockedDates; }
+    public LocalDate getWindowStart() { return windowStart; }
+    public LocalDate getWindowEnd() { return windowEnd; }
+    public long getLoadedAt() { return loadedAt; }
+
+    public boolean covers(LocalDate date) {
+        return !date.isBefore(windowStart) && !date.isAfter(windowEnd);
+    }
+
+    public boolean isOffDay(LocalDate date) {
+        return offDays.contains(date.getDayOfWeek()) || blockedDates.contains(date);
+    }
+}
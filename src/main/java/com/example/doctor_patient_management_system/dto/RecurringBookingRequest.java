@@ -0,0 +1,23 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.LocalDate;
+
+// Same slot every intervalDays, starting on startDate
+public class RecurringBookingRequest {
+    private Integer slotId;
+    private LocalDate startDate;
+    private int intervalDays = 7;
+    private int occurrences;
+
+    public Integer getSlotId() { return slotId; }
+    public void setSlotId(Integer slotId) { this.slotId = slotId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public int getIntervalDays() { return intervalDays; }
+    public void setIntervalDays(int intervalDays) { this.intervalDays = intervalDays; }
+
+    public int getOccurrences() { return occurrences; }
+    public void setOccurrences(int occurrences) { this.occurrences = occurrences; }
+}
@@ -0,0 +1,38 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.LocalDate;
+
+public class SlotSearchResult {
+    private Long doctorId;
+    private String doctorName;
+    private String speciality;
+    private Integer consultationFee;
+    private LocalDate date;
+    private int slotId;
+    private String slotName;
+    private String startTime;
+    private String endTime;
+
+    public SlotSearchResult(Long doctorId, String doctorName, String speciality, Integer consultationFee,
+                            LocalDate date, TimeSlot slot) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.speciality = speciality;
+        this.consultationFee = consultationFee;
+        this.date = date;
+        this.slotId = slot.getId();
+        this.slotName = slot.getSlotName();
+        this.startTime = slot.getStartTime();
+        this.endTime = slot.getEndTime();
+    }
+
+    public Long getDoctorId() { return doctorId; }
+    public String getDoctorName() { return doctorName; }
+    public String getSpeciality() { return speciality; }
+    public Integer getConsultationFee() { return consultationFee; }
+    public LocalDate getDate() { return date; }
+    public int getSlotId() { return slotId; }
+    public String getSlotName() { return slotName; }
+    public String getStartTime() { return startTime; }
+    public String getEndTime() { return endTime; }
+}
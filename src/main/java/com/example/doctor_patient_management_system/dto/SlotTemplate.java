@@ -0,0 +1,42 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Compiled consultation window: every slot of a day, in slot id order (id 1 is index 0).
+// Instances are shared between doctors with the same hours, so nothing here may be mutated.
+public final class SlotTemplate {
+
+    public static final SlotTemplate EMPTY = new SlotTemplate(new TimeSlot[0], new int[0]);
+
+    private final TimeSlot[] slots;
+    private final int[] startMinutes;
+    private final List<TimeSlot> slotList;
+
+    public SlotTemplate(TimeSlot[] slots, int[] startMinutes) {
+        this.slots = slots;
+        this.startMinutes = startMinutes;
+        this.slotList = Collections.unmodifiableList(Arrays.asList(slots));
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    public List<TimeSlot> getSlots() {
+        return slotList;
+    }
+
+    public TimeSlot getSlot(int slotId) {
+        if (slotId < 1 || slotId > slots.length) {
+            return null;
+        }
+        return slots[slotId - 1];
+    }
+
+    // Minutes since midnight at which the slot starts
+    public int getStartMinutes(int slotId) {
+        return startMinutes[slotId - 1];
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.doctor_patient_management_system.dto;
+
+import java.time.LocalDate;
+
+// Slot delta pushed to subscribers of a doctor's day; also the payload on the Redis channel
+public class SlotUpdateMessage {
+    private String type; // TAKEN or FREED
+    private Long doctorId;
+    private LocalDate date;
+    private Integer slotId;
+    private long publishedAt;
+    private String origin;
+
+    public SlotUpdateMessage() {
+    }
+
+    public SlotUpdateMessage(String type, Long doctorId, LocalDate date, Integer slotId, long publishedAt, String origin) {
+        this.type = type;
+        this.doctorId = doctorId;
+        this.date = date;
+        this.slotId = slotId;
+        this.publishedAt = publishedAt;
+        this.origin = origin;
+    }
+
+    public String getType() { return type; }
+    public Long getDoctorId() { return doctorId; }
+    public LocalDate getDate() { return date; }
+    public Integer getSlotId() { return slotId; }
+    public long getPublishedAt() { return publishedAt; }
+    public String getOrigin() { return origin; }
+}
@@ -1,11 +1,11 @@
 package com.example.doctor_patient_management_system.dto;
 
 public class TimeSlot {
-    private int id;
-    private String slotName;
-    private String startTime;
-    private String endTime;
-    private String session;
+    private final int id;
+    private final String slotName;
+    private final String startTime;
+    private final String endTime;
+    private final String session;
 
     public TimeSlot(int id, String slotName, String startTime, String endTime, String session) {
         this.id = id;
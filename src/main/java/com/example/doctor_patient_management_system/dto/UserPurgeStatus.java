@@ -0,0 +1,49 @@
+package com.example.doctor_patient_management_system.dto;
+
+// Progress of deleting a user and everything attached to it
+public class UserPurgeStatus {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String jobId;
+    private Long userId;
+    private String email;
+    private String role;
+    private State state;
+    private long totalAppointments;
+    private long deletedAppointments;
+    private long startedAt;
+    private long updatedAt;
+    private String error;
+
+    public UserPurgeStatus(String jobId, Long userId, String email, String role, State state,
+                           long totalAppointments, long deletedAppointments, long startedAt, long updatedAt,
+                           String error) {
+        this.jobId = jobId;
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.state = state;
+        this.totalAppointments = totalAppointments;
+        this.deletedAppointments = deletedAppointments;
+        this.startedAt = startedAt;
+        this.updatedAt = updatedAt;
+        this.error = error;
+    }
+
+    public String getJobId() { return jobId; }
+    public Long getUserId() { return userId; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+    public State getState() { return state; }
+    public long getTotalAppointments() { return totalAppointments; }
+    public long getDeletedAppointments() { return deletedAppointments; }
+    public long getStartedAt() { return startedAt; }
+    public long getUpdatedAt() { return updatedAt; }
+    public String getError() { return error; }
+
+    public void setState(State state) { this.state = state; }
+    public void setDeletedAppointments(long deletedAppointments) { this.deletedAppointments = deletedAppointments; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,51 @@
+package com.example.doctor_patient_management_system.event;
+
+import com.example.doctor_patient_management_system.model.Appointment;
+
+import java.time.LocalDate;
+
+// Published whenever a confirmed appointment takes or releases a slot.
+// Listeners react after the surrounding transaction commits.
+public class AppointmentSlotEvent {
+
+    public enum Type {
+        BOOKED,
+        FREED
+    }
+
+    private final Type type;
+    private final Long appointmentId;
+    private final Long doctorId;
+    private final LocalDate date;
+    private final Integer slotId;
+    private final long occurredAt;
+
+    public AppointmentSlotEvent(Type type, Long appointmentId, Long doctorId, LocalDate date, Integer slotId) {
+        this.type = type;
+        this.appointmentId = appointmentId;
+        this.doctorId = doctorId;
+        this.date = date;
+        this.slotId = slotId;
+        this.occurredAt = System.currentTimeMillis();
+    }
+
+    public static AppointmentSlotEvent booked(Appointment appointment) {
+        return of(Type.BOOKED, appointment);
+    }
+
+    public static AppointmentSlotEvent freed(Appointment appointment) {
+        return of(Type.FREED, appointment);
+    }
+
+    private static AppointmentSlotEvent of(Type type, Appointment appointment) {
+        return new AppointmentSlotEvent(type, appointment.getId(), appointment.getDoctor().getId(),
+                appointment.getAppointmentDate(), appointment.getSlotId());
+    }
+
+    public Type getType() { return type; }
+    public Long getAppointmentId() { return appointmentId; }
+    public Long getDoctorId() { return doctorId; }
+    public LocalDate getDate() { return date; }
+    public Integer getSlotId() { return slotId; }
+    public long getOccurredAt() { return occurredAt; }
+}
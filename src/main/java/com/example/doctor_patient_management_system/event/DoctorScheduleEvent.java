@@ -0,0 +1,40 @@
+package com.example.doctor_patient_management_system.event;
+
+import java.time.LocalDate;
+
+// Published when a doctor's hours/off days change or a day is blocked or unblocked.
+// date is only set for the day-level types.
+public class DoctorScheduleEvent {
+
+    public enum Type {
+        PROFILE_CHANGED,
+        DAY_BLOCKED,
+        DAY_UNBLOCKED
+    }
+
+    private final Type type;
+    private final Long doctorId;
+    private final LocalDate date;
+
+    public DoctorScheduleEvent(Type type, Long doctorId, LocalDate date) {
+        this.type = type;
+        this.doctorId = doctorId;
+        this.date = date;
+    }
+
+    public static DoctorScheduleEvent profileChanged(Long doctorId) {
+        return new DoctorScheduleEvent(Type.PROFILE_CHANGED, doctorId, null);
+    }
+
+    public static DoctorScheduleEvent dayBlocked(Long doctorId, LocalDate date) {
+        return new DoctorScheduleEvent(Type.DAY_BLOCKED, doctorId, date);
+    }
+
+    public static DoctorScheduleEvent dayUnblocked(Long doctorId, LocalDate date) {
+        return new DoctorScheduleEvent(Type.DAY_UNBLOCKED, doctorId, date);
+    }
+
+    public Type getType() { return type; }
+    public Long getDoctorId() { return doctorId; }
+    public LocalDate getDate() { return date; }
+}
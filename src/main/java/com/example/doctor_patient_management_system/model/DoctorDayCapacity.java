@@ -0,0 +1,40 @@
+package com.example.doctor_patient_management_system.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Read model: confirmed bookings and blocked flag per doctor and day, kept in step with appointments.
+// Days without a row have no bookings and are not blocked.
+@Entity
+@Table(name = "doctor_day_capacity",
+        uniqueConstraints = @UniqueConstraint(name = "uk_doctor_day_capacity", columnNames = {"doctor_id", "capacity_date"}))
+public class DoctorDayCapacity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "capacity_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "total_slots", nullable = false)
+    private int totalSlots;
+
+    @Column(name = "booked_count", nullable = false)
+    private int bookedCount;
+
+    @Column(name = "blocked", nullable = false)
+    private boolean blocked;
+
+    public DoctorDayCapacity() {}
+
+    public Long getId() { return id; }
+    public Long getDoctorId() { return doctorId; }
+    public LocalDate getDate() { return date; }
+    public int getTotalSlots() { return totalSlots; }
+    public int getBookedCount() { return bookedCount; }
+    public boolean isBlocked() { return blocked; }
+}
@@ -12,7 +12,7 @@ public class MessageOutbox {
     private Long id;
 
     @Column(nullable = false)
-    private String messageType; // "REGISTRATION" or "BOOKING"
+    private String messageType; // "REGISTRATION", "BOOKING" or "CANCELLATION"
 
     @Column(nullable = false, columnDefinition = "TEXT")
     private String payload; // JSON string
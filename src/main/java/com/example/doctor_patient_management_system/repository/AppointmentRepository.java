@@ -2,12 +2,14 @@ package com.example.doctor_patient_management_system.repository;
 
 import com.example.doctor_patient_management_system.model.Appointment;
 import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,6 +19,23 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT a.slotId FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentDate = :date AND a.status = 'CONFIRMED'")
     List<Integer> findBookedSlotIdsByDoctorIdAndDate(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
 
+    @Query("SELECT a.appointmentDate, a.slotId FROM Appointment a WHERE a.doctor.id = :doctorId " +
+            "AND a.appointmentDate BETWEEN :startDate AND :endDate AND a.status = 'CONFIRMED'")
+    List<Object[]> findBookedSlotsByDoctorIdAndDateBetween(@Param("doctorId") Long doctorId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT a.doctor.id, a.appointmentDate, COUNT(a) FROM Appointment a " +
+            "WHERE a.doctor.id IN :doctorIds AND a.appointmentDate BETWEEN :startDate AND :endDate " +
+            "AND a.status = 'CONFIRMED' GROUP BY a.doctor.id, a.appointmentDate")
+    List<Object[]> countConfirmedByDoctorIdsAndDateBetween(@Param("doctorIds") Collection<Long> doctorIds,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT a.doctor.id, a.appointmentDate, COUNT(a) FROM Appointment a " +
+            "WHERE a.doctor.id IN :doctorIds AND a.status = 'CONFIRMED' GROUP BY a.doctor.id, a.appointmentDate")
+    List<Object[]> countConfirmedByDoctorIds(@Param("doctorIds") Collection<Long> doctorIds);
+
     @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId ORDER BY a.appointmentDate DESC")
     List<Appointment> findByPatientIdOrderByAppointmentDateDesc(@Param("patientId") Long patientId);
 
@@ -41,4 +60,8 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             AppointmentStatus status
     );
 
+    List<Appointment> findByStatus(AppointmentStatus status, Pageable pageable);
+
+    @Query("SELECT a.status, COUNT(a) FROM Appointment a GROUP BY a.status")
+    List<Object[]> countGroupedByStatus();
 }
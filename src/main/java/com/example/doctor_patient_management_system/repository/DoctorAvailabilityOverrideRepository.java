@@ -2,11 +2,13 @@ package com.example.doctor_patient_management_system.repository;
 
 import com.example.doctor_patient_management_system.model.DoctorAvailabilityOverride;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +21,41 @@ public interface DoctorAvailabilityOverrideRepository extends JpaRepository<Doct
     @Query("SELECT o FROM DoctorAvailabilityOverride o WHERE o.doctor.id = :doctorId AND o.overrideDate >= :fromDate")
     List<DoctorAvailabilityOverride> findUpcomingByDoctorId(@Param("doctorId") Long doctorId, @Param("fromDate") LocalDate fromDate);
 
+    @Query("SELECT o.overrideDate FROM DoctorAvailabilityOverride o WHERE o.doctor.id = :doctorId " +
+            "AND o.isAvailable = false AND o.overrideDate BETWEEN :startDate AND :endDate")
+    List<LocalDate> findBlockedDatesByDoctorIdAndDateBetween(@Param("doctorId") Long doctorId,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT o.doctor.id, o.overrideDate FROM DoctorAvailabilityOverride o WHERE o.doctor.id IN :doctorIds " +
+            "AND o.isAvailable = false AND o.overrideDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findBlockedDatesByDoctorIdsAndDateBetween(@Param("doctorIds") Collection<Long> doctorIds,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT o.doctor.id, o.overrideDate FROM DoctorAvailabilityOverride o " +
+            "WHERE o.doctor.id IN :doctorIds AND o.isAvailable = false")
+    List<Object[]> findBlockedDatesByDoctorIds(@Param("doctorIds") Collection<Long> doctorIds);
+
+    @Modifying
+    @Query(value = "UPDATE doctor_availability_overrides SET is_available = false " +
+            "WHERE doctor_id = :doctorId AND override_date BETWEEN :startDate AND :endDate",
+            nativeQuery = true)
+    int blockExistingBetween(@Param("doctorId") Long doctorId,
+                             @Param("startDate") LocalDate startDate,
+                             @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO doctor_availability_overrides (doctor_id, override_date, is_available) " +
+            "SELECT :doctorId, CAST(d AS date), false " +
+            "FROM generate_series(CAST(:startDate AS date), CAST(:endDate AS date), INTERVAL '1 day') d " +
+            "WHERE NOT EXISTS (SELECT 1 FROM doctor_availability_overrides o " +
+            "WHERE o.doctor_id = :doctorId AND o.override_date = CAST(d AS date))",
+            nativeQuery = true)
+    int insertBlocksBetween(@Param("doctorId") Long doctorId,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate);
+
     // Optional: Custom delete method if needed for unblock (can use native deleteById, but this is more specific)
     @Query("DELETE FROM DoctorAvailabilityOverride o WHERE o.doctor.id = :doctorId AND o.overrideDate = :date")
     void deleteByDoctorIdAndDate(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
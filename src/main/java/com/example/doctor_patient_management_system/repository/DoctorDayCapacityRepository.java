@@ -0,0 +1,84 @@
+package com.example.doctor_patient_management_system.repository;
+
+import com.example.doctor_patient_management_system.model.DoctorDayCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DoctorDayCapacityRepository extends JpaRepository<DoctorDayCapacity, Long> {
+
+    @Query("SELECT c.date, c.bookedCount FROM DoctorDayCapacity c WHERE c.doctorId = :doctorId " +
+            "AND c.date BETWEEN :startDate AND :endDate")
+    List<Object[]> findBookedCountsByDoctorIdAndDateBetween(@Param("doctorId") Long doctorId,
+                                                            @Param("startDate") LocalDate startDate,
+                                                            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT c.doctorId, c.date, c.bookedCount, c.blocked FROM DoctorDayCapacity c " +
+            "WHERE c.doctorId IN :doctorIds AND c.date BETWEEN :startDate AND :endDate")
+    List<Object[]> findByDoctorIdsAndDateBetween(@Param("doctorIds") Collection<Long> doctorIds,
+                                                 @Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT c.doctorId, c.date, c.bookedCount, c.blocked FROM DoctorDayCapacity c " +
+            "WHERE c.date BETWEEN :startDate AND :endDate")
+    List<Object[]> findByDateBetween(@Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO doctor_day_capacity (doctor_id, capacity_date, total_slots, booked_count, blocked) " +
+            "VALUES (:doctorId, :date, :totalSlots, :delta, false) " +
+            "ON CONFLICT (doctor_id, capacity_date) " +
+            "DO UPDATE SET booked_count = doctor_day_capacity.booked_count + :delta",
+            nativeQuery = true)
+    int incrementBooked(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+                        @Param("totalSlots") int totalSlots, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE doctor_day_capacity SET booked_count = GREATEST(booked_count - :delta, 0) " +
+            "WHERE doctor_id = :doctorId AND capacity_date = :date",
+            nativeQuery = true)
+    int decrementBooked(@Param("doctorId") Long doctorId, @Param("date") LocalDate date, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO doctor_day_capacity (doctor_id, capacity_date, total_slots, booked_count, blocked) " +
+            "VALUES (:doctorId, :date, :totalSlots, 0, :blocked) " +
+            "ON CONFLICT (doctor_id, capacity_date) DO UPDATE SET blocked = :blocked",
+            nativeQuery = true)
+    int upsertBlocked(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+                      @Param("totalSlots") int totalSlots, @Param("blocked") boolean blocked);
+
+    @Modifying
+    @Query(value = "INSERT INTO doctor_day_capacity (doctor_id, capacity_date, total_slots, booked_count, blocked) " +
+            "SELECT :doctorId, CAST(d AS date), :totalSlots, 0, true " +
+            "FROM generate_series(CAST(:startDate AS date), CAST(:endDate AS date), INTERVAL '1 day') d " +
+            "ON CONFLICT (doctor_id, capacity_date) DO UPDATE SET blocked = true",
+            nativeQuery = true)
+    int upsertBlockedBetween(@Param("doctorId") Long doctorId, @Param("startDate") LocalDate startDate,
+                             @Param("endDate") LocalDate endDate, @Param("totalSlots") int totalSlots);
+
+    // Rebuild path: the recomputed values win over whatever a concurrent writer left behind
+    @Modifying
+    @Query(value = "INSERT INTO doctor_day_capacity (doctor_id, capacity_date, total_slots, booked_count, blocked) " +
+            "VALUES (:doctorId, :date, :totalSlots, :bookedCount, :blocked) " +
+            "ON CONFLICT (doctor_id, capacity_date) DO UPDATE SET total_slots = EXCLUDED.total_slots, " +
+            "booked_count = EXCLUDED.booked_count, blocked = EXCLUDED.blocked",
+            nativeQuery = true)
+    int upsert(@Param("doctorId") Long doctorId, @Param("date") LocalDate date, @Param("totalSlots") int totalSlots,
+               @Param("bookedCount") int bookedCount, @Param("blocked") boolean blocked);
+
+    @Modifying
+    @Query("UPDATE DoctorDayCapacity c SET c.totalSlots = :totalSlots WHERE c.doctorId = :doctorId AND c.date >= :fromDate")
+    int updateTotalSlotsFrom(@Param("doctorId") Long doctorId, @Param("fromDate") LocalDate fromDate,
+                             @Param("totalSlots") int totalSlots);
+
+    @Modifying
+    @Query("DELETE FROM DoctorDayCapacity c WHERE c.doctorId IN :doctorIds")
+    int deleteByDoctorIds(@Param("doctorIds") Collection<Long> doctorIds);
+}
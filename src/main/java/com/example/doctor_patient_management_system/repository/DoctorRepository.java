@@ -19,6 +19,9 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
     List<Doctor> findBySpecialityIgnoreCase(String speciality);
 
+    @Query("SELECT d.id FROM Doctor d ORDER BY d.id")
+    List<Long> findAllIds();
+
     @Query("SELECT DISTINCT d.speciality FROM Doctor d WHERE d.speciality IS NOT NULL ORDER BY d.speciality")
     List<String> findDistinctSpecialityOrderBySpecialityAsc();
 
@@ -4,6 +4,8 @@ import com.example.doctor_patient_management_system.model.Doctor;
 import com.example.doctor_patient_management_system.model.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PatientRepository extends JpaRepository<Patient, Integer> {
@@ -11,4 +13,5 @@ public interface PatientRepository extends JpaRepository<Patient, Integer> {
     Patient deleteById(Long id);
     Optional<Patient> findById(Long id);
     Optional<Patient> findByUserId(Long userId);
+    List<Patient> findByUserIdIn(Collection<Long> userIds);
 }
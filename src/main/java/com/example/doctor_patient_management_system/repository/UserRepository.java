@@ -5,6 +5,7 @@ import com.example.doctor_patient_management_system.model.enumeration.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,7 +13,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User,Long> {
+public interface UserRepository extends JpaRepository<User,Long>, JpaSpecificationExecutor<User> {
     Optional<User> findByEmail(String email);
 
     Page<User> findByRole(Role role, Pageable pageable);
@@ -23,6 +24,10 @@ public interface UserRepository extends JpaRepository<User,Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.complete = false")
     long countByCompleteFalse();
 
+    // role, user count, incomplete profile count
+    @Query("SELECT u.role, COUNT(u), SUM(CASE WHEN u.complete = false THEN 1 ELSE 0 END) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupedByRole();
+
 //    @Query("SELECT u FROM User u WHERE " +
 //            "(:role IS NULL OR u.role = :role) AND " +
 //            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))")
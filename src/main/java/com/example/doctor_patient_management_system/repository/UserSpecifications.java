@@ -0,0 +1,35 @@
+package com.example.doctor_patient_management_system.repository;
+
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.model.enumeration.Role;
+import org.springframework.data.jpa.domain.Specification;
+
+// Filters for the admin user listing; each returns null when it doesn't apply so they compose with and()
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> hasRole(Role role) {
+        return role == null ? null : (root, query, cb) -> cb.equal(root.get("role"), role);
+    }
+
+    // Matches lower(email) so the trigram index on lower(email) can serve it
+    public static Specification<User> emailContains(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String pattern = containsPattern(search);
+        return (root, query, cb) -> cb.like(cb.lower(root.get("email")), pattern, '\\');
+    }
+
+    // Lower-cased '%term%' with LIKE wildcards in the term escaped by backslash
+    public static String containsPattern(String search) {
+        return "%" + search.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    public static Specification<User> idBefore(Long id) {
+        return id == null ? null : (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+}
@@ -40,13 +40,15 @@ public class SecurityConfig {
                         .requestMatchers("/auth/login", "/auth/register", "/auth/logout").permitAll()
                         .requestMatchers("/favicon.ico", "/error").permitAll()
                         .requestMatchers("/", "/available", "/doctors", "/doctors/{id}/profile").permitAll()
-                        .requestMatchers("/doctors/{id}/api/slots").permitAll()
+                        .requestMatchers("/doctors/{id}/api/slots", "/doctors/{id}/api/slots/stream",
+                                "/doctors/api/earliest-slots").permitAll()
 
                         .requestMatchers("/admin/dashboard").hasRole("ADMIN")
                         .requestMatchers("/doctors/profile", "/doctors/complete-registration",
                                 "/doctors/{id}/edit", "/doctors/my-appointments/**").hasRole("DOCTOR")
                         .requestMatchers("/patients/**").hasRole("PATIENT")
-                        .requestMatchers("/doctors/{id}/api/book").hasRole("PATIENT")
+                        .requestMatchers("/doctors/{id}/api/book", "/doctors/{id}/api/book/recurring",
+                                "/doctors/{id}/api/hold").hasRole("PATIENT")
 
                         .anyRequest().authenticated()
                 )
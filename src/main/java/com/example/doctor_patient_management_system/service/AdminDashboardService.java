@@ -0,0 +1,10 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.AdminDashboard;
+import com.example.doctor_patient_management_system.dto.AdminDashboardQuery;
+
+public interface AdminDashboardService {
+
+    AdminDashboard load(AdminDashboardQuery query);
+
+}
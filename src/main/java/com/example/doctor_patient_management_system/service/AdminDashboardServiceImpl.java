@@ -0,0 +1,195 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.AdminAppointmentRow;
+import com.example.doctor_patient_management_system.dto.AdminDashboard;
+import com.example.doctor_patient_management_system.dto.AdminDashboardQuery;
+import com.example.doctor_patient_management_system.dto.DashboardStats;
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Loads the admin dashboard sections concurrently on a bounded pool, so the page costs the slowest
+// section rather than the sum. A section that fails or misses the timeout is rendered empty and named in the alerts,
+// and is cancelled: a queued one never runs and a running one is interrupted.
+// Every loader thread can hold a database connection, so the pool is capped at a quarter of the connection pool.
+@Service
+public class AdminDashboardServiceImpl implements AdminDashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminDashboardServiceImpl.class);
+
+    private final AdminServiceImpl adminService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final long sectionTimeoutMillis;
+
+    public AdminDashboardServiceImpl(AdminServiceImpl adminService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.dashboard.loader-threads:4}") int threads,
+                                     @Value("${app.dashboard.loader-queue-capacity:16}") int queueCapacity,
+                                     @Value("${app.dashboard.section-timeout-ms:2000}") long sectionTimeoutMillis,
+                                     @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.adminService = adminService;
+        this.meterRegistry = meterRegistry;
+        this.sectionTimeoutMillis = sectionTimeoutMillis;
+
+        int maxThreads = Math.max(1, connectionPoolSize / 4);
+        if (threads > maxThreads) {
+            log.warn(" Dashboard loader threads lowered from {} to {} for a connection pool of {}",
+                    threads, maxThreads, connectionPoolSize);
+            threads = maxThreads;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(r, "dashboard-loader-" + threadNumber.incrementAndGet()));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public AdminDashboard load(AdminDashboardQuery q) {
+        Section<DashboardStats> stats = start("stats", adminService::getDashboardStats);
+        Section<Page<User>> users = start("users",
+                () -> adminService.getUsers(q.userPage(), q.userSize(), q.role(), q.userSearch(), q.userAfterId()));
+        Section<Page<AdminAppointmentRow>> appointments = start("appointments",
+                () -> adminService.getAppointments(q.appointmentPage(), q.appointmentSize(), q.statusFilter(),
+                        q.appointmentSearch(), q.startDate(), q.endDate(), q.appointmentAfterId()));
+        Section<List<User>> recentRegistrations = start("recentRegistrations",
+                () -> adminService.getRecentRegistrations(5));
+        Section<List<Appointment>> recentAppointments = start("recentAppointments",
+                () -> adminService.getRecentAppointments(5));
+        Section<List<Appointment>> confirmedAppointments = start("confirmedAppointments",
+                () -> adminService.getConfirmedAppointments(5));
+        Section<Long> incompleteProfiles = start("incompleteProfiles", adminService::getIncompleteProfilesCount);
+        Section<List<String>> alerts = start("alerts", adminService::getAlerts);
+
+        // Every section started together, so one deadline is the per-section timeout
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        Map<String, Long> sectionMillis = new LinkedHashMap<>();
+        List<String> unavailable = new ArrayList<>();
+
+        DashboardStats statsValue = stats.await(deadline, new DashboardStats(0, 0, 0, 0, 0, 0, 0),
+                sectionMillis, unavailable);
+        Page<User> usersValue = users.await(deadline, Page.empty(PageRequest.of(q.userPage(), q.userSize())),
+                sectionMillis, unavailable);
+        Page<AdminAppointmentRow> appointmentsValue = appointments.await(deadline,
+                Page.empty(PageRequest.of(q.appointmentPage(), q.appointmentSize())), sectionMillis, unavailable);
+        List<User> recentRegistrationsValue = recentRegistrations.await(deadline, List.of(), sectionMillis, unavailable);
+        List<Appointment> recentAppointmentsValue = recentAppointments.await(deadline, List.of(),
+                sectionMillis, unavailable);
+        List<Appointment> confirmedAppointmentsValue = confirmedAppointments.await(deadline, List.of(),
+                sectionMillis, unavailable);
+        long incompleteProfilesValue = incompleteProfiles.await(deadline, 0L, sectionMillis, unavailable);
+        List<String> alertsValue = new ArrayList<>(alerts.await(deadline, List.of(), sectionMillis, unavailable));
+
+        if (!unavailable.isEmpty()) {
+            alertsValue.add("⚠️ Some dashboard sections could not be loaded: " + String.join(", ", unavailable) + ".");
+        }
+
+        return new AdminDashboard(statsValue, usersValue, appointmentsValue, recentRegistrationsValue,
+                recentAppointmentsValue, confirmedAppointmentsValue, incompleteProfilesValue, alertsValue,
+                sectionMillis);
+    }
+
+    private <T> Section<T> start(String name, Supplier<T> loader) {
+        Section<T> section = new Section<>(name, loader);
+        try {
+            executor.execute(section);
+        } catch (RejectedExecutionException e) {
+            section.reject(e);
+        }
+        return section;
+    }
+
+    private void record(String section, long startedAt, long finishedAt, String outcome) {
+        Timer.builder("dashboard.section")
+                .tag("section", section)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(finishedAt - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private final class Section<T> extends FutureTask<T> {
+        private final String name;
+        private final long startedAt = System.nanoTime();
+        private volatile long finishedAt;
+
+        Section(String name, Supplier<T> loader) {
+            super(loader::get);
+            this.name = name;
+        }
+
+        void reject(RejectedExecutionException e) {
+            setException(e);
+        }
+
+        @Override
+        protected void done() {
+            finishedAt = System.nanoTime();
+            record(name, startedAt, finishedAt, outcome());
+        }
+
+        private String outcome() {
+            if (isCancelled()) {
+                return "cancelled";
+            }
+            try {
+                get();
+                return "success";
+            } catch (Exception e) {
+                return "error";
+            }
+        }
+
+        T await(long deadline, T fallback, Map<String, Long> sectionMillis, List<String> unavailable) {
+            try {
+                return get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.warn(" Dashboard section {} timed out", name);
+                cancel(true);
+                unavailable.add(name);
+                return fallback;
+            } catch (ExecutionException e) {
+                log.warn(" Dashboard section {} failed: {}", name, e.getCause().getMessage());
+                unavailable.add(name);
+                return fallback;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(true);
+                unavailable.add(name);
+                return fallback;
+            } finally {
+                // A section still running is reported with the time waited for it
+                long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+                sectionMillis.put(name, TimeUnit.NANOSECONDS.toMillis(end - startedAt));
+            }
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.doctor_patient_management_system.service;
 
+import com.example.doctor_patient_management_system.dto.AdminAppointmentRow;
 import com.example.doctor_patient_management_system.dto.DashboardStats;
-import com.example.doctor_patient_management_system.dto.DoctorAppointmentDto;
 import com.example.doctor_patient_management_system.model.Appointment;
 import com.example.doctor_patient_management_system.model.User;
 import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
@@ -20,10 +20,10 @@ public interface AdminService {
 
      DashboardStats getDashboardStats();
 
-     Page<User> getUsers(int page, int size, String role, String search);
+     Page<User> getUsers(int page, int size, String role, String search, Long afterId);
 
-     Page<DoctorAppointmentDto> getAppointments(int page, int size, AppointmentStatus statusFilter,
-                                                      String search, String startDate, String endDate);
+     Page<AdminAppointmentRow> getAppointments(int page, int size, AppointmentStatus statusFilter,
+                                               String search, String startDate, String endDate, Long afterId);
 
      void cancelAppointment(Long id);
 
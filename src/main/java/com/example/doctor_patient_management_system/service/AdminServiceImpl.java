@@ -1,227 +1,223 @@
 package com.example.doctor_patient_management_system.service;
 
+import com.example.doctor_patient_management_system.dto.AdminAppointmentRow;
 import com.example.doctor_patient_management_system.dto.DashboardStats;
-import com.example.doctor_patient_management_system.dto.DoctorAppointmentDto;
+import com.example.doctor_patient_management_system.dto.UserPurgeStatus;
 import com.example.doctor_patient_management_system.model.*;
 import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
 import com.example.doctor_patient_management_system.model.enumeration.Role;
 import com.example.doctor_patient_management_system.repository.*;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.LongSupplier;
 
 @Service
 public class AdminServiceImpl implements AdminService{
 
-    private final DoctorRepository doctorRepository;
-    private final PatientRepository patientRepository;
+    private static final int MAX_CACHED_COUNTS = 256;
+
+    private static final String APPOINTMENT_JOINS =
+            " JOIN users u ON u.id = a.patient_id JOIN doctors d ON d.id = a.doctor_id";
+
+    private static final String APPOINTMENT_ROW_SELECT =
+            "SELECT a.id, a.appointment_date, a.status, d.doctor_name, pi.patient_name, u.email,"
+                    + " EXISTS (SELECT 1 FROM prescriptions pr WHERE pr.appointment_id = a.id) AS has_prescription"
+                    + " FROM appointments a" + APPOINTMENT_JOINS
+                    + " LEFT JOIN patients_info pi ON pi.id = a.patient_id";
+
     private final AppointmentRepository appointmentRepository;
-    private final PrescriptionRepository prescriptionRepository;
     private final UserRepository userRepository;
-
-    public AdminServiceImpl(DoctorRepository doctorRepository,
-                            PatientRepository patientRepository,
-                            AppointmentRepository appointmentRepository,
-                            PrescriptionRepository prescriptionRepository,
-                            UserRepository userRepository) {
-        this.doctorRepository = doctorRepository;
-        this.patientRepository = patientRepository;
+    private final AppointmentServiceImpl appointmentService;
+    private final DashboardStatsServiceImpl dashboardStatsService;
+    private final CancellationRateServiceImpl cancellationRateService;
+    private final UserPurgeServiceImpl userPurgeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final long countTtlMillis;
+
+    private final Map<String, CachedCount> cachedCounts = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+            return size() > MAX_CACHED_COUNTS;
+        }
+    };
+
+    public AdminServiceImpl(AppointmentRepository appointmentRepository,
+                            UserRepository userRepository,
+                            AppointmentServiceImpl appointmentService,
+                            DashboardStatsServiceImpl dashboardStatsService,
+                            CancellationRateServiceImpl cancellationRateService,
+                            UserPurgeServiceImpl userPurgeService,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${app.admin.count-ttl-seconds:30}") long countTtlSeconds) {
         this.appointmentRepository = appointmentRepository;
-        this.prescriptionRepository = prescriptionRepository;
         this.userRepository = userRepository;
+        this.appointmentService = appointmentService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.cancellationRateService = cancellationRateService;
+        this.userPurgeService = userPurgeService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.countTtlMillis = countTtlSeconds * 1000L;
     }
 
+    // Small users are deleted before this returns; large ones continue in the background
     @Override
-    @Transactional
     public String deleteUser(Long id) {
         try {
-            User user = userRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
-
-            String userEmail = user.getEmail();
-            Role userRole = user.getRole();
-
-            switch (userRole) {
-                case DOCTOR:
-                    deleteDoctorAndRelatedData(id);
-                    break;
+            UserPurgeStatus status = userPurgeService.start(id);
+            String user = status.getEmail() + " (" + status.getRole() + ")";
 
-                case PATIENT:
-                    deletePatientAndRelatedData(id);
-                    break;
-
-                case ADMIN:
-                    userRepository.deleteById(id);
-                    break;
-            }
-
-            return "User deleted successfully: " + userEmail + " (" + userRole + ")";
+            return switch (status.getState()) {
+                case COMPLETED -> "User deleted successfully: " + user;
+                case QUEUED, RUNNING -> "Deletion of " + user + " started successfully in the background ("
+                        + status.getTotalAppointments() + " appointments). Job: " + status.getJobId();
+                case FAILED -> "Failed to delete user: " + status.getError();
+            };
 
         } catch (Exception e) {
             return "Failed to delete user: " + e.getMessage();
         }
     }
 
-
-    @Transactional
-    private void deleteDoctorAndRelatedData(Long userId) {
-        Doctor doctor = doctorRepository.findByUserId(userId)
-                .orElse(null);
-
-        if (doctor != null) {
-            Long doctorId = doctor.getId();
-
-            List<Appointment> doctorAppointments = appointmentRepository
-                    .findByDoctorIdOrderByAppointmentDateDesc(doctorId);
-
-            for (Appointment appointment : doctorAppointments) {
-                prescriptionRepository.findByAppointmentId(appointment.getId())
-                        .ifPresent(prescriptionRepository::delete);
-            }
-
-            appointmentRepository.deleteByDoctorId(doctorId);
-            doctorRepository.delete(doctor);
-        }
-
-        userRepository.deleteById(userId);
-    }
-
-    @Transactional
-    private void deletePatientAndRelatedData(Long userId) {
-        Patient patient = patientRepository.findByUserId(userId)
-                .orElse(null);
-
-        if (patient != null) {
-            List<Appointment> patientAppointments = appointmentRepository
-                    .findByPatientIdOrderByAppointmentDateDesc(userId);
-
-            for (Appointment appointment : patientAppointments) {
-                prescriptionRepository.findByAppointmentId(appointment.getId())
-                        .ifPresent(prescriptionRepository::delete);
-            }
-
-            appointmentRepository.deleteByPatientId(userId);
-            patientRepository.delete(patient);
-        }
-
-        userRepository.deleteById(userId);
-    }
-
     @Override
     public long getIncompleteProfilesCount() {
-        return userRepository.countByCompleteFalse();
+        return dashboardStatsService.getIncompleteProfiles();
     }
 
     @Override
     public DashboardStats getDashboardStats() {
-        long admins = userRepository.countByRole(Role.ADMIN);
-        long doctors = userRepository.countByRole(Role.DOCTOR);
-        long patients = userRepository.countByRole(Role.PATIENT);
-        long total = admins + doctors + patients;
-
-        List<Appointment> allAppointments = appointmentRepository.findAll();
-        long totalAppointments = allAppointments.size();
-        long confirmedAppointments = allAppointments.stream().filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED).count();
-        long cancelledAppointments = allAppointments.stream().filter(a -> a.getStatus() == AppointmentStatus.CANCELLED).count();
-
-        return new DashboardStats(admins, doctors, patients, total, totalAppointments, confirmedAppointments, cancelledAppointments);
+        return dashboardStatsService.getStats();
     }
 
     @Override
-    public Page<User> getUsers(int page, int size, String role, String search) {
-
-        List<User> allUsers = userRepository.findAll(Sort.by("id").descending());
-        List<User> filteredUsers = new ArrayList<>(allUsers);
-
-        if (search != null && !search.isBlank()) {
-            filteredUsers = filteredUsers.stream()
-                    .filter(u -> u.getEmail()
-                            .toLowerCase()
-                            .contains(search
-                                    .toLowerCase()))
-                    .collect(Collectors.toList());
+    public Page<User> getUsers(int page, int size, String role, String search, Long afterId) {
+        Role roleEnum = role != null && !role.isBlank() ? Role.valueOf(role.toUpperCase()) : null;
+        Specification<User> filter = Specification.allOf(
+                UserSpecifications.hasRole(roleEnum),
+                UserSpecifications.emailContains(search));
+        Sort sort = Sort.by("id").descending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        // Jumping straight to a page has no cursor, so it falls back to OFFSET with an exact count
+        if (afterId == null && page > 0) {
+            return userRepository.findAll(filter, pageable);
         }
 
-        if (role != null && !role.isBlank()) {
-            Role roleEnum = Role.valueOf(role.toUpperCase());
-            filteredUsers = filteredUsers.stream()
-                    .filter(u -> u.getRole() == roleEnum)
-                    .collect(Collectors.toList());
+        Specification<User> window = Specification.allOf(filter, UserSpecifications.idBefore(afterId));
+        List<User> users = userRepository.findBy(window, q -> q.sortBy(sort).limit(size).all());
+        return new PageImpl<>(users, pageable, countUsers(roleEnum, search, filter));
+    }
+
+    // Unfiltered totals come from the dashboard snapshot, so they lag registrations by up to its TTL (60s);
+    // filtered listings are counted once per TTL
+    private long countUsers(Role role, String search, Specification<User> filter) {
+        if (search == null || search.isBlank()) {
+            DashboardStats stats = dashboardStatsService.getStats();
+            if (role == null) {
+                return stats.totalUsers();
+            }
+            return switch (role) {
+                case ADMIN -> stats.totalAdmins();
+                case DOCTOR -> stats.totalDoctors();
+                case PATIENT -> stats.totalPatients();
+            };
         }
 
-        int start = page * size;
-        int end = Math.min(start + size, filteredUsers.size());
-        List<User> pagedUsers = start < filteredUsers.size()
-                ? filteredUsers.subList(start, end)
-                : new ArrayList<>();
+        return cachedCount("users|" + role + "|" + search.trim().toLowerCase(), () -> userRepository.count(filter));
+    }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        return new PageImpl<>(pagedUsers, pageable, filteredUsers.size());
+    private long cachedCount(String key, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        synchronized (cachedCounts) {
+            CachedCount cached = cachedCounts.get(key);
+            if (cached != null && now - cached.loadedAt < countTtlMillis) {
+                return cached.count;
+            }
+        }
+        long count = loader.getAsLong();
+        synchronized (cachedCounts) {
+            cachedCounts.put(key, new CachedCount(count, now));
+        }
+        return count;
     }
 
     @Override
-    public Page<DoctorAppointmentDto> getAppointments(int page, int size, AppointmentStatus statusFilter,
-                                                      String search, String startDate, String endDate) {
-        List<Appointment> allAppointments = appointmentRepository.findAll(Sort.by("appointmentDate").descending()
-                .and(Sort.by("id").descending()));
-
+    public Page<AdminAppointmentRow> getAppointments(int page, int size, AppointmentStatus statusFilter,
+                                                     String search, String startDate, String endDate,
+                                                     Long afterId) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
         if (statusFilter != null) {
-            allAppointments = allAppointments.stream()
-                    .filter(a -> a.getStatus() == statusFilter)
-                    .collect(Collectors.toList());
+            where.append(" AND a.status = ?");
+            args.add(statusFilter.name());
         }
-
-        if (startDate != null && !startDate.isBlank()) {
-            try {
-                LocalDate start = LocalDate.parse(startDate);
-                allAppointments = allAppointments.stream()
-                        .filter(a -> a.getAppointmentDate() != null &&
-                                !a.getAppointmentDate().isBefore(start))
-                        .collect(Collectors.toList());
-            } catch (Exception e) {
-            }
+        LocalDate start = parseDate(startDate);
+        if (start != null) {
+            where.append(" AND a.appointment_date >= ?");
+            args.add(start);
         }
-
-        if (endDate != null && !endDate.isBlank()) {
-            try {
-                LocalDate end = LocalDate.parse(endDate);
-                allAppointments = allAppointments.stream()
-                        .filter(a -> a.getAppointmentDate() != null &&
-                                !a.getAppointmentDate().isAfter(end))
-                        .collect(Collectors.toList());
-            } catch (Exception e) {
-            }
+        LocalDate end = parseDate(endDate);
+        if (end != null) {
+            where.append(" AND a.appointment_date <= ?");
+            args.add(end);
         }
-
-        if (search != null && !search.isBlank()) {
-            allAppointments = allAppointments.stream()
-                    .filter(a -> (a.getPatient() != null &&
-                            a.getPatient().getEmail().toLowerCase().contains(search.toLowerCase())) ||
-                            (a.getDoctor() != null &&
-                                    a.getDoctor().getDoctorName().toLowerCase().contains(search.toLowerCase())))
-                    .collect(Collectors.toList());
+        boolean searching = search != null && !search.isBlank();
+        if (searching) {
+            String pattern = UserSpecifications.containsPattern(search);
+            where.append(" AND (lower(u.email) LIKE ? OR lower(d.doctor_name) LIKE ?)");
+            args.add(pattern);
+            args.add(pattern);
         }
 
-        int startIdx = page * size;
-        int endIdx = Math.min(startIdx + size, allAppointments.size());
-        List<Appointment> pagedAppointments = startIdx < allAppointments.size()
-                ? allAppointments.subList(startIdx, endIdx)
-                : new ArrayList<>();
-
-        List<DoctorAppointmentDto> dtos = pagedAppointments.stream().map(appointment -> {
-            Patient patientProfile = patientRepository.findByUserId(appointment.getPatient().getId()).orElse(null);
-            Prescription prescription = prescriptionRepository.findByAppointmentId(appointment.getId()).orElse(null);
-            return new DoctorAppointmentDto(appointment, patientProfile, prescription);
-        }).collect(Collectors.toList());
+        StringBuilder sql = new StringBuilder(APPOINTMENT_ROW_SELECT).append(where);
+        List<Object> pageArgs = new ArrayList<>(args);
+        if (afterId != null) {
+            // Keyset on (appointment_date, id); the cursor row supplies its own date
+            sql.append(" AND (a.appointment_date, a.id) <"
+                    + " (SELECT c.appointment_date, c.id FROM appointments c WHERE c.id = ?)");
+            pageArgs.add(afterId);
+        }
+        sql.append(" ORDER BY a.appointment_date DESC, a.id DESC LIMIT ?");
+        pageArgs.add(size);
+        if (afterId == null && page > 0) {
+            sql.append(" OFFSET ?");
+            pageArgs.add((long) page * size);
+        }
+        List<AdminAppointmentRow> rows = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AdminAppointmentRow(
+                rs.getLong("id"), rs.getObject("appointment_date", LocalDate.class), rs.getString("status"),
+                rs.getString("doctor_name"), rs.getString("patient_name"), rs.getString("email"),
+                rs.getBoolean("has_prescription")), pageArgs.toArray());
+
+        long total;
+        if (args.isEmpty()) {
+            total = dashboardStatsService.getStats().totalAppointments();
+        } else {
+            String countSql = "SELECT COUNT(*) FROM appointments a" + (searching ? APPOINTMENT_JOINS : "") + where;
+            total = cachedCount("appointments|" + statusFilter + "|" + start + "|" + end + "|"
+                            + (searching ? search.trim().toLowerCase() : ""),
+                    () -> jdbcTemplate.queryForObject(countSql, Long.class, args.toArray()));
+        }
 
         Pageable pageable = PageRequest.of(page, size,
                 Sort.by("appointmentDate").descending().and(Sort.by("id").descending()));
+        return new PageImpl<>(rows, pageable, total);
+    }
 
-        return new PageImpl<>(dtos, pageable, allAppointments.size());
+    private LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     @Override
@@ -229,32 +225,23 @@ public class AdminServiceImpl implements AdminService{
     public void cancelAppointment(Long id) {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
-        appointment.setStatus(AppointmentStatus.CANCELLED);
-        appointmentRepository.save(appointment);
+        appointmentService.cancel(appointment);
     }
 
     @Override
     public List<Appointment> getRecentAppointments(int limit) {
-        return appointmentRepository.findAll(Sort.by("id").descending()).stream().limit(limit).collect(Collectors.toList());
+        return appointmentRepository.findAll(PageRequest.of(0, limit, Sort.by("id").descending())).getContent();
     }
 
     @Override
     public List<Appointment> getConfirmedAppointments(int limit) {
-        List<Appointment> confirmed = appointmentRepository.findAll().stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED)
-                .sorted(Comparator.comparing(Appointment::getAppointmentDate).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
-        return confirmed;
+        return appointmentRepository.findByStatus(AppointmentStatus.CONFIRMED,
+                PageRequest.of(0, limit, Sort.by("appointmentDate").descending()));
     }
 
     @Override
     public List<User> getRecentRegistrations(int limit) {
-        return userRepository.findAll(Sort.by("id")
-                .descending())
-                .stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+        return userRepository.findAll(PageRequest.of(0, limit, Sort.by("id").descending())).getContent();
     }
 
     @Override
@@ -265,22 +252,7 @@ public class AdminServiceImpl implements AdminService{
             alerts.add("⚠️ " + incomplete + " incomplete profiles pending review.");
         }
 
-        List<Appointment> allAppointments = appointmentRepository.findAll();
-
-        long confirmed = allAppointments
-                .stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED)
-                .count();
-
-        long cancelled = allAppointments
-                .stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CANCELLED)
-                .count();
-
-        if (cancelled > confirmed / 2) {
-            alerts.add("High cancellation rate: " + cancelled + " cancelled vs " + confirmed + " confirmed.");
-        }
-
+        alerts.addAll(cancellationRateService.getAlerts());
         return alerts;
     }
 
@@ -289,4 +261,6 @@ public class AdminServiceImpl implements AdminService{
         return appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Appointment not found with ID: " + id));
     }
+
+    private record CachedCount(long count, long loadedAt) {}
 }
@@ -0,0 +1,7 @@
+package com.example.doctor_patient_management_system.service;
+
+public interface AppointmentExpiryService {
+
+    int expirePastAppointments();
+
+}
@@ -0,0 +1,220 @@
+package com.example.doctor_patient_management_system.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cancels past CONFIRMED appointments that never got a prescription, in bounded chunks.
+// Chunks walk the confirmed-date index with a (date, id) keyset cursor. The cursor is kept in Redis after every
+// committed chunk, so an interrupted or capped run resumes where it stopped, and past rows that are kept
+// (they have a prescription) are not scanned again. Only one node runs at a time, guarded by a Redis lock
+// that is renewed after each chunk.
+@Service
+public class AppointmentExpiryServiceImpl implements AppointmentExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentExpiryServiceImpl.class);
+
+    private static final String LOCK_KEY = "appointment-expiry:lock";
+    private static final String CURSOR_KEY = "appointment-expiry:cursor";
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final DoctorCapacityServiceImpl doctorCapacityService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final Duration lockTtl;
+
+    private final Counter cancelled;
+    private final Counter chunks;
+    private final Timer runs;
+    private final AtomicLong cursorDate = new AtomicLong();
+    private final AtomicLong lastSuccess = new AtomicLong();
+
+    public AppointmentExpiryServiceImpl(JdbcTemplate jdbcTemplate,
+                                        StringRedisTemplate redisTemplate,
+                                        DoctorCapacityServiceImpl doctorCapacityService,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.expiry.chunk-size:1000}") int chunkSize,
+                                        @Value("${app.expiry.max-chunks:100}") int maxChunks,
+                                        @Value("${app.expiry.lock-seconds:300}") long lockSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.doctorCapacityService = doctorCapacityService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.lockTtl = Duration.ofSeconds(lockSeconds);
+
+        this.cancelled = Counter.builder("appointment.expiry.cancelled").register(meterRegistry);
+        this.chunks = Counter.builder("appointment.expiry.chunks").register(meterRegistry);
+        this.runs = Timer.builder("appointment.expiry.run").register(meterRegistry);
+        Gauge.builder("appointment.expiry.cursor.date", cursorDate, AtomicLong::get)
+                .description("Epoch day the expiry cursor has reached")
+                .register(meterRegistry);
+        Gauge.builder("appointment.expiry.last.success", lastSuccess, AtomicLong::get)
+                .description("Epoch seconds of the last completed run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.expiry.initial-delay-ms:60000}",
+            fixedDelayString = "${app.expiry.interval-ms:600000}")
+    public void scheduledExpiry() {
+        try {
+            expirePastAppointments();
+        } catch (Exception e) {
+            log.error(" Appointment expiry failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int expirePastAppointments() {
+        String token = UUID.randomUUID().toString();
+        Boolean locked;
+        try {
+            locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, lockTtl);
+        } catch (Exception e) {
+            log.warn(" Appointment expiry skipped, Redis unavailable: {}", e.getMessage());
+            return 0;
+        }
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            return runChunks(token);
+        } finally {
+            sample.stop(runs);
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY), token);
+        }
+    }
+
+    private int runChunks(String token) {
+        LocalDate today = LocalDate.now();
+        Cursor cursor = readCursor();
+        int total = 0;
+
+        for (int i = 0; i < maxChunks; i++) {
+            Cursor from = cursor;
+            ChunkResult result = transactionTemplate.execute(status -> expireChunk(from, today));
+            chunks.increment();
+            cancelled.increment(result.cancelled);
+            total += result.cancelled;
+
+            if (result.last != null) {
+                cursor = result.last;
+                writeCursor(cursor);
+            }
+            if (result.done) {
+                lastSuccess.set(System.currentTimeMillis() / 1000);
+                break;
+            }
+
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(LOCK_KEY), token,
+                    String.valueOf(lockTtl.toMillis()));
+            if (renewed == null || renewed == 0) {
+                log.warn(" Appointment expiry lost its lock, stopping at {}", cursor);
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info(" Expired {} past appointments", total);
+        }
+        return total;
+    }
+
+    private ChunkResult expireChunk(Cursor from, LocalDate today) {
+        List<Object[]> batch = jdbcTemplate.query(
+                "SELECT id, appointment_date FROM appointments " +
+                        "WHERE status = 'CONFIRMED' AND appointment_date < ? AND (appointment_date, id) > (?, ?) " +
+                        "ORDER BY appointment_date, id LIMIT ?",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getObject(2, LocalDate.class)},
+                Date.valueOf(today), Date.valueOf(from.date), from.id, chunkSize);
+        if (batch.isEmpty()) {
+            return new ChunkResult(0, null, true);
+        }
+
+        Object[] ids = new Object[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            ids[i] = batch.get(i)[0];
+        }
+        List<Object[]> expired = jdbcTemplate.query(
+                "UPDATE appointments a SET status = 'CANCELLED' " +
+                        "WHERE a.id = ANY(?) AND a.status = 'CONFIRMED' " +
+                        "AND NOT EXISTS (SELECT 1 FROM prescriptions p WHERE p.appointment_id = a.id) " +
+                        "RETURNING a.doctor_id, a.appointment_date",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getObject(2, LocalDate.class)});
+
+        Map<Long, Map<LocalDate, Integer>> freed = new HashMap<>();
+        for (Object[] row : expired) {
+            freed.computeIfAbsent((Long) row[0], d -> new HashMap<>()).merge((LocalDate) row[1], 1, Integer::sum);
+        }
+        freed.forEach((doctorId, perDay) ->
+                perDay.forEach((date, count) -> doctorCapacityService.recordFreed(doctorId, date, count)));
+
+        Object[] last = batch.get(batch.size() - 1);
+        return new ChunkResult(expired.size(), new Cursor((LocalDate) last[1], (Long) last[0]),
+                batch.size() < chunkSize);
+    }
+
+    private Cursor readCursor() {
+        String value = redisTemplate.opsForValue().get(CURSOR_KEY);
+        Cursor cursor = Cursor.START;
+        if (value != null) {
+            String[] parts = value.split("\\|");
+            cursor = new Cursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+        }
+        cursorDate.set(cursor.date.toEpochDay());
+        return cursor;
+    }
+
+    private void writeCursor(Cursor cursor) {
+        redisTemplate.opsForValue().set(CURSOR_KEY, cursor.date + "|" + cursor.id);
+        cursorDate.set(cursor.date.toEpochDay());
+    }
+
+    private record Cursor(LocalDate date, long id) {
+        static final Cursor START = new Cursor(LocalDate.of(1970, 1, 1), 0);
+    }
+
+    private record ChunkResult(int cancelled, Cursor last, boolean done) {}
+}
@@ -0,0 +1,19 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.ArchivedAppointment;
+
+import java.util.List;
+
+public interface AppointmentPartitionService {
+
+    boolean isPartitioned();
+
+    void migrateIfNeeded();
+
+    int ensurePartitions();
+
+    int archiveOldPartitions();
+
+    List<ArchivedAppointment> getArchivedAppointments(Long patientId);
+
+}
@@ -0,0 +1,223 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.ArchivedAppointment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Opt-in monthly range partitioning of appointments by appointment_date (app.partitioning.enabled).
+// Date-bounded queries then only touch the months they ask for. Partitions are named appointments_pYYYY_MM,
+// created ahead of time, and a DEFAULT partition catches anything outside them.
+// Months older than the retention window are detached and attached to appointment_archive.appointments,
+// which only the patient history archive path reads. Their prescriptions and reviews move to the archive schema
+// in the same transaction, so no row left in public points at an appointment JPA can no longer load; doctor
+// ratings and review counts therefore cover the retention window.
+// The partitioned table's primary key is (id, appointment_date), since Postgres requires the partition key in it.
+// A foreign key cannot reference id alone there, so the migration drops the ones from prescriptions and reviews;
+// the mapping keeps them, and with partitioning enabled ddl-auto only logs that it cannot re-create them.
+@Service
+public class AppointmentPartitionServiceImpl implements AppointmentPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentPartitionServiceImpl.class);
+
+    public static final String ARCHIVE_SCHEMA = "appointment_archive";
+
+    private static final String ID_SEQUENCE = "appointment_id_seq";
+    // Tables whose rows reference an appointment and are archived along with it
+    private static final List<String> DEPENDENT_TABLES = List.of("prescriptions", "reviews");
+    private static final Pattern PARTITION_NAME = Pattern.compile("appointments_p(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public AppointmentPartitionServiceImpl(JdbcTemplate jdbcTemplate,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${app.partitioning.enabled:false}") boolean enabled,
+                                           @Value("${app.partitioning.months-ahead:12}") int monthsAhead,
+                                           @Value("${app.partitioning.retention-months:24}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('public.appointments'))",
+                Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    // One-time conversion of the plain table; runs in a single transaction so a failure leaves it untouched
+    @Override
+    public void migrateIfNeeded() {
+        if (isPartitioned() || jdbcTemplate.queryForObject(
+                "SELECT to_regclass('public.appointments') IS NULL", Boolean.class)) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE appointments IN ACCESS EXCLUSIVE MODE");
+
+            List<String[]> foreignKeys = jdbcTemplate.query(
+                    "SELECT conrelid::regclass::text, conname FROM pg_constraint " +
+                            "WHERE contype = 'f' AND confrelid = 'public.appointments'::regclass",
+                    (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)});
+            for (String[] fk : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE " + fk[0] + " DROP CONSTRAINT \"" + fk[1] + "\"");
+            }
+
+            jdbcTemplate.execute("ALTER TABLE appointments RENAME TO appointments_unpartitioned");
+            jdbcTemplate.execute("CREATE TABLE appointments (LIKE appointments_unpartitioned INCLUDING DEFAULTS) " +
+                    "PARTITION BY RANGE (appointment_date)");
+
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + ID_SEQUENCE + " OWNED BY appointments.id");
+            jdbcTemplate.execute("SELECT setval('" + ID_SEQUENCE + "', " +
+                    "COALESCE((SELECT MAX(id) FROM appointments_unpartitioned), 0) + 1, false)");
+            jdbcTemplate.execute("ALTER TABLE appointments ALTER COLUMN id SET DEFAULT nextval('" + ID_SEQUENCE + "')");
+
+            LocalDate oldest = jdbcTemplate.queryForObject(
+                    "SELECT MIN(appointment_date) FROM appointments_unpartitioned", LocalDate.class);
+            YearMonth from = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+            createMonths(from, YearMonth.now().plusMonths(monthsAhead));
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS appointments_default PARTITION OF appointments DEFAULT");
+
+            jdbcTemplate.execute("ALTER TABLE appointments ADD PRIMARY KEY (id, appointment_date)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_appointments_doctor_date ON appointments (doctor_id, appointment_date)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_appointments_patient ON appointments (patient_id)");
+
+            jdbcTemplate.execute("INSERT INTO appointments SELECT * FROM appointments_unpartitioned");
+            jdbcTemplate.execute("DROP TABLE appointments_unpartitioned");
+        });
+        log.info(" Appointments table partitioned by month in {} ms", System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public int ensurePartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        return createMonths(YearMonth.now(), YearMonth.now().plusMonths(monthsAhead));
+    }
+
+    @Override
+    public int archiveOldPartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ARCHIVE_SCHEMA + ".appointments " +
+                "(LIKE public.appointments) PARTITION BY RANGE (appointment_date)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_archived_appointments_patient ON " +
+                ARCHIVE_SCHEMA + ".appointments (patient_id)");
+        for (String table : DEPENDENT_TABLES) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ARCHIVE_SCHEMA + "." + table +
+                    " (LIKE public." + table + ")");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_archived_" + table + "_appointment_id ON " +
+                    ARCHIVE_SCHEMA + "." + table + " (appointment_id)");
+        }
+
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = 'public.appointments'::regclass ORDER BY c.relname",
+                String.class);
+
+        int archived = 0;
+        for (String partition : partitions) {
+            Matcher m = PARTITION_NAME.matcher(partition);
+            if (!m.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String table : DEPENDENT_TABLES) {
+                    jdbcTemplate.update("WITH moved AS (DELETE FROM public." + table + " t USING " + partition +
+                            " a WHERE t.appointment_id = a.id RETURNING t.*) " +
+                            "INSERT INTO " + ARCHIVE_SCHEMA + "." + table + " SELECT * FROM moved");
+                }
+                jdbcTemplate.execute("ALTER TABLE appointments DETACH PARTITION " + partition);
+                jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+                jdbcTemplate.execute("ALTER TABLE " + ARCHIVE_SCHEMA + ".appointments ATTACH PARTITION " +
+                        ARCHIVE_SCHEMA + "." + partition + " " + bounds(month));
+            });
+            log.info(" Archived appointment partition {}", partition);
+            archived++;
+        }
+        return archived;
+    }
+
+    @Override
+    public List<ArchivedAppointment> getArchivedAppointments(Long patientId) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('" + ARCHIVE_SCHEMA + ".appointments') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(exists)) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                "SELECT a.id, a.doctor_id, d.doctor_name, d.speciality, a.appointment_date, a.appointment_time, a.status " +
+                        "FROM " + ARCHIVE_SCHEMA + ".appointments a LEFT JOIN doctors d ON d.id = a.doctor_id " +
+                        "WHERE a.patient_id = ? ORDER BY a.appointment_date DESC",
+                (rs, rowNum) -> new ArchivedAppointment(rs.getLong("id"), rs.getLong("doctor_id"),
+                        rs.getString("doctor_name"), rs.getString("speciality"),
+                        rs.getObject("appointment_date", LocalDate.class), rs.getString("appointment_time"),
+                        rs.getString("status")),
+                patientId);
+    }
+
+    @Scheduled(cron = "${app.partitioning.maintenance-cron:0 30 3 * * *}")
+    public void scheduledMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ensurePartitions();
+            archiveOldPartitions();
+        } catch (Exception e) {
+            log.error(" Appointment partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int createMonths(YearMonth from, YearMonth to) {
+        int created = 0;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            String name = String.format("appointments_p%04d_%02d", month.getYear(), month.getMonthValue());
+            Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+            if (Boolean.TRUE.equals(exists)) {
+                continue;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF appointments " + bounds(month));
+            created++;
+        }
+        return created;
+    }
+
+    private String bounds(YearMonth month) {
+        return "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+}
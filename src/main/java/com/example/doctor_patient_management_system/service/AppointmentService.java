@@ -1,6 +1,7 @@
 package com.example.doctor_patient_management_system.service;
 
 import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.User;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,6 +20,10 @@ public interface AppointmentService {
 
      int cancelConfirmedAppointmentsForDoctorOnDate(Long doctorId, LocalDate date);
 
+     int cancelConfirmedAppointmentsForDoctorBetween(Long doctorId, LocalDate startDate, LocalDate endDate);
+
      Appointment bookAppointment(Appointment appointment);
 
+     Appointment bookSlot(Long doctorId, User patient, int slotId, LocalDate date);
+
 }
@@ -1,23 +1,65 @@
 package com.example.doctor_patient_management_system.service;
 
+import com.example.doctor_patient_management_system.dto.BookingMessage;
+import com.example.doctor_patient_management_system.dto.CancellationMessage;
+import com.example.doctor_patient_management_system.dto.TimeSlot;
+import com.example.doctor_patient_management_system.event.AppointmentSlotEvent;
 import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.Patient;
+import com.example.doctor_patient_management_system.model.User;
 import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
 import com.example.doctor_patient_management_system.repository.AppointmentRepository;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import com.example.doctor_patient_management_system.repository.PatientRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AppointmentServiceImpl implements AppointmentService {
 
-    private final AppointmentRepository appointmentRepository;
+    // Partial unique index created by DatabaseIndexConfig
+    public static final String CONFIRMED_SLOT_INDEX = "uk_appointments_confirmed_slot";
 
-    public AppointmentServiceImpl(AppointmentRepository appointmentRepository) {
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final SlotTemplateServiceImpl slotTemplateService;
+    private final OffDayScheduleServiceImpl offDayScheduleService;
+    private final RabbitProducerServiceImpl rabbitProducerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DoctorCapacityServiceImpl doctorCapacityService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentServiceImpl(AppointmentRepository appointmentRepository,
+                                  DoctorRepository doctorRepository,
+                                  PatientRepository patientRepository,
+                                  SlotTemplateServiceImpl slotTemplateService,
+                                  OffDayScheduleServiceImpl offDayScheduleService,
+                                  RabbitProducerServiceImpl rabbitProducerService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  DoctorCapacityServiceImpl doctorCapacityService,
+                                  JdbcTemplate jdbcTemplate) {
         this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.slotTemplateService = slotTemplateService;
+        this.offDayScheduleService = offDayScheduleService;
+        this.rabbitProducerService = rabbitProducerService;
+        this.eventPublisher = eventPublisher;
+        this.doctorCapacityService = doctorCapacityService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -31,9 +73,9 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
+    @Transactional
     public void cancelAppointment(Appointment appointment) {
-        appointment.setStatus(AppointmentStatus.CANCELLED);
-        appointmentRepository.save(appointment);
+        cancel(appointment);
     }
 
 
@@ -43,35 +85,125 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
+    @Transactional
     public void cancel(Appointment appointment) {
+        // The status the caller loaded may be stale: only the request whose UPDATE flips the row frees the slot,
+        // so two cancellations racing on one appointment release its capacity once
+        int updated = jdbcTemplate.update(
+                "UPDATE appointments SET status = 'CANCELLED' WHERE id = ? AND status = 'CONFIRMED'",
+                appointment.getId());
         appointment.setStatus(AppointmentStatus.CANCELLED);
-        appointmentRepository.save(appointment);
+        if (updated == 1) {
+            doctorCapacityService.recordFreed(appointment.getDoctor().getId(), appointment.getAppointmentDate(), 1);
+            eventPublisher.publishEvent(AppointmentSlotEvent.freed(appointment));
+        }
     }
 
     @Override
     @Transactional
     public int cancelConfirmedAppointmentsForDoctorOnDate(Long doctorId, LocalDate date) {
-        List<Appointment> appointments = appointmentRepository
-                .findByDoctorIdAndAppointmentDateAndStatus(doctorId, date, AppointmentStatus.CONFIRMED);
+        return cancelConfirmedAppointmentsForDoctorBetween(doctorId, date, date);
+    }
 
-        int count = appointments.size();
-        for (Appointment appointment : appointments) {
-            appointment.setStatus(AppointmentStatus.CANCELLED);
-            appointmentRepository.save(appointment);
+    // One UPDATE ... RETURNING cancels the whole range; the returned rows feed a single batch of
+    // patient notifications and one capacity update per affected day.
+    @Override
+    @Transactional
+    public int cancelConfirmedAppointmentsForDoctorBetween(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Doctor not found with id: " + doctorId));
+
+        List<CancelledRow> rows = jdbcTemplate.query(
+                "WITH cancelled AS (" +
+                        "UPDATE appointments SET status = 'CANCELLED' " +
+                        "WHERE doctor_id = ? AND appointment_date BETWEEN ? AND ? AND status = 'CONFIRMED' " +
+                        "RETURNING id, patient_id, slot_id, appointment_date, appointment_time) " +
+                        "SELECT c.id, c.slot_id, c.appointment_date, c.appointment_time, u.email, p.patient_name " +
+                        "FROM cancelled c JOIN users u ON u.id = c.patient_id " +
+                        "LEFT JOIN patients_info p ON p.id = c.patient_id",
+                (rs, rowNum) -> {
+                    String email = rs.getString("email");
+                    String name = rs.getString("patient_name");
+                    return new CancelledRow(rs.getObject("slot_id", Integer.class), new CancellationMessage(
+                            rs.getLong("id"), email, name != null ? name : email, doctor.getDoctorName(),
+                            rs.getObject("appointment_date", LocalDate.class), rs.getString("appointment_time"),
+                            "The doctor is not available on this date"));
+                },
+                doctorId, startDate, endDate);
+
+        List<CancellationMessage> messages = new ArrayList<>(rows.size());
+        Map<LocalDate, Integer> freedPerDay = new HashMap<>();
+        for (CancelledRow row : rows) {
+            CancellationMessage message = row.message();
+            messages.add(message);
+            freedPerDay.merge(message.getAppointmentDate(), 1, Integer::sum);
+            eventPublisher.publishEvent(new AppointmentSlotEvent(AppointmentSlotEvent.Type.FREED,
+                    message.getAppointmentId(), doctorId, message.getAppointmentDate(), row.slotId()));
         }
+        freedPerDay.forEach((date, count) -> doctorCapacityService.recordFreed(doctorId, date, count));
+        rabbitProducerService.saveCancellationMessages(messages);
 
-        return count;
+        return messages.size();
     }
 
+    // No availability pre-read: the partial unique index on confirmed (doctor, date, slot) decides
+    // which of two concurrent bookings wins, and the loser gets a 409.
     @Override
+    @Transactional
     public Appointment bookAppointment(Appointment appointment) {
-        List<Integer> bookedSlots = appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(
-                appointment.getDoctor().getId(), appointment.getAppointmentDate());
+        Appointment saved;
+        try {
+            saved = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            // A partitioned table reports the month's copy of the index, so its key columns identify it too
+            String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (cause.contains(CONFIRMED_SLOT_INDEX) || cause.contains("(doctor_id, appointment_date, slot_id)")) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Slot already booked");
+            }
+            throw e;
+        }
+        doctorCapacityService.recordBooked(saved.getDoctor().getId(), saved.getAppointmentDate());
+        eventPublisher.publishEvent(AppointmentSlotEvent.booked(saved));
+        return saved;
+    }
 
-        if (bookedSlots.contains(appointment.getSlotId())) {
-            throw new RuntimeException("Slot already booked");
+    @Override
+    @Transactional
+    public Appointment bookSlot(Long doctorId, User patient, int slotId, LocalDate date) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Doctor not found with id: " + doctorId));
+
+        if (date.isBefore(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot book a past date");
+        }
+        TimeSlot slot = slotTemplateService.getTemplate(doctor).getSlot(slotId);
+        if (slot == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Slot not available");
         }
-        return appointmentRepository.save(appointment);
+        if (offDayScheduleService.isOffDay(doctorId, date)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Doctor is not available on this date");
+        }
+
+        String timeRange = slot.getStartTime() + " - " + slot.getEndTime();
+        Appointment saved = bookAppointment(new Appointment(doctor, patient, slotId, date, timeRange));
+
+        Patient patientProfile = patientRepository.findByUserId(patient.getId()).orElse(null);
+        String patientName = patientProfile != null ? patientProfile.getPatientName() : patient.getEmail();
+
+        rabbitProducerService.saveBookingMessage(new BookingMessage(
+                saved.getId(),
+                patient.getEmail(),
+                patientName,
+                doctor.getEmail(),
+                doctor.getDoctorName(),
+                date,
+                timeRange,
+                doctor.getSpeciality(),
+                doctor.getConsultationFee()
+        ));
+
+        return saved;
     }
 
+    private record CancelledRow(Integer slotId, CancellationMessage message) {}
 }
@@ -0,0 +1,13 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.AvailabilityWindow;
+import com.example.doctor_patient_management_system.model.Doctor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BatchAvailabilityService {
+
+    AvailabilityWindow loadWindow(List<Doctor> doctors, LocalDate startDate, LocalDate endDate);
+
+}
@@ -0,0 +1,61 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.AvailabilityWindow;
+import com.example.doctor_patient_management_system.dto.DoctorSchedule;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorDayCapacityRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Loads booking counts and blocked days for many doctors at once:
+// one range scan of doctor_day_capacity regardless of how many doctors or days are asked for.
+@Service
+public class BatchAvailabilityServiceImpl implements BatchAvailabilityService {
+
+    // Above this many doctors the window is read for everyone instead of binding a huge IN list
+    private static final int MAX_IN_LIST_SIZE = 1000;
+
+    private final DoctorDayCapacityRepository capacityRepository;
+    private final SlotTemplateServiceImpl slotTemplateService;
+
+    public BatchAvailabilityServiceImpl(DoctorDayCapacityRepository capacityRepository,
+                                        SlotTemplateServiceImpl slotTemplateService) {
+        this.capacityRepository = capacityRepository;
+        this.slotTemplateService = slotTemplateService;
+    }
+
+    @Override
+    public AvailabilityWindow loadWindow(List<Doctor> doctors, LocalDate startDate, LocalDate endDate) {
+        AvailabilityWindow window = new AvailabilityWindow(startDate, endDate);
+        if (doctors.isEmpty()) {
+            return window;
+        }
+
+        for (Doctor doctor : doctors) {
+            window.addDoctor(new DoctorSchedule(doctor.getId(),
+                    DoctorSchedule.parseOffDays(doctor.getOffDays()),
+                    slotTemplateService.getTemplate(doctor).size()));
+        }
+
+        List<Object[]> rows;
+        if (doctors.size() > MAX_IN_LIST_SIZE) {
+            rows = capacityRepository.findByDateBetween(startDate, endDate);
+        } else {
+            Set<Long> doctorIds = doctors.stream().map(Doctor::getId).collect(Collectors.toSet());
+            rows = capacityRepository.findByDoctorIdsAndDateBetween(doctorIds, startDate, endDate);
+        }
+
+        for (Object[] row : rows) {
+            window.addBookedCount((Long) row[0], (LocalDate) row[1], (Integer) row[2]);
+            if ((Boolean) row[3]) {
+                window.addBlockedDay((Long) row[0], (LocalDate) row[1]);
+            }
+        }
+
+        return window;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.User;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+public interface BookingDispatcher {
+
+    CompletableFuture<Appointment> submit(Long doctorId, User patient, int slotId, LocalDate date);
+
+}
@@ -0,0 +1,93 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Single writer per doctor: bookings are sharded by doctor id onto a fixed set of single-threaded lanes.
+// Within a lane a doctor's bookings run one after another, so the occupancy index (updated after each commit
+// on the same thread) is current for the next request and a taken slot is refused without a write.
+// Other nodes' cancellations only reach the index through its TTL, so a refusal is confirmed with one read
+// of the day first. Different doctors land on different lanes and book in parallel. The unique index still
+// settles races with other nodes.
+@Service
+public class BookingDispatcherImpl implements BookingDispatcher {
+
+    private final AppointmentServiceImpl appointmentService;
+    private final SlotOccupancyServiceImpl slotOccupancyService;
+    private final ThreadPoolExecutor[] lanes;
+
+    private final Timer queueWait;
+
+    public BookingDispatcherImpl(AppointmentServiceImpl appointmentService,
+                                 SlotOccupancyServiceImpl slotOccupancyService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.booking.lanes:0}") int laneCount,
+                                 @Value("${app.booking.lane-queue-capacity:1000}") int queueCapacity) {
+        this.appointmentService = appointmentService;
+        this.slotOccupancyService = slotOccupancyService;
+
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.lanes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            String name = "booking-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), r -> new Thread(r, name));
+        }
+
+        this.queueWait = Timer.builder("booking.lane.wait")
+                .description("Time a booking waits for its lane")
+                .register(meterRegistry);
+        Gauge.builder("booking.lane.queued", this, d -> d.queued()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Appointment> submit(Long doctorId, User patient, int slotId, LocalDate date) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                if (slotOccupancyService.isBookedConfirmed(doctorId, date, slotId)) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Slot already booked");
+                }
+                return appointmentService.bookSlot(doctorId, patient, slotId, date);
+            }, laneFor(doctorId));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many bookings in progress, please retry"));
+        }
+    }
+
+    private ThreadPoolExecutor laneFor(Long doctorId) {
+        return lanes[Math.floorMod(Long.hashCode(doctorId), lanes.length)];
+    }
+
+    private int queued() {
+        int total = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            total += lane.getQueue().size();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.BulkBookingItem;
+import com.example.doctor_patient_management_system.dto.BulkBookingResult;
+import com.example.doctor_patient_management_system.dto.RecurringBookingRequest;
+import com.example.doctor_patient_management_system.model.User;
+
+import java.util.List;
+
+public interface BulkBookingService {
+
+    BulkBookingResult book(Long doctorId, List<BulkBookingItem> items);
+
+    BulkBookingResult bookRecurring(Long doctorId, User patient, RecurringBookingRequest request);
+
+}
@@ -0,0 +1,253 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.BookingMessage;
+import com.example.doctor_patient_management_system.dto.BulkBookingItem;
+import com.example.doctor_patient_management_system.dto.BulkBookingResult;
+import com.example.doctor_patient_management_system.dto.RecurringBookingRequest;
+import com.example.doctor_patient_management_system.dto.SlotTemplate;
+import com.example.doctor_patient_management_system.dto.TimeSlot;
+import com.example.doctor_patient_management_system.event.AppointmentSlotEvent;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.Patient;
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
+import com.example.doctor_patient_management_system.model.enumeration.Role;
+import com.example.doctor_patient_management_system.repository.AppointmentRepository;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import com.example.doctor_patient_management_system.repository.PatientRepository;
+import com.example.doctor_patient_management_system.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Books many appointments for one doctor in a single transaction.
+// All items are validated against one range query of confirmed slots, then inserted with JDBC batches.
+// Appointment ids come from the IDENTITY column's sequence up front, so the batch needs no generated-key
+// round trip per row and the driver can rewrite it into multi-row inserts.
+// ON CONFLICT DO NOTHING against the confirmed-slot index turns a race with a concurrent booking into a
+// per-item conflict instead of failing the whole batch.
+@Service
+public class BulkBookingServiceImpl implements BulkBookingService {
+
+    public static final int MAX_ITEMS = 200;
+    public static final int MAX_OCCURRENCES = 26;
+
+    private final DoctorRepository doctorRepository;
+    private final UserRepository userRepository;
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final SlotTemplateServiceImpl slotTemplateService;
+    private final OffDayScheduleServiceImpl offDayScheduleService;
+    private final SlotHoldServiceImpl slotHoldService;
+    private final RabbitProducerServiceImpl rabbitProducerService;
+    private final DoctorCapacityServiceImpl doctorCapacityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkBookingServiceImpl(DoctorRepository doctorRepository,
+                                  UserRepository userRepository,
+                                  PatientRepository patientRepository,
+                                  AppointmentRepository appointmentRepository,
+                                  SlotTemplateServiceImpl slotTemplateService,
+                                  OffDayScheduleServiceImpl offDayScheduleService,
+                                  SlotHoldServiceImpl slotHoldService,
+                                  RabbitProducerServiceImpl rabbitProducerService,
+                                  DoctorCapacityServiceImpl doctorCapacityService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  JdbcTemplate jdbcTemplate) {
+        this.doctorRepository = doctorRepository;
+        this.userRepository = userRepository;
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.slotTemplateService = slotTemplateService;
+        this.offDayScheduleService = offDayScheduleService;
+        this.slotHoldService = slotHoldService;
+        this.rabbitProducerService = rabbitProducerService;
+        this.doctorCapacityService = doctorCapacityService;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Transactional itself: book() is a self-call here, so its own annotation is bypassed
+    @Override
+    @Transactional
+    public BulkBookingResult bookRecurring(Long doctorId, User patient, RecurringBookingRequest request) {
+        if (request.getSlotId() == null || request.getStartDate() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "slotId and startDate are required");
+        }
+        if (request.getOccurrences() < 1 || request.getOccurrences() > MAX_OCCURRENCES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "occurrences must be between 1 and " + MAX_OCCURRENCES);
+        }
+        if (request.getIntervalDays() < 1 || request.getIntervalDays() > 28) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "intervalDays must be between 1 and 28");
+        }
+
+        List<BulkBookingItem> items = new ArrayList<>(request.getOccurrences());
+        LocalDate date = request.getStartDate();
+        for (int i = 0; i < request.getOccurrences(); i++) {
+            items.add(new BulkBookingItem(patient.getId(), request.getSlotId(), date));
+            date = date.plusDays(request.getIntervalDays());
+        }
+        return book(doctorId, items);
+    }
+
+    @Override
+    @Transactional
+    public BulkBookingResult book(Long doctorId, List<BulkBookingItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No appointments to book");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_ITEMS + " appointments per request");
+        }
+
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Doctor not found with id: " + doctorId));
+        SlotTemplate template = slotTemplateService.getTemplate(doctor);
+        LocalDate today = LocalDate.now();
+
+        Set<Long> patientIds = new HashSet<>();
+        LocalDate minDate = null;
+        LocalDate maxDate = null;
+        for (BulkBookingItem item : items) {
+            if (item.getPatientId() != null) {
+                patientIds.add(item.getPatientId());
+            }
+            LocalDate date = item.getAppointmentDate();
+            if (date != null && !date.isBefore(today)) {
+                minDate = minDate == null || date.isBefore(minDate) ? date : minDate;
+                maxDate = maxDate == null || date.isAfter(maxDate) ? date : maxDate;
+            }
+        }
+
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(patientIds)) {
+            users.put(user.getId(), user);
+        }
+        Map<Long, String> patientNames = new HashMap<>();
+        for (Patient patient : patientRepository.findByUserIdIn(patientIds)) {
+            patientNames.put(patient.getUser().getId(), patient.getPatientName());
+        }
+
+        // One query for every confirmed slot the request could collide with
+        Map<LocalDate, BitSet> taken = new HashMap<>();
+        if (minDate != null) {
+            for (Object[] row : appointmentRepository.findBookedSlotsByDoctorIdAndDateBetween(doctorId, minDate, maxDate)) {
+                if (row[1] != null) {
+                    taken.computeIfAbsent((LocalDate) row[0], d -> new BitSet()).set((Integer) row[1]);
+                }
+            }
+        }
+        Map<LocalDate, BitSet> held = new HashMap<>();
+
+        String[] errors = new String[items.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BulkBookingItem item = items.get(i);
+            LocalDate date = item.getAppointmentDate();
+            User patient = users.get(item.getPatientId());
+
+            if (item.getSlotId() == null || date == null) {
+                errors[i] = "slotId and appointmentDate are required";
+            } else if (patient == null || patient.getRole() != Role.PATIENT) {
+                errors[i] = "Patient not found";
+            } else if (date.isBefore(today)) {
+                errors[i] = "Cannot book a past date";
+            } else if (template.getSlot(item.getSlotId()) == null) {
+                errors[i] = "Slot not available";
+            } else if (offDayScheduleService.isOffDay(doctorId, date)) {
+                errors[i] = "Doctor is not available on this date";
+            } else if (taken.computeIfAbsent(date, d -> new BitSet()).get(item.getSlotId())) {
+                errors[i] = "Slot already booked";
+            } else if (held.computeIfAbsent(date, d -> slotHoldService.getHeldSlots(doctorId, d)).get(item.getSlotId())) {
+                errors[i] = "Slot is being booked by another patient";
+            } else {
+                // Later items asking for the same slot conflict with this one
+                taken.get(date).set(item.getSlotId());
+                accepted.add(i);
+            }
+        }
+
+        Long[] ids = new Long[items.size()];
+        if (!accepted.isEmpty()) {
+            insert(doctor, items, accepted, template, ids, errors, users, patientNames);
+        }
+
+        List<BulkBookingResult.Item> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(new BulkBookingResult.Item(items.get(i), errors[i] == null ? ids[i] : null, errors[i]));
+        }
+        return new BulkBookingResult(results);
+    }
+
+    private void insert(Doctor doctor, List<BulkBookingItem> items, List<Integer> accepted, SlotTemplate template,
+                        Long[] ids, String[] errors, Map<Long, User> users, Map<Long, String> patientNames) {
+        List<Long> newIds = jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('appointments', 'id')) FROM generate_series(1, ?)",
+                Long.class, accepted.size());
+
+        List<Object[]> rows = new ArrayList<>(accepted.size());
+        for (int n = 0; n < accepted.size(); n++) {
+            int i = accepted.get(n);
+            BulkBookingItem item = items.get(i);
+            TimeSlot slot = template.getSlot(item.getSlotId());
+            ids[i] = newIds.get(n);
+            rows.add(new Object[]{ids[i], doctor.getId(), item.getPatientId(), item.getSlotId(),
+                    Date.valueOf(item.getAppointmentDate()), slot.getStartTime() + " - " + slot.getEndTime(),
+                    AppointmentStatus.CONFIRMED.name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO appointments " +
+                "(id, doctor_id, patient_id, slot_id, appointment_date, appointment_time, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                "ON CONFLICT (doctor_id, appointment_date, slot_id) WHERE status = 'CONFIRMED' DO NOTHING", rows);
+
+        // Rewritten batches don't report per-row counts, so read back which ids made it in
+        Set<Long> inserted = new HashSet<>(jdbcTemplate.query("SELECT id FROM appointments WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", newIds.toArray())),
+                (rs, rowNum) -> rs.getLong(1)));
+
+        List<BookingMessage> messages = new ArrayList<>(inserted.size());
+        Map<LocalDate, Integer> bookedPerDay = new HashMap<>();
+        for (int i : accepted) {
+            if (!inserted.contains(ids[i])) {
+                errors[i] = "Slot already booked";
+                continue;
+            }
+            BulkBookingItem item = items.get(i);
+            User patient = users.get(item.getPatientId());
+            TimeSlot slot = template.getSlot(item.getSlotId());
+
+            messages.add(new BookingMessage(
+                    ids[i],
+                    patient.getEmail(),
+                    patientNames.getOrDefault(patient.getId(), patient.getEmail()),
+                    doctor.getEmail(),
+                    doctor.getDoctorName(),
+                    item.getAppointmentDate(),
+                    slot.getStartTime() + " - " + slot.getEndTime(),
+                    doctor.getSpeciality(),
+                    doctor.getConsultationFee()
+            ));
+            bookedPerDay.merge(item.getAppointmentDate(), 1, Integer::sum);
+            eventPublisher.publishEvent(new AppointmentSlotEvent(AppointmentSlotEvent.Type.BOOKED, ids[i],
+                    doctor.getId(), item.getAppointmentDate(), item.getSlotId()));
+        }
+
+        rabbitProducerService.saveBookingMessages(messages);
+        bookedPerDay.forEach((date, count) -> doctorCapacityService.recordBooked(doctor.getId(), date, count));
+    }
+}
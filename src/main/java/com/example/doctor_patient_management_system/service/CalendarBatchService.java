@@ -0,0 +1,12 @@
+package com.example.doctor_patient_management_system.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CalendarBatchService {
+
+    StreamingResponseBody streamCalendars(Long userId, List<Long> doctorIds, LocalDate startDate, LocalDate endDate);
+
+}
@@ -0,0 +1,174 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.AvailabilityWindow;
+import com.example.doctor_patient_management_system.dto.DayStatus;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+// Calendars for many doctors over a date range. Everything is read with a constant number of queries
+// (the doctors, then one capacity range scan), the grids are built in parallel on a bounded pool,
+// and results are written chunk by chunk so only one chunk of grids is held in memory.
+// Callers must be signed in and get a few batches per minute each, counted in Redis across nodes.
+@Service
+public class CalendarBatchServiceImpl implements CalendarBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarBatchServiceImpl.class);
+
+    public static final int MAX_DOCTORS = 500;
+    public static final int MAX_DAYS = 366;
+
+    // Doctors evaluated together before their grids are written out
+    private static final int CHUNK_SIZE = 64;
+
+    // Counter per user and minute: calendar-batch:rate:{userId}:{epochMinute}
+    private static final String RATE_KEY_PREFIX = "calendar-batch:rate:";
+    private static final Duration RATE_WINDOW = Duration.ofMinutes(1);
+
+    private final DoctorRepository doctorRepository;
+    private final BatchAvailabilityServiceImpl batchAvailabilityService;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final ForkJoinPool pool;
+    private final int requestsPerMinute;
+
+    public CalendarBatchServiceImpl(DoctorRepository doctorRepository,
+                                    BatchAvailabilityServiceImpl batchAvailabilityService,
+                                    ObjectMapper objectMapper,
+                                    StringRedisTemplate redisTemplate,
+                                    @Value("${app.calendar-batch.parallelism:4}") int parallelism,
+                                    @Value("${app.calendar-batch.requests-per-minute:6}") int requestsPerMinute) {
+        this.doctorRepository = doctorRepository;
+        this.batchAvailabilityService = batchAvailabilityService;
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.pool = new ForkJoinPool(parallelism);
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public StreamingResponseBody streamCalendars(Long userId, List<Long> doctorIds,
+                                                 LocalDate startDate, LocalDate endDate) {
+        if (doctorIds == null || doctorIds.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one doctor id is required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) + 1 > MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date range is limited to " + MAX_DAYS + " days");
+        }
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(doctorIds));
+        if (ids.size() > MAX_DOCTORS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_DOCTORS + " doctors per request");
+        }
+        checkRate(userId);
+
+        // Loaded before streaming starts so failures still turn into a proper error response
+        Map<Long, Doctor> found = doctorRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Doctor::getId, doctor -> doctor));
+        // Unknown ids are skipped; the rest keep the order they were asked for
+        List<Doctor> doctors = ids.stream().filter(found::containsKey).map(found::get).toList();
+        AvailabilityWindow window = batchAvailabilityService.loadWindow(doctors, startDate, endDate);
+        LocalDate today = LocalDate.now();
+
+        return out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                json.writeStartObject();
+                json.writeStringField("startDate", startDate.toString());
+                json.writeStringField("endDate", endDate.toString());
+                json.writeArrayFieldStart("calendars");
+
+                for (int from = 0; from < doctors.size(); from += CHUNK_SIZE) {
+                    List<Doctor> chunk = doctors.subList(from, Math.min(from + CHUNK_SIZE, doctors.size()));
+                    for (DoctorCalendar calendar : buildChunk(chunk, window, today)) {
+                        json.writeStartObject();
+                        json.writeNumberField("doctorId", calendar.doctorId());
+                        json.writeFieldName("days");
+                        json.writeObject(calendar.days());
+                        json.writeEndObject();
+                    }
+                    json.flush();
+                }
+
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+        };
+    }
+
+    // Only valid requests count; a Redis outage lets requests through rather than failing them
+    private void checkRate(Long userId) {
+        long minute = System.currentTimeMillis() / RATE_WINDOW.toMillis();
+        String key = RATE_KEY_PREFIX + userId + ":" + minute;
+        Long count;
+        try {
+            count = redisTemplate.opsForValue().increment(key);
+            if (count != null && count == 1) {
+                redisTemplate.expire(key, RATE_WINDOW);
+            }
+        } catch (Exception e) {
+            log.warn(" Calendar batch rate limit skipped, Redis unavailable: {}", e.getMessage());
+            return;
+        }
+        if (count != null && count > requestsPerMinute) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "At most " + requestsPerMinute + " calendar batches per minute");
+        }
+    }
+
+    private List<DoctorCalendar> buildChunk(List<Doctor> chunk, AvailabilityWindow window, LocalDate today)
+            throws IOException {
+        try {
+            return pool.submit(() -> chunk.parallelStream()
+                    .map(doctor -> buildCalendar(doctor.getId(), window, today))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Calendar batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to build calendar batch", e.getCause());
+        }
+    }
+
+    private DoctorCalendar buildCalendar(Long doctorId, AvailabilityWindow window, LocalDate today) {
+        int totalSlots = window.getTotalSlots(doctorId);
+        List<DayStatus> days = new ArrayList<>();
+        for (LocalDate date = window.getStartDate(); !date.isAfter(window.getEndDate()); date = date.plusDays(1)) {
+            days.add(DoctorCalendarServiceImpl.toDayStatus(date, today,
+                    window.isOffDay(doctorId, date), window.getBookedCount(doctorId, date), totalSlots));
+        }
+        return new DoctorCalendar(doctorId, days);
+    }
+
+    private record DoctorCalendar(Long doctorId, List<DayStatus> days) {}
+}
@@ -0,0 +1,25 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.CancellationRate;
+
+import java.util.List;
+
+public interface CancellationRateService {
+
+    enum Window { HOUR, DAY, WEEK }
+
+    void recordBooked(Long doctorId);
+
+    void recordCancelled(Long doctorId);
+
+    CancellationRate getRate(Window window);
+
+    CancellationRate getDoctorRate(Long doctorId, Window window);
+
+    List<String> getAlerts();
+
+    void snapshot();
+
+    void refresh();
+
+}
@@ -0,0 +1,400 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.CancellationRate;
+import com.example.doctor_patient_management_system.event.AppointmentSlotEvent;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bookings and cancellations over the last hour, day and week, globally and per doctor, across all nodes.
+// Each node counts its own slot events in rings of time buckets, so neither recording nor alerting touches the database.
+// Every snapshot interval a node writes its rings to its own Redis hash and reads the other nodes' hashes back;
+// rates are this node's live counts plus the others' last snapshots. A restarted node reads its previous
+// run's hash like any other until it expires, so history survives a restart without being counted twice.
+@Service
+public class CancellationRateServiceImpl implements CancellationRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(CancellationRateServiceImpl.class);
+
+    private static final String SNAPSHOT_KEY = "cancellation-rate:snapshot:";
+    private static final String NODES_KEY = "cancellation-rate:nodes";
+    private static final String GLOBAL_FIELD = "global";
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+    private static final int HOURS_KEPT = 7 * 24;
+    private static final int MAX_DOCTOR_ALERTS = 5;
+
+    private final StringRedisTemplate redisTemplate;
+    private final DoctorRepository doctorRepository;
+    private final double threshold;
+    private final long minEvents;
+    private final Clock clock;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counters global = new Counters();
+    private final Map<Long, Counters> byDoctor = new ConcurrentHashMap<>();
+
+    // Other nodes' counts as of their last snapshot, replaced wholesale on each refresh
+    private volatile Peers peers = new Peers();
+
+    // Doctors whose daily rate was over the threshold at their last event
+    private final Set<Long> flaggedDoctors = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public CancellationRateServiceImpl(StringRedisTemplate redisTemplate,
+                                       DoctorRepository doctorRepository,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.alerts.cancellation-threshold:0.33}") double threshold,
+                                       @Value("${app.alerts.min-events:20}") long minEvents) {
+        this(redisTemplate, doctorRepository, meterRegistry, threshold, minEvents, Clock.systemUTC());
+    }
+
+    CancellationRateServiceImpl(StringRedisTemplate redisTemplate, DoctorRepository doctorRepository,
+                                MeterRegistry meterRegistry, double threshold, long minEvents, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.doctorRepository = doctorRepository;
+        this.threshold = threshold;
+        this.minEvents = minEvents;
+        this.clock = clock;
+
+        for (Window window : Window.values()) {
+            Gauge.builder("appointments.cancellation.rate", this, s -> s.getRate(window).rate())
+                    .tag("window", window.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void recordBooked(Long doctorId) {
+        record(doctorId, false);
+    }
+
+    @Override
+    public void recordCancelled(Long doctorId) {
+        record(doctorId, true);
+    }
+
+    @Override
+    public CancellationRate getRate(Window window) {
+        return sum(global, peers.global, window, clock.millis());
+    }
+
+    @Override
+    public CancellationRate getDoctorRate(Long doctorId, Window window) {
+        return doctorRate(doctorId, window, clock.millis());
+    }
+
+    @Override
+    public List<String> getAlerts() {
+        long now = clock.millis();
+        List<String> alerts = new ArrayList<>();
+
+        // Shortest window first: a spike in the last hour matters more than a slow week
+        for (Window window : Window.values()) {
+            CancellationRate rate = getRate(window);
+            if (isHigh(rate)) {
+                alerts.add("High cancellation rate in the last " + window.name().toLowerCase() + ": "
+                        + rate.cancelled() + " cancelled vs " + rate.booked() + " booked.");
+                break;
+            }
+        }
+
+        Map<Long, CancellationRate> doctorRates = new HashMap<>();
+        for (Long doctorId : flaggedDoctors) {
+            CancellationRate rate = doctorRate(doctorId, Window.DAY, now);
+            if (isHigh(rate)) {
+                doctorRates.put(doctorId, rate);
+            } else {
+                flaggedDoctors.remove(doctorId);
+            }
+        }
+        if (!doctorRates.isEmpty()) {
+            List<Long> worst = doctorRates.keySet().stream()
+                    .sorted(Comparator.comparingDouble((Long id) -> doctorRates.get(id).rate()).reversed())
+                    .limit(MAX_DOCTOR_ALERTS)
+                    .toList();
+            Map<Long, String> names = new HashMap<>();
+            for (Doctor doctor : doctorRepository.findAllById(worst)) {
+                names.put(doctor.getId(), doctor.getDoctorName());
+            }
+            for (Long doctorId : worst) {
+                CancellationRate rate = doctorRates.get(doctorId);
+                alerts.add("High cancellation rate for " + names.getOrDefault(doctorId, "doctor #" + doctorId)
+                        + " in the last day: " + rate.cancelled() + " cancelled vs " + rate.booked() + " booked.");
+            }
+        }
+        return alerts;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotEvent(AppointmentSlotEvent event) {
+        if (event.getType() == AppointmentSlotEvent.Type.BOOKED) {
+            recordBooked(event.getDoctorId());
+        } else {
+            recordCancelled(event.getDoctorId());
+        }
+    }
+
+    // Also drops doctors with no events in the last week
+    @Override
+    @Scheduled(fixedDelayString = "${app.alerts.snapshot-interval-ms:60000}",
+            initialDelayString = "${app.alerts.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        long now = clock.millis();
+        long cutoff = now - HOURS_KEPT * HOUR_MILLIS;
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put(GLOBAL_FIELD, global.encode(now));
+        byDoctor.forEach((doctorId, counters) -> {
+            if (counters.lastEventAt < cutoff) {
+                byDoctor.remove(doctorId);
+            } else {
+                fields.put(doctorId.toString(), counters.encode(now));
+            }
+        });
+
+        try {
+            // Only this node writes its key, so the rename never replaces another node's counts
+            String key = SNAPSHOT_KEY + nodeId;
+            Duration ttl = Duration.ofMillis((HOURS_KEPT + 1) * HOUR_MILLIS);
+            redisTemplate.opsForHash().putAll(key + ":tmp", fields);
+            redisTemplate.rename(key + ":tmp", key);
+            redisTemplate.expire(key, ttl);
+            redisTemplate.opsForSet().add(NODES_KEY, nodeId);
+            redisTemplate.expire(NODES_KEY, ttl);
+        } catch (Exception e) {
+            log.warn(" Could not snapshot cancellation rate counters: {}", e.getMessage());
+        }
+        refresh();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        long now = clock.millis();
+        Peers loaded = new Peers();
+        try {
+            Set<String> nodes = redisTemplate.opsForSet().members(NODES_KEY);
+            for (String node : nodes == null ? Set.<String>of() : nodes) {
+                if (nodeId.equals(node)) {
+                    continue;
+                }
+                Map<Object, Object> fields = redisTemplate.opsForHash().entries(SNAPSHOT_KEY + node);
+                if (fields.isEmpty()) {
+                    // Expired a week after that node's last snapshot
+                    redisTemplate.opsForSet().remove(NODES_KEY, node);
+                    continue;
+                }
+                fields.forEach((field, value) -> {
+                    try {
+                        Counters counters = GLOBAL_FIELD.equals(field) ? loaded.global
+                                : loaded.byDoctor.computeIfAbsent(Long.valueOf((String) field), id -> new Counters());
+                        counters.restore((String) value, now);
+                    } catch (RuntimeException e) {
+                        log.warn(" Skipping unreadable cancellation rate snapshot entry {}: {}", field, e.getMessage());
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.warn(" Could not read other nodes' cancellation rate counters: {}", e.getMessage());
+            return;
+        }
+        peers = loaded;
+
+        Set<Long> doctorIds = new HashSet<>(loaded.byDoctor.keySet());
+        doctorIds.addAll(byDoctor.keySet());
+        doctorIds.addAll(flaggedDoctors);
+        for (Long doctorId : doctorIds) {
+            updateFlag(doctorId, now);
+        }
+    }
+
+    private void record(Long doctorId, boolean cancelled) {
+        long now = clock.millis();
+        global.add(now, cancelled);
+        if (doctorId != null) {
+            byDoctor.computeIfAbsent(doctorId, id -> new Counters()).add(now, cancelled);
+            updateFlag(doctorId, now);
+        }
+    }
+
+    private CancellationRate doctorRate(Long doctorId, Window window, long now) {
+        return sum(byDoctor.get(doctorId), peers.byDoctor.get(doctorId), window, now);
+    }
+
+    private static CancellationRate sum(Counters local, Counters peer, Window window, long now) {
+        long booked = 0;
+        long cancelled = 0;
+        for (Counters counters : new Counters[]{local, peer}) {
+            if (counters != null) {
+                CancellationRate rate = counters.rate(window, now);
+                booked += rate.booked();
+                cancelled += rate.cancelled();
+            }
+        }
+        return new CancellationRate(booked, cancelled);
+    }
+
+    private void updateFlag(Long doctorId, long now) {
+        if (isHigh(doctorRate(doctorId, Window.DAY, now))) {
+            flaggedDoctors.add(doctorId);
+        } else {
+            flaggedDoctors.remove(doctorId);
+        }
+    }
+
+    private boolean isHigh(CancellationRate rate) {
+        return rate.total() >= minEvents && rate.rate() >= threshold;
+    }
+
+    private static final class Counters {
+        private final Ring minutes = new Ring(MINUTE_MILLIS, 60);
+        private final Ring hours = new Ring(HOUR_MILLIS, HOURS_KEPT);
+        private volatile long lastEventAt;
+
+        void add(long now, boolean cancelled) {
+            minutes.add(now / MINUTE_MILLIS, cancelled, 1);
+            hours.add(now / HOUR_MILLIS, cancelled, 1);
+            lastEventAt = now;
+        }
+
+        CancellationRate rate(Window window, long now) {
+            return switch (window) {
+                case HOUR -> minutes.sum(now, 60);
+                case DAY -> hours.sum(now, 24);
+                case WEEK -> hours.sum(now, HOURS_KEPT);
+            };
+        }
+
+        // Hourly buckets, then minute buckets after a ';'
+        String encode(long now) {
+            return hours.encode(now) + ';' + minutes.encode(now);
+        }
+
+        void restore(String encoded, long now) {
+            int split = encoded.indexOf(';');
+            long newest = hours.decode(split < 0 ? encoded : encoded.substring(0, split), now);
+            if (split >= 0) {
+                minutes.decode(encoded.substring(split + 1), now);
+            }
+            lastEventAt = Math.max(lastEventAt, newest * HOUR_MILLIS);
+        }
+    }
+
+    private static final class Peers {
+        private final Counters global = new Counters();
+        private final Map<Long, Counters> byDoctor = new HashMap<>();
+    }
+
+    // Fixed ring of time buckets. The first writer to see a bucket holding an older period resets it;
+    // an increment racing that reset can be lost, which is acceptable for alerting.
+    private static final class Ring {
+        private final long bucketMillis;
+        private final AtomicLongArray periods;
+        private final LongAdder[] booked;
+        private final LongAdder[] cancelled;
+
+        Ring(long bucketMillis, int buckets) {
+            this.bucketMillis = bucketMillis;
+            this.periods = new AtomicLongArray(buckets);
+            this.booked = new LongAdder[buckets];
+            this.cancelled = new LongAdder[buckets];
+            for (int i = 0; i < buckets; i++) {
+                periods.set(i, -1);
+                booked[i] = new LongAdder();
+                cancelled[i] = new LongAdder();
+            }
+        }
+
+        void add(long period, boolean isCancel, long count) {
+            int i = (int) (period % periods.length());
+            long seen = periods.get(i);
+            if (seen < period && periods.compareAndSet(i, seen, period)) {
+                booked[i].reset();
+                cancelled[i].reset();
+            }
+            if (periods.get(i) == period) {
+                (isCancel ? cancelled : booked)[i].add(count);
+            }
+        }
+
+        CancellationRate sum(long now, int buckets) {
+            long current = now / bucketMillis;
+            long bookedSum = 0;
+            long cancelledSum = 0;
+            for (long period = current - buckets + 1; period <= current; period++) {
+                int i = (int) (period % periods.length());
+                if (periods.get(i) == period) {
+                    bookedSum += booked[i].sum();
+                    cancelledSum += cancelled[i].sum();
+                }
+            }
+            return new CancellationRate(bookedSum, cancelledSum);
+        }
+
+        // "period:booked:cancelled" for each non-empty bucket still inside the ring
+        String encode(long now) {
+            long current = now / bucketMillis;
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < periods.length(); i++) {
+                long period = periods.get(i);
+                if (period > current - periods.length() && period <= current) {
+                    long b = booked[i].sum();
+                    long c = cancelled[i].sum();
+                    if (b != 0 || c != 0) {
+                        if (sb.length() > 0) {
+                            sb.append(',');
+                        }
+                        sb.append(period).append(':').append(b).append(':').append(c);
+                    }
+                }
+            }
+            return sb.toString();
+        }
+
+        // Returns the newest period restored, or 0 when nothing was
+        long decode(String encoded, long now) {
+            long current = now / bucketMillis;
+            long newest = 0;
+            if (encoded == null || encoded.isEmpty()) {
+                return newest;
+            }
+            for (String bucket : encoded.split(",")) {
+                String[] parts = bucket.split(":");
+                long period = Long.parseLong(parts[0]);
+                if (period <= current - periods.length() || period > current) {
+                    continue;
+                }
+                add(period, false, Long.parseLong(parts[1]));
+                add(period, true, Long.parseLong(parts[2]));
+                newest = Math.max(newest, period);
+            }
+            return newest;
+        }
+    }
+}
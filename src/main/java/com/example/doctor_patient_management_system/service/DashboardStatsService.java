@@ -0,0 +1,13 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.DashboardStats;
+
+public interface DashboardStatsService {
+
+    DashboardStats getStats();
+
+    long getIncompleteProfiles();
+
+    void refresh();
+
+}
@@ -0,0 +1,155 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.DashboardStats;
+import com.example.doctor_patient_management_system.event.AppointmentSlotEvent;
+import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
+import com.example.doctor_patient_management_system.model.enumeration.Role;
+import com.example.doctor_patient_management_system.repository.AppointmentRepository;
+import com.example.doctor_patient_management_system.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Admin dashboard counts from two GROUP BY queries, cached as a snapshot for a short TTL.
+// Between refreshes, bookings and cancellations on this node are applied as deltas on top of the snapshot.
+// Changes the events don't cover (other nodes, expiry, deletes) show up at the next refresh.
+@Service
+public class DashboardStatsServiceImpl implements DashboardStatsService {
+
+    // An event during the appointment query may or may not be in its result, so such a query is run again
+    private static final int MAX_QUERY_ATTEMPTS = 3;
+
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final Timer refreshTimer;
+
+    private volatile Snapshot snapshot;
+    private final LongAdder booked = new LongAdder();
+    private final LongAdder freed = new LongAdder();
+
+    public DashboardStatsServiceImpl(AppointmentRepository appointmentRepository,
+                                     UserRepository userRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.dashboard.stats-ttl-seconds:60}") long ttlSeconds) {
+        this.appointmentRepository = appointmentRepository;
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.refreshTimer = Timer.builder("dashboard.stats.refresh").register(meterRegistry);
+    }
+
+    @Override
+    public DashboardStats getStats() {
+        Snapshot s = current();
+        long bookedSince = booked.sum();
+        long freedSince = freed.sum();
+        DashboardStats base = s.stats;
+        return new DashboardStats(
+                base.totalAdmins(),
+                base.totalDoctors(),
+                base.totalPatients(),
+                base.totalUsers(),
+                base.totalAppointments() + bookedSince,
+                Math.max(base.confirmedAppointments() + bookedSince - freedSince, 0),
+                base.cancelledAppointments() + freedSince);
+    }
+
+    @Override
+    public long getIncompleteProfiles() {
+        return current().incompleteProfiles;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        Timer.Sample sample = Timer.start();
+
+        long confirmed;
+        long cancelled;
+        long total;
+        long bookedSeen;
+        long freedSeen;
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            long bookedBefore = booked.sum();
+            long freedBefore = freed.sum();
+            List<Object[]> rows = appointmentRepository.countGroupedByStatus();
+            bookedSeen = booked.sum();
+            freedSeen = freed.sum();
+
+            confirmed = 0;
+            cancelled = 0;
+            total = 0;
+            for (Object[] row : rows) {
+                long count = (Long) row[1];
+                total += count;
+                if (row[0] == AppointmentStatus.CONFIRMED) {
+                    confirmed = count;
+                } else if (row[0] == AppointmentStatus.CANCELLED) {
+                    cancelled = count;
+                }
+            }
+            // The counters only grow outside refresh, so unchanged sums mean nothing arrived during the query.
+            // After the last attempt the events seen are taken as counted: the next refresh corrects a miss,
+            // while counting them twice would not be noticed
+            if ((bookedSeen == bookedBefore && freedSeen == freedBefore) || attempt == MAX_QUERY_ATTEMPTS) {
+                break;
+            }
+        }
+
+        long admins = 0;
+        long doctors = 0;
+        long patients = 0;
+        long incomplete = 0;
+        for (Object[] row : userRepository.countGroupedByRole()) {
+            long count = (Long) row[1];
+            incomplete += row[2] != null ? ((Number) row[2]).longValue() : 0;
+            if (row[0] == Role.ADMIN) {
+                admins = count;
+            } else if (row[0] == Role.DOCTOR) {
+                doctors = count;
+            } else if (row[0] == Role.PATIENT) {
+                patients = count;
+            }
+        }
+
+        DashboardStats stats = new DashboardStats(admins, doctors, patients, admins + doctors + patients,
+                total, confirmed, cancelled);
+        snapshot = new Snapshot(stats, incomplete, System.currentTimeMillis());
+        booked.add(-bookedSeen);
+        freed.add(-freedSeen);
+
+        sample.stop(refreshTimer);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotEvent(AppointmentSlotEvent event) {
+        if (event.getType() == AppointmentSlotEvent.Type.BOOKED) {
+            booked.increment();
+        } else {
+            freed.increment();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null && System.currentTimeMillis() - s.loadedAt < ttlMillis) {
+            return s;
+        }
+        synchronized (this) {
+            s = snapshot;
+            if (s == null || System.currentTimeMillis() - s.loadedAt >= ttlMillis) {
+                refresh();
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private record Snapshot(DashboardStats stats, long incompleteProfiles, long loadedAt) {}
+}
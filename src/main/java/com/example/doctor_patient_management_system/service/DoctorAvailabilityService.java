@@ -2,6 +2,8 @@ package com.example.doctor_patient_management_system.service;
 
 import com.example.doctor_patient_management_system.dto.AvailableDoctorSummary;
 import com.example.doctor_patient_management_system.model.DoctorAvailability;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -18,6 +20,8 @@ public interface DoctorAvailabilityService {
 
      List<AvailableDoctorSummary> getAvailableDoctors(int limit);
 
+     Page<AvailableDoctorSummary> getAvailableDoctorsPage(Pageable pageable);
+
      boolean isOffDay(LocalDate date, Long doctorId);
 
      int totalSlotsPerDay(Long doctorId);
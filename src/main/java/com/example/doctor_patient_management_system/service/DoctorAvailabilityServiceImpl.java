@@ -1,38 +1,42 @@
 package com.example.doctor_patient_management_system.service;
 
+import com.example.doctor_patient_management_system.dto.AvailabilityWindow;
 import com.example.doctor_patient_management_system.dto.AvailableDoctorSummary;
-import com.example.doctor_patient_management_system.model.Appointment;
 import com.example.doctor_patient_management_system.model.Doctor;
 import com.example.doctor_patient_management_system.model.DoctorAvailability;
-import com.example.doctor_patient_management_system.model.DoctorAvailabilityOverride;
-import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
-import com.example.doctor_patient_management_system.repository.AppointmentRepository;
-import com.example.doctor_patient_management_system.repository.DoctorAvailabilityOverrideRepository;
 import com.example.doctor_patient_management_system.repository.DoctorAvailabilityRepository;
 import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DoctorAvailabilityServiceImpl implements  DoctorAvailabilityService {
 
+    private static final int PARALLEL_THRESHOLD = 2000;
+
     private final DoctorAvailabilityRepository doctorAvailabilityRepository;
     private final DoctorRepository doctorRepository;
-    private final AppointmentRepository appointmentRepository;
-    private final DoctorAvailabilityOverrideRepository doctorAvailabilityOverrideRepository;
+    private final SlotTemplateServiceImpl slotTemplateService;
+    private final BatchAvailabilityServiceImpl batchAvailabilityService;
+    private final OffDayScheduleServiceImpl offDayScheduleService;
 
     public DoctorAvailabilityServiceImpl(DoctorAvailabilityRepository doctorAvailabilityRepository,
                                          DoctorRepository doctorRepository,
-                                         AppointmentRepository appointmentRepository,
-                                         DoctorAvailabilityOverrideRepository doctorAvailabilityOverrideRepository) {
+                                         SlotTemplateServiceImpl slotTemplateService,
+                                         BatchAvailabilityServiceImpl batchAvailabilityService,
+                                         OffDayScheduleServiceImpl offDayScheduleService) {
         this.doctorAvailabilityRepository = doctorAvailabilityRepository;
         this.doctorRepository = doctorRepository;
-        this.appointmentRepository = appointmentRepository;
-        this.doctorAvailabilityOverrideRepository = doctorAvailabilityOverrideRepository;
+        this.slotTemplateService = slotTemplateService;
+        this.batchAvailabilityService = batchAvailabilityService;
+        this.offDayScheduleService = offDayScheduleService;
     }
 
 
@@ -60,125 +64,76 @@ public class DoctorAvailabilityServiceImpl implements  DoctorAvailabilityService
 
     @Override
     public List<AvailableDoctorSummary> getAvailableDoctors(int limit) {
-        List<Doctor> allDoctors = doctorRepository.findAll();
+        return computeWeeklyAvailability().stream()
+                .limit(limit)
+                .map(DoctorWeek::toSummary)
+                .collect(Collectors.toList());
+    }
 
-        List<AvailableDoctorSummary> results = allDoctors.stream()
-                .filter(d -> hasAvailability(d.getId()))
-                .map(d -> {
-                    LocalDate nextDate = getNextAvailableDate(d.getId());
-                    int slots = countAvailableSlotsNextWeek(d.getId());
-                    return new AvailableDoctorSummary(d, nextDate, slots);
-                })
-                .sorted((a, b) -> a.getNextAvailableDate().compareTo(b.getNextAvailableDate()))
+    @Override
+    public Page<AvailableDoctorSummary> getAvailableDoctorsPage(Pageable pageable) {
+        List<DoctorWeek> weeks = computeWeeklyAvailability();
+
+        // Only the requested page is turned into summaries
+        List<AvailableDoctorSummary> content = weeks.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(DoctorWeek::toSummary)
                 .collect(Collectors.toList());
 
-        if (limit == Integer.MAX_VALUE) {
-            return results;
-        }
-        return results.stream().limit(limit).collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, weeks.size());
     }
 
-    private boolean hasAvailability(Long doctorId) {
+    // One window query for every doctor, then a single pass per doctor over the next 7 days
+    private List<DoctorWeek> computeWeeklyAvailability() {
+        List<Doctor> allDoctors = doctorRepository.findAll();
+        if (allDoctors.isEmpty()) {
+            return new ArrayList<>();
+        }
+
         LocalDate today = LocalDate.now();
         LocalDate endWeek = today.plusDays(7);
-        List<Appointment> appts = appointmentRepository
-                .findByDoctorIdAndAppointmentDateBetween(doctorId, today, endWeek);
+        AvailabilityWindow window = batchAvailabilityService.loadWindow(allDoctors, today, endWeek);
 
-        Map<LocalDate, List<Integer>> bookedMap = appts.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED)
-                .collect(Collectors.groupingBy(Appointment::getAppointmentDate,
-                        Collectors.mapping(Appointment::getSlotId, Collectors.toList())));
+        Stream<Doctor> doctors = allDoctors.size() >= PARALLEL_THRESHOLD
+                ? allDoctors.parallelStream()
+                : allDoctors.stream();
 
-        for (LocalDate date = today; !date.isAfter(endWeek); date = date.plusDays(1)) {
-            if (!isOffDay(date, doctorId) &&
-                    (bookedMap.get(date) == null || bookedMap.get(date).size() < totalSlotsPerDay(doctorId))) {
-                return true;
-            }
-        }
-        return false;
+        return doctors
+                .map(d -> scanWeek(d, window, today, endWeek))
+                .filter(w -> w.nextAvailableDate() != null)
+                .sorted(Comparator.comparing(DoctorWeek::nextAvailableDate))
+                .collect(Collectors.toList());
     }
 
-    private LocalDate getNextAvailableDate(Long doctorId) {
-        LocalDate today = LocalDate.now();
-        LocalDate endWeek = today.plusDays(7);
-        List<Appointment> appts = appointmentRepository
-                .findByDoctorIdAndAppointmentDateBetween(doctorId, today, endWeek);
-
-        Map<LocalDate, List<Integer>> bookedMap = appts.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED)
-                .collect(Collectors.groupingBy(Appointment::getAppointmentDate,
-                        Collectors.mapping(Appointment::getSlotId, Collectors.toList())));
+    private DoctorWeek scanWeek(Doctor doctor, AvailabilityWindow window, LocalDate today, LocalDate endWeek) {
+        Long doctorId = doctor.getId();
+        LocalDate nextDate = null;
+        int freeSlots = 0;
 
         for (LocalDate date = today; !date.isAfter(endWeek); date = date.plusDays(1)) {
-            if (!isOffDay(date, doctorId) &&
-                    (bookedMap.get(date) == null || bookedMap.get(date).size() < totalSlotsPerDay(doctorId))) {
-                return date;
+            if (nextDate == null && window.isOpen(doctorId, date)) {
+                nextDate = date;
             }
+            freeSlots += window.getFreeSlots(doctorId, date);
         }
-        return null;
+        return new DoctorWeek(doctor, nextDate, freeSlots);
     }
 
-    private int countAvailableSlotsNextWeek(Long doctorId) {
-        LocalDate today = LocalDate.now();
-        LocalDate endWeek = today.plusDays(7);
-        List<Appointment> appts = appointmentRepository
-                .findByDoctorIdAndAppointmentDateBetween(doctorId, today, endWeek);
-
-        Map<LocalDate, Long> bookedCountMap = appts.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED)
-                .collect(Collectors.groupingBy(
-                        Appointment::getAppointmentDate,
-                        Collectors.counting()
-                ));
-
-        int totalAvailable = 0;
-        for (LocalDate date = today; !date.isAfter(endWeek); date = date.plusDays(1)) {
-            if (!isOffDay(date, doctorId)) {
-                long bookedOnDay = bookedCountMap.getOrDefault(date, 0L);
-                totalAvailable += totalSlotsPerDay(doctorId) - bookedOnDay;
-            }
+    private record DoctorWeek(Doctor doctor, LocalDate nextAvailableDate, int freeSlots) {
+        AvailableDoctorSummary toSummary() {
+            return new AvailableDoctorSummary(doctor, nextAvailableDate, freeSlots);
         }
-        return totalAvailable;
     }
 
     @Override
     public boolean isOffDay(LocalDate date, Long doctorId) {
-        Optional<DoctorAvailabilityOverride> override = doctorAvailabilityOverrideRepository.findByDoctorIdAndDate(doctorId, date);
-        if (override.isPresent() && Boolean.FALSE.equals(override.get().getIsAvailable())) {
-            return true;
-        }
-
-        Doctor doctor = doctorRepository.findById(doctorId).orElseThrow(() -> new RuntimeException("Doctor not found"));
-        if (doctor.getOffDays() == null || doctor.getOffDays().isBlank()) {
-            return false;
-        }
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        String dayName = dayOfWeek.name();
-        return Arrays.stream(doctor.getOffDays().split(","))
-                .map(String::trim)
-                .anyMatch(offDay -> offDay.equalsIgnoreCase(dayName));
+        return offDayScheduleService.isOffDay(doctorId, date);
     }
 
     @Override
     public int totalSlotsPerDay(Long doctorId) {
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new RuntimeException("Doctor not found"));
-
-        String startStr = doctor.getConsultationStartTime();
-        String endStr = doctor.getConsultationEndTime();
-
-        if (startStr == null || endStr == null) {
-            return 0;
-        }
-
-        LocalTime start = LocalTime.parse(startStr); // 09:00
-        LocalTime end = LocalTime.parse(endStr);
-
-        long minutes = java.time.Duration.between(start, end).toMinutes();
-        if (minutes <= 0) return 0;
-
-        int slotDurationMinutes = 20;
-        return (int) (minutes / slotDurationMinutes);
+        return slotTemplateService.getTemplate(doctorId).size();
     }
 
 
@@ -198,6 +153,11 @@ public class DoctorAvailabilityServiceImpl implements  DoctorAvailabilityService
         LocalDate endDate = today.plusDays(30);
 
         List<AvailableDoctorSummary> result = new ArrayList<>();
+        if (candidates.isEmpty()) {
+            return result;
+        }
+
+        AvailabilityWindow window = batchAvailabilityService.loadWindow(candidates, today, endDate);
         Set<Long> added = new HashSet<>();
 
         for (LocalDate date = today; date.isBefore(endDate.plusDays(1)); date = date.plusDays(1)) {
@@ -205,12 +165,8 @@ public class DoctorAvailabilityServiceImpl implements  DoctorAvailabilityService
 
             for (Doctor doctor : candidates) {
                 if (added.contains(doctor.getId())) continue;
-                if (isOffDay(date, doctor.getId())) continue;
-
-                List<Integer> booked = appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(doctor.getId(), date);
-                int total = totalSlotsPerDay(doctor.getId());
 
-                if (total > 0 && booked.size() < total) {
+                if (window.hasFreeSlot(doctor.getId(), date)) {
                     result.add(new AvailableDoctorSummary(doctor, date));
                     added.add(doctor.getId());
                 }
@@ -1,12 +1,20 @@
 package com.example.doctor_patient_management_system.service;
 
-import com.example.doctor_patient_management_system.dto.BookedSlotsDto;
+import com.example.doctor_patient_management_system.dto.CalendarMonth;
 import com.example.doctor_patient_management_system.dto.DayStatus;
-import com.example.doctor_patient_management_system.model.Appointment;
-import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
-import com.example.doctor_patient_management_system.repository.AppointmentRepository;
+import com.example.doctor_patient_management_system.event.AppointmentSlotEvent;
+import com.example.doctor_patient_management_system.event.DoctorScheduleEvent;
+import com.example.doctor_patient_management_system.repository.DoctorDayCapacityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.TextStyle;
@@ -19,27 +27,101 @@ import java.util.stream.IntStream;
 @Service
 public class DoctorCalendarServiceImpl implements  DoctorCalendarService {
 
+    // Hash per doctor: month -> generation, bumped by every eviction of that month
+    private static final String GENERATION_KEY_PREFIX = "doctorCalendar:generation:";
+    // Twice the doctorCalendar entry TTL, renewed on every eviction and every cached month: by the time
+    // a hash expires and its generations restart from 0, no entry cached under them is left to be read
+    private static final Duration GENERATION_TTL = Duration.ofHours(1);
+
     private final DoctorAvailabilityServiceImpl doctorAvailabilityService;
-    private final AppointmentRepository appointmentRepository;
+    private final DoctorDayCapacityRepository capacityRepository;
+    private final Cache calendarCache;
+    private final StringRedisTemplate redisTemplate;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final DistributionSummary entryAge;
 
-    public DoctorCalendarServiceImpl(DoctorAvailabilityServiceImpl doctorAvailabilityService, AppointmentRepository appointmentRepository) {
+    public DoctorCalendarServiceImpl(DoctorAvailabilityServiceImpl doctorAvailabilityService, DoctorDayCapacityRepository capacityRepository,
+                                     CacheManager cacheManager, StringRedisTemplate redisTemplate,
+                                     MeterRegistry meterRegistry) {
         this.doctorAvailabilityService = doctorAvailabilityService;
-        this.appointmentRepository = appointmentRepository;
+        this.capacityRepository = capacityRepository;
+        this.calendarCache = cacheManager.getCache("doctorCalendar");
+        this.redisTemplate = redisTemplate;
+
+        this.hits = Counter.builder("doctor.calendar.cache.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("doctor.calendar.cache.lookups").tag("result", "miss").register(meterRegistry);
+        this.entryAge = DistributionSummary.builder("doctor.calendar.cache.age")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
     }
 
     @Override
     public List<DayStatus> getCalendarData(Long doctorId, int year, int month) {
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = YearMonth.of(year, month).atEndOfMonth();
         LocalDate today = LocalDate.now();
+        YearMonth yearMonth = YearMonth.of(year, month);
+        // Read before computing: if an eviction lands while the month is built, the result goes under
+        // a generation nobody reads any more instead of overwriting the eviction
+        String key = cacheKey(doctorId, yearMonth, today, generation(doctorId, yearMonth));
+
+        CalendarMonth cached = calendarCache.get(key, CalendarMonth.class);
+        if (cached != null) {
+            hits.increment();
+            entryAge.record(System.currentTimeMillis() - cached.getComputedAt());
+            return cached.getDays();
+        }
+
+        misses.increment();
+        long computedAt = System.currentTimeMillis();
+        List<DayStatus> days = buildCalendar(doctorId, year, month, today);
+        calendarCache.put(key, new CalendarMonth(days, computedAt));
+        redisTemplate.expire(GENERATION_KEY_PREFIX + doctorId, GENERATION_TTL);
+        return days;
+    }
 
-        List<BookedSlotsDto> bookedSlotsList = getBookedSlotsMap(doctorId, startDate, endDate);
+    @Override
+    public void evict(Long doctorId, YearMonth month) {
+        String generationKey = GENERATION_KEY_PREFIX + doctorId;
+        long generation = redisTemplate.opsForHash().increment(generationKey, month.toString(), 1);
+        redisTemplate.expire(generationKey, GENERATION_TTL);
+        // Older generations and earlier dates are never read again; this only frees the current entry early
+        calendarCache.evictIfPresent(cacheKey(doctorId, month, LocalDate.now(), generation - 1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotEvent(AppointmentSlotEvent event) {
+        evict(event.getDoctorId(), YearMonth.from(event.getDate()));
+    }
 
-        //[
-        //    BookedSlotsDto { date: 2026-01-05, slotIds: [5, 8, 12] },
-        //    BookedSlotsDto { date: 2026-01-10, slotIds: [3, 7] },
-        //    BookedSlotsDto { date: 2026-01-20, slotIds: [15] }
-        //]
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleEvent(DoctorScheduleEvent event) {
+        if (event.getDate() != null) {
+            evict(event.getDoctorId(), YearMonth.from(event.getDate()));
+            return;
+        }
+        // Hours or weekly off days changed: drop the months the profile page can reasonably reach
+        YearMonth current = YearMonth.now();
+        for (int offset = -1; offset <= 12; offset++) {
+            evict(event.getDoctorId(), current.plusMonths(offset));
+        }
+    }
+
+    // The date makes the "past"/"today" flags roll over at midnight without an explicit sweep
+    private String cacheKey(Long doctorId, YearMonth month, LocalDate today, long generation) {
+        return doctorId + ":" + month + ":" + today + ":" + generation;
+    }
+
+    private long generation(Long doctorId, YearMonth month) {
+        Object generation = redisTemplate.opsForHash().get(GENERATION_KEY_PREFIX + doctorId, month.toString());
+        return generation != null ? Long.parseLong((String) generation) : 0;
+    }
+
+    private List<DayStatus> buildCalendar(Long doctorId, int year, int month, LocalDate today) {
+        LocalDate startDate = LocalDate.of(year, month, 1);
+        LocalDate endDate = YearMonth.of(year, month).atEndOfMonth();
+
+        int[] bookedByDay = getBookedCountsByDay(doctorId, startDate, endDate);
 
         List<LocalDate> allDates = getAllDatesInMonth(year, month);
 
@@ -52,23 +134,19 @@ public class DoctorCalendarServiceImpl implements  DoctorCalendarService {
 //            ...
 //        ]
 
-        return buildDayStatuses(allDates, bookedSlotsList, today, doctorId);
+        return buildDayStatuses(allDates, today, doctorId, bookedByDay);
     }
 
-    private List<BookedSlotsDto> getBookedSlotsMap(Long doctorId, LocalDate startDate, LocalDate endDate) {
-        List<Appointment> appointments = appointmentRepository
-                .findByDoctorIdAndAppointmentDateBetween(doctorId, startDate, endDate);
-
-        return appointments.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED)
-                .collect(Collectors.groupingBy(
-                        Appointment::getAppointmentDate,
-                        Collectors.mapping(Appointment::getSlotId, Collectors.toList())
-                ))
-                .entrySet().stream()
-                .map(entry -> new BookedSlotsDto(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
-
+    // Index 0 is the 1st of the month; one range scan of the capacity read model
+    private int[] getBookedCountsByDay(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        int[] bookedByDay = new int[endDate.getDayOfMonth()];
+        List<Object[]> rows = capacityRepository
+                .findBookedCountsByDoctorIdAndDateBetween(doctorId, startDate, endDate);
+        for (Object[] row : rows) {
+            LocalDate date = (LocalDate) row[0];
+            bookedByDay[date.getDayOfMonth() - 1] = (Integer) row[1];
+        }
+        return bookedByDay;
     }
 
     private List<LocalDate> getAllDatesInMonth(int year, int month) {
@@ -80,29 +158,17 @@ public class DoctorCalendarServiceImpl implements  DoctorCalendarService {
     }
 
     private List<DayStatus> buildDayStatuses(List<LocalDate> allDates,
-                                             List<BookedSlotsDto> bookedSlotsList,
                                              LocalDate today,
-                                             Long doctorId) {
-        List<DayStatus> days = new ArrayList<>();
+                                             Long doctorId,
+                                             int[] bookedByDay) {
+        List<DayStatus> days = new ArrayList<>(allDates.size());
         int totalSlots = doctorAvailabilityService.totalSlotsPerDay(doctorId);
 
         for (LocalDate date : allDates) {
-            boolean isPast = date.isBefore(today);
             boolean isOff = doctorAvailabilityService.isOffDay(date, doctorId);
+            int bookedCount = bookedByDay[date.getDayOfMonth() - 1];
 
-            // Find booked slots for this date from the DTO list
-            int bookedCount = bookedSlotsList.stream()
-                    .filter(dto -> dto.getDate().equals(date))
-                    .findFirst()
-                    .map(dto -> dto.getSlotIds().size())
-                    .orElse(0);
-
-            int available = totalSlots - bookedCount;
-            String status = isPast ? "past" : isOff ? "off" : bookedCount == 0 ? "available" : bookedCount < totalSlots ? "partial" : "full";
-            boolean isTodayFlag = date.isEqual(today);
-            String dayName = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
-
-            days.add(new DayStatus(date, status, bookedCount, available, isTodayFlag, dayName));
+            days.add(toDayStatus(date, today, isOff, bookedCount, totalSlots));
         }
 
 //        DayStatus {
@@ -120,4 +186,14 @@ public class DoctorCalendarServiceImpl implements  DoctorCalendarService {
         //Date: 2026-01-12, isPast: false (today is not before today), isOff: true (Sunday), bookedCount: 5, available: 10 - 5 = 5
         //status: "off" (because isOff = true), isToday: true, dayName: "Sunday"
     }
+
+    static DayStatus toDayStatus(LocalDate date, LocalDate today, boolean isOff, int bookedCount, int totalSlots) {
+        boolean isPast = date.isBefore(today);
+        int available = totalSlots - bookedCount;
+        String status = isPast ? "past" : isOff ? "off" : bookedCount == 0 ? "available" : bookedCount < totalSlots ? "partial" : "full";
+        boolean isTodayFlag = date.isEqual(today);
+        String dayName = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+
+        return new DayStatus(date, status, bookedCount, available, isTodayFlag, dayName);
+    }
 }
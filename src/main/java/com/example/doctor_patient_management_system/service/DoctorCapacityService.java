@@ -0,0 +1,30 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.CapacityCheckResult;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface DoctorCapacityService {
+
+    void recordBooked(Long doctorId, LocalDate date);
+
+    void recordBooked(Long doctorId, LocalDate date, int count);
+
+    void recordFreed(Long doctorId, LocalDate date, int count);
+
+    void setBlocked(Long doctorId, LocalDate date, boolean blocked);
+
+    void setBlockedBetween(Long doctorId, LocalDate startDate, LocalDate endDate);
+
+    void refreshTotalSlots(Long doctorId);
+
+    void removeDoctor(Long doctorId);
+
+    int rebuildAll();
+
+    void rebuild(Collection<Long> doctorIds);
+
+    CapacityCheckResult check(LocalDate startDate, LocalDate endDate, boolean repair);
+
+}
@@ -0,0 +1,234 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.CapacityCheckResult;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.AppointmentRepository;
+import com.example.doctor_patient_management_system.repository.DoctorAvailabilityOverrideRepository;
+import com.example.doctor_patient_management_system.repository.DoctorDayCapacityRepository;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Maintains the doctor_day_capacity read model. Writers call the record/set methods inside their own
+// transaction so the row changes commit or roll back together with the appointment.
+// rebuild() recomputes rows from appointments and overrides; check() compares the two for a date range.
+@Service
+public class DoctorCapacityServiceImpl implements DoctorCapacityService {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorCapacityServiceImpl.class);
+
+    // Doctors recomputed per transaction during a rebuild
+    private static final int REBUILD_CHUNK_SIZE = 200;
+
+    private final DoctorDayCapacityRepository capacityRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorAvailabilityOverrideRepository doctorAvailabilityOverrideRepository;
+    private final DoctorRepository doctorRepository;
+    private final SlotTemplateServiceImpl slotTemplateService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter mismatches;
+
+    public DoctorCapacityServiceImpl(DoctorDayCapacityRepository capacityRepository,
+                                     AppointmentRepository appointmentRepository,
+                                     DoctorAvailabilityOverrideRepository doctorAvailabilityOverrideRepository,
+                                     DoctorRepository doctorRepository,
+                                     SlotTemplateServiceImpl slotTemplateService,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.capacityRepository = capacityRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorAvailabilityOverrideRepository = doctorAvailabilityOverrideRepository;
+        this.doctorRepository = doctorRepository;
+        this.slotTemplateService = slotTemplateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mismatches = Counter.builder("doctor.capacity.mismatches").register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void recordBooked(Long doctorId, LocalDate date) {
+        recordBooked(doctorId, date, 1);
+    }
+
+    @Override
+    @Transactional
+    public void recordBooked(Long doctorId, LocalDate date, int count) {
+        if (count > 0) {
+            capacityRepository.incrementBooked(doctorId, date, totalSlots(doctorId), count);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordFreed(Long doctorId, LocalDate date, int count) {
+        if (count > 0) {
+            capacityRepository.decrementBooked(doctorId, date, count);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void setBlocked(Long doctorId, LocalDate date, boolean blocked) {
+        capacityRepository.upsertBlocked(doctorId, date, totalSlots(doctorId), blocked);
+    }
+
+    @Override
+    @Transactional
+    public void setBlockedBetween(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        capacityRepository.upsertBlockedBetween(doctorId, startDate, endDate, totalSlots(doctorId));
+    }
+
+    // Past days keep the slot count they were booked against
+    @Override
+    @Transactional
+    public void refreshTotalSlots(Long doctorId) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found with id: " + doctorId));
+        capacityRepository.updateTotalSlotsFrom(doctorId, LocalDate.now(),
+                slotTemplateService.getTemplate(doctor).size());
+    }
+
+    @Override
+    @Transactional
+    public void removeDoctor(Long doctorId) {
+        capacityRepository.deleteByDoctorIds(List.of(doctorId));
+    }
+
+    @Override
+    public int rebuildAll() {
+        List<Long> doctorIds = doctorRepository.findAllIds();
+        for (int from = 0; from < doctorIds.size(); from += REBUILD_CHUNK_SIZE) {
+            rebuild(doctorIds.subList(from, Math.min(from + REBUILD_CHUNK_SIZE, doctorIds.size())));
+        }
+        log.info(" Rebuilt doctor day capacity for {} doctors", doctorIds.size());
+        return doctorIds.size();
+    }
+
+    // Delete first, then count: a booking that commits in between either blocks on the deleted row
+    // and increments the rebuilt one, or is already included in the count and overwritten by it.
+    @Override
+    public void rebuild(Collection<Long> doctorIds) {
+        if (doctorIds.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            capacityRepository.deleteByDoctorIds(doctorIds);
+
+            Map<Long, Integer> totals = new HashMap<>();
+            for (Doctor doctor : doctorRepository.findAllById(doctorIds)) {
+                totals.put(doctor.getId(), slotTemplateService.getTemplate(doctor).size());
+            }
+
+            Map<DayKey, DayValue> expected = new HashMap<>();
+            for (Object[] row : appointmentRepository.countConfirmedByDoctorIds(doctorIds)) {
+                expected.put(new DayKey((Long) row[0], (LocalDate) row[1]),
+                        new DayValue(((Long) row[2]).intValue(), false));
+            }
+            for (Object[] row : doctorAvailabilityOverrideRepository.findBlockedDatesByDoctorIds(doctorIds)) {
+                DayKey key = new DayKey((Long) row[0], (LocalDate) row[1]);
+                DayValue value = expected.get(key);
+                expected.put(key, new DayValue(value == null ? 0 : value.bookedCount(), true));
+            }
+
+            expected.forEach((key, value) -> capacityRepository.upsert(key.doctorId(), key.date(),
+                    totals.getOrDefault(key.doctorId(), 0), value.bookedCount(), value.blocked()));
+        });
+    }
+
+    @Override
+    public CapacityCheckResult check(LocalDate startDate, LocalDate endDate, boolean repair) {
+        List<Long> doctorIds = doctorRepository.findAllIds();
+        List<Long> mismatched = new ArrayList<>();
+
+        for (int from = 0; from < doctorIds.size(); from += REBUILD_CHUNK_SIZE) {
+            List<Long> chunk = doctorIds.subList(from, Math.min(from + REBUILD_CHUNK_SIZE, doctorIds.size()));
+
+            Map<Long, Map<LocalDate, DayValue>> expected = new HashMap<>();
+            for (Object[] row : appointmentRepository.countConfirmedByDoctorIdsAndDateBetween(chunk, startDate, endDate)) {
+                expected.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                        .put((LocalDate) row[1], new DayValue(((Long) row[2]).intValue(), false));
+            }
+            for (Object[] row : doctorAvailabilityOverrideRepository
+                    .findBlockedDatesByDoctorIdsAndDateBetween(chunk, startDate, endDate)) {
+                Map<LocalDate, DayValue> days = expected.computeIfAbsent((Long) row[0], id -> new HashMap<>());
+                DayValue value = days.get((LocalDate) row[1]);
+                days.put((LocalDate) row[1], new DayValue(value == null ? 0 : value.bookedCount(), true));
+            }
+
+            Map<Long, Map<LocalDate, DayValue>> actual = new HashMap<>();
+            for (Object[] row : capacityRepository.findByDoctorIdsAndDateBetween(chunk, startDate, endDate)) {
+                DayValue value = new DayValue((Integer) row[2], (Boolean) row[3]);
+                // Rows that say "nothing booked, not blocked" are equivalent to no row
+                if (value.bookedCount() != 0 || value.blocked()) {
+                    actual.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put((LocalDate) row[1], value);
+                }
+            }
+
+            for (Long doctorId : chunk) {
+                if (!expected.getOrDefault(doctorId, Map.of()).equals(actual.getOrDefault(doctorId, Map.of()))) {
+                    mismatched.add(doctorId);
+                }
+            }
+        }
+
+        if (!mismatched.isEmpty()) {
+            mismatches.increment(mismatched.size());
+            log.warn(" Doctor day capacity out of step for {} doctors between {} and {}: {}",
+                    mismatched.size(), startDate, endDate, mismatched);
+            if (repair) {
+                for (int from = 0; from < mismatched.size(); from += REBUILD_CHUNK_SIZE) {
+                    rebuild(mismatched.subList(from, Math.min(from + REBUILD_CHUNK_SIZE, mismatched.size())));
+                }
+            }
+        }
+
+        return new CapacityCheckResult(startDate, endDate, doctorIds.size(), mismatched, repair && !mismatched.isEmpty());
+    }
+
+    // Fills the table the first time the application starts against existing appointments
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        try {
+            if (capacityRepository.count() == 0 && appointmentRepository.count() > 0) {
+                rebuildAll();
+            }
+        } catch (Exception e) {
+            log.error(" Initial doctor day capacity rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${app.capacity.check-cron:0 15 * * * *}")
+    public void scheduledCheck() {
+        try {
+            LocalDate today = LocalDate.now();
+            check(today.minusDays(7), today.plusDays(90), true);
+        } catch (Exception e) {
+            log.error(" Doctor day capacity check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int totalSlots(Long doctorId) {
+        return slotTemplateService.getTemplate(doctorId).size();
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {}
+
+    private record DayValue(int bookedCount, boolean blocked) {}
+}
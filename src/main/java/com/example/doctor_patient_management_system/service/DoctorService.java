@@ -35,6 +35,8 @@ public interface DoctorService {
 
      void blockDay(Long doctorId, LocalDate date);
 
+     void blockDays(Long doctorId, LocalDate startDate, LocalDate endDate);
+
      void unblockDay(Long doctorId, LocalDate date);
 
      Double getAverageRatingForDoctor(Long doctorId);
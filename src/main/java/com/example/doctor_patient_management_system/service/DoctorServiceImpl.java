@@ -1,6 +1,7 @@
 package com.example.doctor_patient_management_system.service;
 
 import com.example.doctor_patient_management_system.dto.*;
+import com.example.doctor_patient_management_system.event.DoctorScheduleEvent;
 //import com.example.doctor_patient_management_system.dto.SlotDto;
 import com.example.doctor_patient_management_system.model.*;
 import com.example.doctor_patient_management_system.model.enumeration.Role;
@@ -9,6 +10,7 @@ import jakarta.transaction.Transactional;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -24,15 +26,21 @@ public class DoctorServiceImpl implements DoctorService {
     private final UserRepository userRepository;
     private final DoctorAvailabilityOverrideRepository doctorAvailabilityOverrideRepository;
     private final ReviewRepository reviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DoctorCapacityServiceImpl doctorCapacityService;
 
     public DoctorServiceImpl(DoctorRepository doctorRepository,
                              UserRepository userRepository,
                              DoctorAvailabilityOverrideRepository doctorAvailabilityOverrideRepository,
-                             ReviewRepository reviewRepository) {
+                             ReviewRepository reviewRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             DoctorCapacityServiceImpl doctorCapacityService) {
         this.doctorRepository = doctorRepository;
         this.userRepository = userRepository;
         this.doctorAvailabilityOverrideRepository = doctorAvailabilityOverrideRepository;
         this.reviewRepository = reviewRepository;
+        this.eventPublisher = eventPublisher;
+        this.doctorCapacityService = doctorCapacityService;
     }
 
 
@@ -120,6 +128,9 @@ public class DoctorServiceImpl implements DoctorService {
 
         Doctor updatedDoctor = doctorRepository.save(doctor);
 
+        doctorCapacityService.refreshTotalSlots(userId);
+        eventPublisher.publishEvent(DoctorScheduleEvent.profileChanged(userId));
+
         return updatedDoctor;
 
     }
@@ -161,6 +172,8 @@ public class DoctorServiceImpl implements DoctorService {
     })
     public void deleteDoctor(Long doctorId) {
         doctorRepository.deleteById(doctorId);
+        doctorCapacityService.removeDoctor(doctorId);
+        eventPublisher.publishEvent(DoctorScheduleEvent.profileChanged(doctorId));
     }
 
     @Override
@@ -189,6 +202,22 @@ public class DoctorServiceImpl implements DoctorService {
         override.setOverrideDate(date);
         override.setIsAvailable(false);
         doctorAvailabilityOverrideRepository.save(override);
+        doctorCapacityService.setBlocked(doctorId, date, true);
+        eventPublisher.publishEvent(DoctorScheduleEvent.dayBlocked(doctorId, date));
+    }
+
+    // Vacation: every day in the range is blocked with two set-based statements
+    @Override
+    @Transactional
+    public void blockDays(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found with id: " + doctorId));
+        doctorAvailabilityOverrideRepository.blockExistingBetween(doctorId, startDate, endDate);
+        doctorAvailabilityOverrideRepository.insertBlocksBetween(doctorId, startDate, endDate);
+        doctorCapacityService.setBlockedBetween(doctorId, startDate, endDate);
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            eventPublisher.publishEvent(DoctorScheduleEvent.dayBlocked(doctorId, date));
+        }
     }
 
     @Override
@@ -198,6 +227,8 @@ public class DoctorServiceImpl implements DoctorService {
         if (existing.isPresent()) {
             doctorAvailabilityOverrideRepository.delete(existing.get());
         }
+        doctorCapacityService.setBlocked(doctorId, date, false);
+        eventPublisher.publishEvent(DoctorScheduleEvent.dayUnblocked(doctorId, date));
     }
     @Override
     public Double getAverageRatingForDoctor(Long doctorId) {
@@ -0,0 +1,13 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.IdempotentResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    IdempotentResponse execute(Long userId, String key, String fingerprint,
+                               Supplier<CompletableFuture<IdempotentResponse>> action);
+
+}
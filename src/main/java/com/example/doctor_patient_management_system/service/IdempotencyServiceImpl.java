@@ -0,0 +1,250 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.IdempotentResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Dedupe store for Idempotency-Key requests, scoped per user.
+// Finished outcomes live in a local LRU and in Redis for the TTL; a replay gets the stored response back.
+// Concurrent requests with the same key on this node wait on the first one's future; on other nodes they
+// see the Redis PENDING marker and poll until the outcome is written.
+// Server-side failures (5xx) are not remembered so the client can retry them.
+// The outcome is stored when the action's future completes, even if the caller stopped waiting first;
+// until then the key stays pending, so a retry joins the running request instead of starting another.
+// If Redis is unavailable only the local store is used.
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String PENDING = "PENDING";
+    // Only reached if a node dies mid-request; a live request clears or replaces its marker when it completes
+    private static final Duration PENDING_TTL = Duration.ofMinutes(5);
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration ttl;
+    private final long waitMillis;
+
+    private final Map<String, LocalEntry> local;
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter joined;
+
+    public IdempotencyServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                                  @Value("${app.idempotency.local-max-entries:10000}") int maxEntries,
+                                  @Value("${app.idempotency.wait-seconds:15}") long waitSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.waitMillis = waitSeconds * 1000L;
+
+        this.local = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.executed = Counter.builder("idempotency.requests").tag("result", "executed").register(meterRegistry);
+        this.replayed = Counter.builder("idempotency.requests").tag("result", "replayed").register(meterRegistry);
+        this.joined = Counter.builder("idempotency.requests").tag("result", "joined").register(meterRegistry);
+    }
+
+    @Override
+    public IdempotentResponse execute(Long userId, String key, String fingerprint,
+                                      Supplier<CompletableFuture<IdempotentResponse>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String id = userId + ":" + key;
+
+        IdempotentResponse cached = getLocal(id);
+        if (cached != null) {
+            replayed.increment();
+            return checkFingerprint(cached, fingerprint);
+        }
+
+        CompletableFuture<IdempotentResponse> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> first = inFlight.putIfAbsent(id, mine);
+        if (first != null) {
+            joined.increment();
+            return checkFingerprint(await(first, HttpStatus.CONFLICT), fingerprint);
+        }
+        // Stays joinable until the outcome is settled, which may be after this caller gave up waiting
+        mine.whenComplete((result, error) -> inFlight.remove(id, mine));
+
+        try {
+            start(id, fingerprint, action, mine);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        return checkFingerprint(await(mine, HttpStatus.SERVICE_UNAVAILABLE), fingerprint);
+    }
+
+    // Completes outcome with the stored response, or runs the action and settles the key when it finishes
+    private void start(String id, String fingerprint, Supplier<CompletableFuture<IdempotentResponse>> action,
+                       CompletableFuture<IdempotentResponse> outcome) {
+        String redisKey = KEY_PREFIX + id;
+        long deadline = System.currentTimeMillis() + waitMillis;
+
+        while (true) {
+            Object stored = readRedis(redisKey);
+            if (stored instanceof IdempotentResponse response) {
+                replayed.increment();
+                putLocal(id, response);
+                outcome.complete(response);
+                return;
+            }
+            if (stored == null && claim(redisKey)) {
+                break;
+            }
+            // Another node is running this request
+            if (System.currentTimeMillis() >= deadline) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress");
+            }
+            sleep();
+        }
+
+        executed.increment();
+        CompletableFuture<IdempotentResponse> running;
+        try {
+            running = action.get();
+        } catch (RuntimeException e) {
+            deleteRedis(redisKey);
+            throw e;
+        }
+
+        running.whenComplete((result, error) -> {
+            if (error != null) {
+                deleteRedis(redisKey);
+                outcome.completeExceptionally(error);
+            } else if (result.getStatus() >= 500) {
+                deleteRedis(redisKey);
+                outcome.complete(result);
+            } else {
+                IdempotentResponse response = new IdempotentResponse(fingerprint, result.getStatus(), result.getBody());
+                writeRedis(redisKey, response);
+                putLocal(id, response);
+                outcome.complete(response);
+            }
+        });
+    }
+
+    private IdempotentResponse checkFingerprint(IdempotentResponse response, String fingerprint) {
+        if (response.getFingerprint() != null && !response.getFingerprint().equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+        return response;
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> outcome, HttpStatus timeoutStatus) {
+        try {
+            return outcome.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException wrapped ? wrapped.getCause() : e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException(cause);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(timeoutStatus,
+                    "A request with this Idempotency-Key is still in progress, retry with the same key for its outcome");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private IdempotentResponse getLocal(String id) {
+        synchronized (local) {
+            LocalEntry entry = local.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - entry.storedAt >= ttl.toMillis()) {
+                local.remove(id);
+                return null;
+            }
+            return entry.response;
+        }
+    }
+
+    private void putLocal(String id, IdempotentResponse response) {
+        synchronized (local) {
+            local.put(id, new LocalEntry(response, System.currentTimeMillis()));
+        }
+    }
+
+    private Object readRedis(String redisKey) {
+        try {
+            return redisTemplate.opsForValue().get(redisKey);
+        } catch (Exception e) {
+            log.warn(" Idempotency lookup skipped, Redis unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean claim(String redisKey) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(redisKey, PENDING, PENDING_TTL));
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    private void writeRedis(String redisKey, IdempotentResponse response) {
+        try {
+            redisTemplate.opsForValue().set(redisKey, response, ttl);
+        } catch (Exception e) {
+            log.warn(" Failed to store idempotent response in Redis: {}", e.getMessage());
+        }
+    }
+
+    private void deleteRedis(String redisKey) {
+        try {
+            redisTemplate.delete(redisKey);
+        } catch (Exception e) {
+            log.warn(" Failed to clear idempotency marker: {}", e.getMessage());
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress");
+        }
+    }
+
+    private record LocalEntry(IdempotentResponse response, long storedAt) {}
+}
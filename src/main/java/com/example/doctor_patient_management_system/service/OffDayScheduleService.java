@@ -0,0 +1,15 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.OffDaySchedule;
+
+import java.time.LocalDate;
+
+public interface OffDayScheduleService {
+
+    OffDaySchedule getSchedule(Long doctorId, LocalDate date);
+
+    boolean isOffDay(Long doctorId, LocalDate date);
+
+    void invalidate(Long doctorId);
+
+}
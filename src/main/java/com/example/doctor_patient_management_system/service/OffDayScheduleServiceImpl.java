@@ -0,0 +1,82 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.DoctorSchedule;
+import com.example.doctor_patient_management_system.dto.OffDaySchedule;
+import com.example.doctor_patient_management_system.event.DoctorScheduleEvent;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorAvailabilityOverrideRepository;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class OffDayScheduleServiceImpl implements OffDayScheduleService {
+
+    // Blocks made on another node are picked up once a cached schedule is this old
+    private static final long SCHEDULE_TTL_MILLIS = 60 * 1000L;
+
+    private final DoctorRepository doctorRepository;
+    private final DoctorAvailabilityOverrideRepository doctorAvailabilityOverrideRepository;
+
+    private final Map<Long, OffDaySchedule> schedules = new ConcurrentHashMap<>();
+    // Bumped by invalidate(); a load that overlapped an invalidation is served but not cached
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    public OffDayScheduleServiceImpl(DoctorRepository doctorRepository,
+                                     DoctorAvailabilityOverrideRepository doctorAvailabilityOverrideRepository) {
+        this.doctorRepository = doctorRepository;
+        this.doctorAvailabilityOverrideRepository = doctorAvailabilityOverrideRepository;
+    }
+
+    @Override
+    public OffDaySchedule getSchedule(Long doctorId, LocalDate date) {
+        OffDaySchedule schedule = schedules.get(doctorId);
+        if (schedule != null && schedule.covers(date)
+                && System.currentTimeMillis() - schedule.getLoadedAt() < SCHEDULE_TTL_MILLIS) {
+            return schedule;
+        }
+
+        long generation = generations.getOrDefault(doctorId, 0L);
+        OffDaySchedule loaded = load(doctorId, date);
+        schedules.compute(doctorId, (id, current) ->
+                generations.getOrDefault(id, 0L) == generation ? loaded : current);
+        return loaded;
+    }
+
+    @Override
+    public boolean isOffDay(Long doctorId, LocalDate date) {
+        return getSchedule(doctorId, date).isOffDay(date);
+    }
+
+    @Override
+    public void invalidate(Long doctorId) {
+        generations.merge(doctorId, 1L, Long::sum);
+        schedules.remove(doctorId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleEvent(DoctorScheduleEvent event) {
+        invalidate(event.getDoctorId());
+    }
+
+    // The window spans the previous month to three months ahead of the requested date,
+    // enough for calendar navigation and the booking horizon with a single range query.
+    private OffDaySchedule load(Long doctorId, LocalDate date) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+
+        LocalDate windowStart = date.withDayOfMonth(1).minusMonths(1);
+        LocalDate windowEnd = date.withDayOfMonth(1).plusMonths(4).minusDays(1);
+
+        List<LocalDate> blocked = doctorAvailabilityOverrideRepository
+                .findBlockedDatesByDoctorIdAndDateBetween(doctorId, windowStart, windowEnd);
+
+        return new OffDaySchedule(doctorId, DoctorSchedule.parseOffDays(doctor.getOffDays()),
+                blocked, windowStart, windowEnd);
+    }
+}
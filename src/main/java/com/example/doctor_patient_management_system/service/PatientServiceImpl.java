@@ -23,19 +23,22 @@ public class PatientServiceImpl implements PatientService {
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
     private final ReviewRepository reviewRepository;
+    private final DoctorCapacityServiceImpl doctorCapacityService;
 
     public PatientServiceImpl(RabbitProducerServiceImpl rabbitProducerService,
                               AppointmentRepository appointmentRepository,
                               DoctorRepository doctorRepository,
                               PatientRepository patientRepository,
                               UserRepository userRepository,
-                              ReviewRepository reviewRepository) {
+                              ReviewRepository reviewRepository,
+                              DoctorCapacityServiceImpl doctorCapacityService) {
         this.rabbitProducerService = rabbitProducerService;
         this.appointmentRepository = appointmentRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.userRepository = userRepository;
         this.reviewRepository = reviewRepository;
+        this.doctorCapacityService = doctorCapacityService;
     }
 
     @Override
@@ -128,6 +131,7 @@ public class PatientServiceImpl implements PatientService {
         appointment.setStatus(AppointmentStatus.CONFIRMED);
 
         appointment = appointmentRepository.save(appointment);
+        doctorCapacityService.recordBooked(doctorId, appointmentDate);
 
         BookingMessage message = new BookingMessage();
         message.setAppointmentId(appointment.getId());
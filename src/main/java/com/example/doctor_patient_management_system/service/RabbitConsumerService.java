@@ -1,6 +1,7 @@
 package com.example.doctor_patient_management_system.service;
 
 import com.example.doctor_patient_management_system.dto.BookingMessage;
+import com.example.doctor_patient_management_system.dto.CancellationMessage;
 import com.example.doctor_patient_management_system.dto.RegistrationMessage;
 
 public interface RabbitConsumerService {
@@ -9,4 +10,6 @@ public interface RabbitConsumerService {
 
      void consumeRegistrationMessage(RegistrationMessage message);
 
+     void consumeCancellationMessage(CancellationMessage message);
+
 }
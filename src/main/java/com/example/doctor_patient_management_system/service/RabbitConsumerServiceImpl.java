@@ -2,6 +2,7 @@ package com.example.doctor_patient_management_system.service;
 
 import com.example.doctor_patient_management_system.config.RabbitConfig;
 import com.example.doctor_patient_management_system.dto.BookingMessage;
+import com.example.doctor_patient_management_system.dto.CancellationMessage;
 import com.example.doctor_patient_management_system.dto.RegistrationMessage;
 import com.example.doctor_patient_management_system.model.enumeration.Role;
 import org.slf4j.Logger;
@@ -51,6 +52,20 @@ public class RabbitConsumerServiceImpl implements RabbitConsumerService {
         }
     }
 
+    @Override
+    @RabbitListener(queues = RabbitConfig.CANCELLATION_QUEUE)
+    public void consumeCancellationMessage(CancellationMessage message) {
+        try {
+            log.info("Cancellation message received for appointment ID: {}", message.getAppointmentId());
+
+            sendCancellationEmail(message);
+
+            log.info("Cancellation message processed successfully");
+        } catch (Exception e) {
+            log.error("Error processing cancellation message: {}", e.getMessage(), e);
+        }
+    }
+
     private void sendBookingConfirmationEmail(BookingMessage message) {
         log.info("Sending booking confirmation email to patient: {}", message.getPatientEmail());
     }
@@ -59,6 +74,10 @@ public class RabbitConsumerServiceImpl implements RabbitConsumerService {
         log.info("Sending notification email to doctor: {}", message.getDoctorEmail());
     }
 
+    private void sendCancellationEmail(CancellationMessage message) {
+        log.info("Sending cancellation email to patient: {}", message.getPatientEmail());
+    }
+
     private void sendDoctorWelcomeEmail(RegistrationMessage message) {
         log.info("Sending welcome email to doctor: {}", message.getUserEmail());
     }
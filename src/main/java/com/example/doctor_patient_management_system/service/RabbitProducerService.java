@@ -1,13 +1,20 @@
 package com.example.doctor_patient_management_system.service;
 
 import com.example.doctor_patient_management_system.dto.BookingMessage;
+import com.example.doctor_patient_management_system.dto.CancellationMessage;
 import com.example.doctor_patient_management_system.dto.RegistrationMessage;
 import com.example.doctor_patient_management_system.model.MessageOutbox;
 
+import java.util.List;
+
 public interface RabbitProducerService {
 
      void saveBookingMessage(BookingMessage message);
 
+     void saveBookingMessages(List<BookingMessage> messages);
+
+     void saveCancellationMessages(List<CancellationMessage> messages);
+
      void saveRegistrationMessage(RegistrationMessage message);
 
      boolean sendToQueue(MessageOutbox outbox);
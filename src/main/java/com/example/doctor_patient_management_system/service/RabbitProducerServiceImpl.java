@@ -2,6 +2,7 @@ package com.example.doctor_patient_management_system.service;
 
 import com.example.doctor_patient_management_system.config.RabbitConfig;
 import com.example.doctor_patient_management_system.dto.BookingMessage;
+import com.example.doctor_patient_management_system.dto.CancellationMessage;
 import com.example.doctor_patient_management_system.dto.RegistrationMessage;
 import com.example.doctor_patient_management_system.model.MessageOutbox;
 import com.example.doctor_patient_management_system.repository.MessageOutboxRepository;
@@ -9,11 +10,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class RabbitProducerServiceImpl implements RabbitProducerService {
@@ -23,13 +28,16 @@ public class RabbitProducerServiceImpl implements RabbitProducerService {
     private final RabbitTemplate rabbitTemplate;
     private final MessageOutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
 
     public RabbitProducerServiceImpl(RabbitTemplate rabbitTemplate,
                                      MessageOutboxRepository outboxRepository,
-                                     ObjectMapper objectMapper) {
+                                     ObjectMapper objectMapper,
+                                     JdbcTemplate jdbcTemplate) {
         this.rabbitTemplate = rabbitTemplate;
         this.outboxRepository = outboxRepository;
         this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
 
@@ -52,6 +60,41 @@ public class RabbitProducerServiceImpl implements RabbitProducerService {
         }
     }
 
+    // Outbox rows for a bulk booking, written as one JDBC batch in the caller's transaction
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saveBookingMessages(List<BookingMessage> messages) {
+        saveBatch("BOOKING", RabbitConfig.BOOKING_ROUTING_KEY, messages);
+    }
+
+    // Patient notifications for appointments cancelled by a blocked day or range
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saveCancellationMessages(List<CancellationMessage> messages) {
+        saveBatch("CANCELLATION", RabbitConfig.CANCELLATION_ROUTING_KEY, messages);
+    }
+
+    private void saveBatch(String messageType, String routingKey, List<?> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>(messages.size());
+            for (Object message : messages) {
+                rows.add(new Object[]{messageType, objectMapper.writeValueAsString(message),
+                        routingKey, now, "PENDING", 0});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO message_outbox " +
+                    "(message_type, payload, routing_key, created_at, status, retry_count) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)", rows);
+            log.info("📦 {} {} messages saved to outbox", messages.size(), messageType);
+        } catch (Exception e) {
+            log.error("❌ Failed to save {} messages to outbox: {}", messageType, e.getMessage(), e);
+            throw new RuntimeException("Failed to save messages to outbox", e);
+        }
+    }
+
     //Save registration message to outbox
     @Override
     @Transactional(propagation = Propagation.MANDATORY)
@@ -83,6 +126,8 @@ public class RabbitProducerServiceImpl implements RabbitProducerService {
                 messageObject = objectMapper.readValue(outbox.getPayload(), RegistrationMessage.class);
             } else if ("BOOKING".equals(outbox.getMessageType())) {
                 messageObject = objectMapper.readValue(outbox.getPayload(), BookingMessage.class);
+            } else if ("CANCELLATION".equals(outbox.getMessageType())) {
+                messageObject = objectMapper.readValue(outbox.getPayload(), CancellationMessage.class);
             } else {
                 throw new IllegalArgumentException("Unknown message type");
             }
@@ -0,0 +1,17 @@
+package com.example.doctor_patient_management_system.service;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+public interface SlotHoldService {
+
+    // Expiry time in epoch millis when the hold was granted (or extended), or -1 if another patient holds it
+    long hold(Long doctorId, LocalDate date, int slotId, Long patientId);
+
+    boolean isHeldByOther(Long doctorId, LocalDate date, int slotId, Long patientId);
+
+    void release(Long doctorId, LocalDate date, int slotId, Long patientId);
+
+    BitSet getHeldSlots(Long doctorId, LocalDate date);
+
+}
@@ -0,0 +1,197 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.TimeSlot;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+
+// Short-lived checkout holds on (doctor, date, slot), kept in Redis so competing patients are turned away
+// before they reach Postgres. Per doctor-day there is a sorted set (slot -> expiry millis) and a hash
+// (slot -> patient id). Expired holds are ignored by every script and purged on the next write;
+// both keys expire shortly after their last hold would have. Expiry is measured on the Redis clock, so nodes
+// whose clocks drift apart still agree on when a hold ends.
+// Only a slot that could be booked right now can be held.
+// If Redis is unavailable holds are skipped and the unique index still prevents double booking.
+@Service
+public class SlotHoldServiceImpl implements SlotHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotHoldServiceImpl.class);
+
+    private static final RedisScript<Long> HOLD_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local expiresAt = now + tonumber(ARGV[3])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now)
+            local current = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            if current and redis.call('HGET', KEYS[2], ARGV[1]) ~= ARGV[2] then
+                return -1
+            end
+            redis.call('ZADD', KEYS[1], expiresAt, ARGV[1])
+            redis.call('HSET', KEYS[2], ARGV[1], ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[3]) * 2)
+            redis.call('PEXPIRE', KEYS[2], tonumber(ARGV[3]) * 2)
+            return expiresAt
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[2], ARGV[1]) == ARGV[2] then
+                redis.call('ZREM', KEYS[1], ARGV[1])
+                redis.call('HDEL', KEYS[2], ARGV[1])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> HELD_BY_OTHER_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local expiresAt = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            if expiresAt and tonumber(expiresAt) > now
+                    and redis.call('HGET', KEYS[2], ARGV[1]) ~= ARGV[2] then
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> HELD_SLOTS_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            return redis.call('ZRANGEBYSCORE', KEYS[1], '(' .. now, '+inf')
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final DoctorRepository doctorRepository;
+    private final SlotTemplateServiceImpl slotTemplateService;
+    private final OffDayScheduleServiceImpl offDayScheduleService;
+    private final SlotOccupancyServiceImpl slotOccupancyService;
+    private final long ttlMillis;
+
+    private final Counter acquired;
+    private final Counter rejected;
+    private final Counter released;
+
+    public SlotHoldServiceImpl(StringRedisTemplate redisTemplate,
+                               DoctorRepository doctorRepository,
+                               SlotTemplateServiceImpl slotTemplateService,
+                               OffDayScheduleServiceImpl offDayScheduleService,
+                               SlotOccupancyServiceImpl slotOccupancyService,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.slot-holds.ttl-seconds:120}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.doctorRepository = doctorRepository;
+        this.slotTemplateService = slotTemplateService;
+        this.offDayScheduleService = offDayScheduleService;
+        this.slotOccupancyService = slotOccupancyService;
+        this.ttlMillis = ttlSeconds * 1000L;
+
+        this.acquired = Counter.builder("slot.holds").tag("result", "acquired").register(meterRegistry);
+        this.rejected = Counter.builder("slot.holds").tag("result", "rejected").register(meterRegistry);
+        this.released = Counter.builder("slot.holds.released").register(meterRegistry);
+    }
+
+    @Override
+    public long hold(Long doctorId, LocalDate date, int slotId, Long patientId) {
+        checkBookable(doctorId, date, slotId);
+        try {
+            Long expiresAt = redisTemplate.execute(HOLD_SCRIPT, keys(doctorId, date),
+                    String.valueOf(slotId), String.valueOf(patientId), String.valueOf(ttlMillis));
+            if (expiresAt == null || expiresAt < 0) {
+                rejected.increment();
+                return -1;
+            }
+            acquired.increment();
+            return expiresAt;
+        } catch (Exception e) {
+            log.warn(" Slot hold skipped, Redis unavailable: {}", e.getMessage());
+            return System.currentTimeMillis() + ttlMillis;
+        }
+    }
+
+    @Override
+    public boolean isHeldByOther(Long doctorId, LocalDate date, int slotId, Long patientId) {
+        try {
+            Long held = redisTemplate.execute(HELD_BY_OTHER_SCRIPT, keys(doctorId, date),
+                    String.valueOf(slotId), String.valueOf(patientId));
+            if (held != null && held == 1) {
+                rejected.increment();
+                return true;
+            }
+            return false;
+        } catch (Exception e) {
+            log.warn(" Slot hold check skipped, Redis unavailable: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void release(Long doctorId, LocalDate date, int slotId, Long patientId) {
+        try {
+            Long removed = redisTemplate.execute(RELEASE_SCRIPT, keys(doctorId, date),
+                    String.valueOf(slotId), String.valueOf(patientId));
+            if (removed != null && removed == 1) {
+                released.increment();
+            }
+        } catch (Exception e) {
+            log.warn(" Slot hold release skipped, Redis unavailable: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public BitSet getHeldSlots(Long doctorId, LocalDate date) {
+        BitSet held = new BitSet();
+        try {
+            List<?> slotIds = redisTemplate.execute(HELD_SLOTS_SCRIPT, List.of(keys(doctorId, date).get(0)));
+            if (slotIds != null) {
+                for (Object slotId : slotIds) {
+                    held.set(Integer.parseInt(slotId.toString()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn(" Slot holds not read, Redis unavailable: {}", e.getMessage());
+        }
+        return held;
+    }
+
+    // The checks bookSlot makes, so a hold is never granted on a slot the booking would refuse
+    private void checkBookable(Long doctorId, LocalDate date, int slotId) {
+        if (date == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Appointment date is required");
+        }
+        if (date.isBefore(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot book a past date");
+        }
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Doctor not found with id: " + doctorId));
+        TimeSlot slot = slotTemplateService.getTemplate(doctor).getSlot(slotId);
+        if (slot == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Slot not available");
+        }
+        if (offDayScheduleService.isOffDay(doctorId, date)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Doctor is not available on this date");
+        }
+        if (slotOccupancyService.isBookedConfirmed(doctorId, date, slotId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Slot already booked");
+        }
+    }
+
+    private List<String> keys(Long doctorId, LocalDate date) {
+        // Hash tag keeps both keys in one cluster slot, as the scripts require
+        String suffix = "{" + doctorId + ":" + date + "}";
+        return List.of("slot-holds:" + suffix, "slot-holders:" + suffix);
+    }
+}
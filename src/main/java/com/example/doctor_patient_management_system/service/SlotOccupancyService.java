@@ -0,0 +1,24 @@
+package com.example.doctor_patient_management_system.service;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+public interface SlotOccupancyService {
+
+    BitSet getBookedSlots(Long doctorId, LocalDate date);
+
+    boolean isBooked(Long doctorId, LocalDate date, int slotId);
+
+    boolean isBookedConfirmed(Long doctorId, LocalDate date, int slotId);
+
+    int getBookedCount(Long doctorId, LocalDate date);
+
+    void preload(Long doctorId, LocalDate startDate, LocalDate endDate);
+
+    void markBooked(Long doctorId, LocalDate date, int slotId);
+
+    void markFreed(Long doctorId, LocalDate date, int slotId);
+
+    void invalidate(Long doctorId, LocalDate date);
+
+}
@@ -0,0 +1,214 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.event.AppointmentSlotEvent;
+import com.example.doctor_patient_management_system.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// In-memory (doctorId, date) -> booked slot bitmap.
+// Entries are bounded by an LRU limit and re-read from the database once they are older than the TTL,
+// which also picks up bookings made on other nodes.
+// Each day is updated on its own: entries are replaced copy-on-write under the map's per-key lock, and a
+// load only caches its result if no mutation of the same day happened while it queried.
+@Service
+public class SlotOccupancyServiceImpl implements SlotOccupancyService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<DayKey, DayEntry> entries = new ConcurrentHashMap<>();
+
+    // One token per load in flight; a mutation of the day withdraws it, so that load is served but not cached
+    private final Map<DayKey, Object> loads = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public SlotOccupancyServiceImpl(AppointmentRepository appointmentRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.occupancy.max-entries:20000}") int maxEntries,
+                                    @Value("${app.occupancy.ttl-seconds:30}") long ttlSeconds) {
+        this.appointmentRepository = appointmentRepository;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxEntries = maxEntries;
+
+        this.hits = Counter.builder("slot.occupancy.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("slot.occupancy.lookups").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("slot.occupancy.evictions").register(meterRegistry);
+        Gauge.builder("slot.occupancy.entries", entries, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public BitSet getBookedSlots(Long doctorId, LocalDate date) {
+        return (BitSet) bits(doctorId, date).clone();
+    }
+
+    @Override
+    public boolean isBooked(Long doctorId, LocalDate date, int slotId) {
+        return bits(doctorId, date).get(slotId);
+    }
+
+    // A hit may be a slot freed on another node within the TTL, so the day is re-read before the hit is trusted.
+    // Misses are not re-checked: a slot booked elsewhere is still refused by the unique index.
+    @Override
+    public boolean isBookedConfirmed(Long doctorId, LocalDate date, int slotId) {
+        if (!isBooked(doctorId, date, slotId)) {
+            return false;
+        }
+        invalidate(doctorId, date);
+        return isBooked(doctorId, date, slotId);
+    }
+
+    @Override
+    public int getBookedCount(Long doctorId, LocalDate date) {
+        return bits(doctorId, date).cardinality();
+    }
+
+    @Override
+    public void preload(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, BitSet> byDate = new HashMap<>();
+        Map<LocalDate, Object> tokens = new HashMap<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            byDate.put(date, new BitSet());
+            tokens.put(date, startLoad(new DayKey(doctorId, date)));
+        }
+        List<Object[]> rows = appointmentRepository
+                .findBookedSlotsByDoctorIdAndDateBetween(doctorId, startDate, endDate);
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                byDate.get((LocalDate) row[0]).set((Integer) row[1]);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        byDate.forEach((date, bits) -> finishLoad(new DayKey(doctorId, date), tokens.get(date), bits, now));
+        evictOverflow();
+    }
+
+    @Override
+    public void markBooked(Long doctorId, LocalDate date, int slotId) {
+        mutate(new DayKey(doctorId, date), bits -> bits.set(slotId));
+    }
+
+    @Override
+    public void markFreed(Long doctorId, LocalDate date, int slotId) {
+        mutate(new DayKey(doctorId, date), bits -> bits.clear(slotId));
+    }
+
+    @Override
+    public void invalidate(Long doctorId, LocalDate date) {
+        DayKey key = new DayKey(doctorId, date);
+        entries.compute(key, (k, entry) -> {
+            loads.remove(k);
+            return null;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotEvent(AppointmentSlotEvent event) {
+        if (event.getSlotId() == null) {
+            invalidate(event.getDoctorId(), event.getDate());
+        } else if (event.getType() == AppointmentSlotEvent.Type.BOOKED) {
+            markBooked(event.getDoctorId(), event.getDate(), event.getSlotId());
+        } else {
+            markFreed(event.getDoctorId(), event.getDate(), event.getSlotId());
+        }
+    }
+
+    // The cached bitmap itself, never modified once published
+    private BitSet bits(Long doctorId, LocalDate date) {
+        DayKey key = new DayKey(doctorId, date);
+        DayEntry entry = entries.get(key);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt < ttlMillis) {
+            hits.increment();
+            entry.lastUsed = System.nanoTime();
+            return entry.bits;
+        }
+
+        misses.increment();
+        Object token = startLoad(key);
+        BitSet bits = new BitSet();
+        for (Integer slotId : appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(doctorId, date)) {
+            if (slotId != null) {
+                bits.set(slotId);
+            }
+        }
+        finishLoad(key, token, bits, System.currentTimeMillis());
+        evictOverflow();
+        return bits;
+    }
+
+    private Object startLoad(DayKey key) {
+        Object token = new Object();
+        loads.put(key, token);
+        return token;
+    }
+
+    private void finishLoad(DayKey key, Object token, BitSet bits, long loadedAt) {
+        entries.compute(key, (k, current) -> loads.remove(k, token) ? new DayEntry(bits, loadedAt) : current);
+    }
+
+    private void mutate(DayKey key, Consumer<BitSet> change) {
+        entries.compute(key, (k, entry) -> {
+            loads.remove(k);
+            if (entry == null) {
+                return null;
+            }
+            BitSet bits = (BitSet) entry.bits.clone();
+            change.accept(bits);
+            return new DayEntry(bits, entry.loadedAt);
+        });
+    }
+
+    // Drops the least recently used entries, plus a tenth of the limit so the scan isn't repeated on every miss
+    private void evictOverflow() {
+        if (entries.size() <= maxEntries || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int excess = entries.size() - maxEntries;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<DayKey, DayEntry>> oldest = new ArrayList<>(entries.entrySet());
+            oldest.sort(Comparator.comparingLong(e -> e.getValue().lastUsed));
+            for (Map.Entry<DayKey, DayEntry> e : oldest.subList(0, Math.min(oldest.size(), excess + maxEntries / 10))) {
+                if (entries.remove(e.getKey(), e.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {}
+
+    private static final class DayEntry {
+        private final BitSet bits;
+        private final long loadedAt;
+        private volatile long lastUsed = System.nanoTime();
+
+        DayEntry(BitSet bits, long loadedAt) {
+            this.bits = bits;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
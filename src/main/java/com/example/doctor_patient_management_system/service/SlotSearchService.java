@@ -0,0 +1,12 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.SlotSearchResult;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SlotSearchService {
+
+    List<SlotSearchResult> findEarliestSlots(String speciality, LocalDate startDate, LocalDate endDate, int limit);
+
+}
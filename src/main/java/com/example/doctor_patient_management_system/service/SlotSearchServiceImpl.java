@@ -0,0 +1,148 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.AvailabilityWindow;
+import com.example.doctor_patient_management_system.dto.SlotSearchResult;
+import com.example.doctor_patient_management_system.dto.SlotTemplate;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Top-K earliest free (doctor, date, slot) tuples. Each doctor is a cursor over its free slots in time order,
+// and a priority queue merges the cursors. A cursor starts on its first day with free capacity
+// (from the availability window) keyed by the day's first slot, a lower bound; the day's booked slots are
+// only read when that cursor reaches the head of the queue, so doctors that cannot make the top K are never probed.
+@Service
+public class SlotSearchServiceImpl implements SlotSearchService {
+
+    public static final int MAX_LIMIT = 50;
+    public static final int MAX_DAYS = 60;
+
+    private static final Comparator<Cursor> EARLIEST_FIRST = Comparator
+            .comparing((Cursor c) -> c.date)
+            .thenComparingInt(c -> c.minutes)
+            .thenComparing(c -> c.doctor.getId());
+
+    private final DoctorRepository doctorRepository;
+    private final BatchAvailabilityServiceImpl batchAvailabilityService;
+    private final SlotTemplateServiceImpl slotTemplateService;
+    private final SlotOccupancyServiceImpl slotOccupancyService;
+
+    public SlotSearchServiceImpl(DoctorRepository doctorRepository,
+                                 BatchAvailabilityServiceImpl batchAvailabilityService,
+                                 SlotTemplateServiceImpl slotTemplateService,
+                                 SlotOccupancyServiceImpl slotOccupancyService) {
+        this.doctorRepository = doctorRepository;
+        this.batchAvailabilityService = batchAvailabilityService;
+        this.slotTemplateService = slotTemplateService;
+        this.slotOccupancyService = slotOccupancyService;
+    }
+
+    @Override
+    public List<SlotSearchResult> findEarliestSlots(String speciality, LocalDate startDate, LocalDate endDate, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        LocalDate today = LocalDate.now();
+        if (startDate.isBefore(today)) {
+            startDate = today;
+        }
+        if (endDate.isBefore(startDate)) {
+            return List.of();
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) + 1 > MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date range is limited to " + MAX_DAYS + " days");
+        }
+
+        List<Doctor> doctors = speciality == null || speciality.isBlank()
+                ? doctorRepository.findAll()
+                : doctorRepository.findBySpecialityIgnoreCase(speciality.trim());
+        AvailabilityWindow window = batchAvailabilityService.loadWindow(doctors, startDate, endDate);
+
+        // Slots that have already started today are not offered
+        int nowMinutes = LocalTime.now().toSecondOfDay() / 60;
+
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(doctors.size(), 1), EARLIEST_FIRST);
+        for (Doctor doctor : doctors) {
+            Cursor cursor = new Cursor(doctor, slotTemplateService.getTemplate(doctor));
+            if (cursor.moveToDay(window, startDate)) {
+                queue.add(cursor);
+            }
+        }
+
+        List<SlotSearchResult> results = new ArrayList<>(limit);
+        while (results.size() < limit && !queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+
+            if (cursor.booked == null) {
+                cursor.booked = slotOccupancyService.getBookedSlots(cursor.doctor.getId(), cursor.date);
+                cursor.slotId = 0;
+            } else {
+                Doctor doctor = cursor.doctor;
+                results.add(new SlotSearchResult(doctor.getId(), doctor.getDoctorName(), doctor.getSpeciality(),
+                        doctor.getConsultationFee(), cursor.date, cursor.template.getSlot(cursor.slotId)));
+            }
+
+            int cutoff = cursor.date.isEqual(today) ? nowMinutes : -1;
+            if (cursor.nextFreeSlot(cutoff) || cursor.moveToDay(window, cursor.date.plusDays(1))) {
+                queue.add(cursor);
+            }
+        }
+
+        return results;
+    }
+
+    private static final class Cursor {
+        private final Doctor doctor;
+        private final SlotTemplate template;
+
+        private LocalDate date;
+        private int minutes;
+        private int slotId;
+        // null until the day's bookings have been read; until then minutes is only a lower bound
+        private BitSet booked;
+
+        private Cursor(Doctor doctor, SlotTemplate template) {
+            this.doctor = doctor;
+            this.template = template;
+        }
+
+        // Positions on the first day from 'from' that still has free capacity
+        private boolean moveToDay(AvailabilityWindow window, LocalDate from) {
+            Long doctorId = doctor.getId();
+            for (LocalDate day = from; !day.isAfter(window.getEndDate()); day = day.plusDays(1)) {
+                if (window.hasFreeSlot(doctorId, day)) {
+                    date = day;
+                    minutes = template.getStartMinutes(1);
+                    slotId = 0;
+                    booked = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Advances to the next unbooked slot after the current one that starts after cutoffMinutes
+        private boolean nextFreeSlot(int cutoffMinutes) {
+            for (int id = slotId + 1; id <= template.size(); id++) {
+                if (!booked.get(id) && template.getStartMinutes(id) > cutoffMinutes) {
+                    slotId = id;
+                    minutes = template.getStartMinutes(id);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.SlotTemplate;
+import com.example.doctor_patient_management_system.model.Doctor;
+
+public interface SlotTemplateService {
+
+    SlotTemplate getTemplate(Long doctorId);
+
+    SlotTemplate getTemplate(Doctor doctor);
+
+    SlotTemplate compile(String consultationStartTime, String consultationEndTime);
+
+    void evict(Long doctorId);
+
+}
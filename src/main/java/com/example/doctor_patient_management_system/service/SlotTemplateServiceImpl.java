@@ -0,0 +1,143 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.SlotTemplate;
+import com.example.doctor_patient_management_system.dto.TimeSlot;
+import com.example.doctor_patient_management_system.event.DoctorScheduleEvent;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class SlotTemplateServiceImpl implements SlotTemplateService {
+
+    public static final int SLOT_DURATION_MINUTES = 20;
+
+    // Other nodes can change a doctor's hours, so per-doctor entries are re-checked after this long
+    private static final long DOCTOR_ENTRY_TTL_MILLIS = 5 * 60 * 1000L;
+
+    private final DoctorRepository doctorRepository;
+    private final Clock clock;
+
+    // (start, end, slot length) -> template, shared by every doctor with the same window
+    private final Map<String, SlotTemplate> templatesByWindow = new ConcurrentHashMap<>();
+    private final Map<Long, DoctorEntry> templatesByDoctor = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SlotTemplateServiceImpl(DoctorRepository doctorRepository) {
+        this(doctorRepository, Clock.systemUTC());
+    }
+
+    SlotTemplateServiceImpl(DoctorRepository doctorRepository, Clock clock) {
+        this.doctorRepository = doctorRepository;
+        this.clock = clock;
+    }
+
+    @Override
+    public SlotTemplate getTemplate(Long doctorId) {
+        long now = clock.millis();
+        DoctorEntry entry = templatesByDoctor.get(doctorId);
+        if (entry != null && now - entry.loadedAt < DOCTOR_ENTRY_TTL_MILLIS) {
+            return entry.template;
+        }
+
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found with id: " + doctorId));
+
+        SlotTemplate template = getTemplate(doctor);
+        templatesByDoctor.put(doctorId, new DoctorEntry(template, now));
+        return template;
+    }
+
+    @Override
+    public SlotTemplate getTemplate(Doctor doctor) {
+        return compile(doctor.getConsultationStartTime(), doctor.getConsultationEndTime());
+    }
+
+    @Override
+    public SlotTemplate compile(String consultationStartTime, String consultationEndTime) {
+        String key = consultationStartTime + "|" + consultationEndTime + "|" + SLOT_DURATION_MINUTES;
+        return templatesByWindow.computeIfAbsent(key,
+                k -> buildTemplate(consultationStartTime, consultationEndTime));
+    }
+
+    @Override
+    public void evict(Long doctorId) {
+        templatesByDoctor.remove(doctorId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleEvent(DoctorScheduleEvent event) {
+        if (event.getType() == DoctorScheduleEvent.Type.PROFILE_CHANGED) {
+            evict(event.getDoctorId());
+        }
+    }
+
+    private SlotTemplate buildTemplate(String startTimeStr, String endTimeStr) {
+        List<TimeSlot> slots = new ArrayList<>();
+        List<Integer> startMinutes = new ArrayList<>();
+        int slotId = 1;
+
+        try {
+            String[] startParts = startTimeStr.split(":");
+            String[] endParts = endTimeStr.split(":");
+
+            int currentMinutes = Integer.parseInt(startParts[0]) * 60 + Integer.parseInt(startParts[1]);
+            int endMinutes = Integer.parseInt(endParts[0]) * 60 + Integer.parseInt(endParts[1]);
+
+            int morning = 1;
+            int afternoon = 1;
+            int evening = 1;
+
+            while (currentMinutes + SLOT_DURATION_MINUTES <= endMinutes) {
+                int startHr = currentMinutes / 60;
+                int startMn = currentMinutes % 60;
+                int endHr = (currentMinutes + SLOT_DURATION_MINUTES) / 60;
+                int endMn = (currentMinutes + SLOT_DURATION_MINUTES) % 60;
+
+                String session = getSession(startHr);
+                int slotNumber;
+                if ("Morning".equals(session)) {
+                    slotNumber = morning++;
+                } else if ("Afternoon".equals(session)) {
+                    slotNumber = afternoon++;
+                } else {
+                    slotNumber = evening++;
+                }
+
+                slots.add(new TimeSlot(slotId++, session + " Slot " + slotNumber,
+                        formatTime(startHr, startMn), formatTime(endHr, endMn), session));
+                startMinutes.add(currentMinutes);
+
+                currentMinutes += SLOT_DURATION_MINUTES;
+            }
+
+        } catch (Exception e) {
+            return SlotTemplate.EMPTY;
+        }
+
+        return new SlotTemplate(slots.toArray(new TimeSlot[0]),
+                startMinutes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private String getSession(int hour) {
+        if (hour < 12) return "Morning";
+        if (hour < 17) return "Afternoon";
+        return "Evening";
+    }
+
+    private String formatTime(int h, int m) {
+        String period = h >= 12 ? "PM" : "AM";
+        int hour12 = h % 12 == 0 ? 12 : h % 12;
+        return String.format("%02d:%02d %s", hour12, m, period);
+    }
+
+    private record DoctorEntry(SlotTemplate template, long loadedAt) {}
+}
@@ -0,0 +1,14 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.SlotUpdateMessage;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+
+public interface SlotUpdateBroadcaster {
+
+    SseEmitter subscribe(Long doctorId, LocalDate date);
+
+    void publish(SlotUpdateMessage message);
+
+}
@@ -0,0 +1,198 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.SlotUpdateMessage;
+import com.example.doctor_patient_management_system.event.AppointmentSlotEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pushes slot-taken / slot-freed deltas to SSE subscribers of a (doctor, date).
+// Committed slot events are delivered to local subscribers directly and published on a Redis channel;
+// other nodes deliver what they receive from the channel and skip their own messages.
+@Service
+public class SlotUpdateBroadcasterImpl implements SlotUpdateBroadcaster, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotUpdateBroadcasterImpl.class);
+
+    public static final String CHANNEL = "slot-updates";
+
+    private static final long EMITTER_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final int maxConnections;
+
+    private final Map<DayKey, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+
+    // Keeps fan-out off the committing request thread and preserves event order
+    private final ExecutorService fanOut = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "slot-updates");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Timer broadcastLatency;
+    private final Counter delivered;
+
+    public SlotUpdateBroadcasterImpl(RedisTemplate<String, Object> redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.slot-updates.max-connections:10000}") int maxConnections) {
+        this.redisTemplate = redisTemplate;
+        this.maxConnections = maxConnections;
+
+        this.broadcastLatency = Timer.builder("slot.updates.broadcast.latency")
+                .description("Time from the slot change to delivery to local subscribers")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("slot.updates.delivered").register(meterRegistry);
+        Gauge.builder("slot.updates.connections", connections, AtomicInteger::get).register(meterRegistry);
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdown();
+    }
+
+    @Override
+    public SseEmitter subscribe(Long doctorId, LocalDate date) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live slot subscriptions");
+        }
+
+        DayKey key = new DayKey(doctorId, date);
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        subscribers.compute(key, (k, emitters) -> {
+            Set<SseEmitter> set = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            set.add(emitter);
+            return set;
+        });
+
+        Runnable remove = () -> unsubscribe(key, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    @Override
+    public void publish(SlotUpdateMessage message) {
+        fanOut.execute(() -> deliver(message));
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            // Local subscribers already have it; other nodes fall back to their slot polling
+            log.warn(" Failed to publish slot update to Redis: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotEvent(AppointmentSlotEvent event) {
+        if (event.getSlotId() == null) {
+            return;
+        }
+        String type = event.getType() == AppointmentSlotEvent.Type.BOOKED ? "TAKEN" : "FREED";
+        publish(new SlotUpdateMessage(type, event.getDoctorId(), event.getDate(), event.getSlotId(),
+                event.getOccurredAt(), nodeId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (body instanceof SlotUpdateMessage update && !nodeId.equals(update.getOrigin())) {
+            fanOut.execute(() -> deliver(update));
+        }
+    }
+
+    // Comment frames keep proxies from closing idle streams and flush out dead connections.
+    // Sent on the fan-out thread so slow clients never hold up the shared scheduler; a round is skipped
+    // while the previous one is still queued or sending.
+    @Scheduled(fixedDelay = 25000)
+    public void heartbeat() {
+        if (heartbeatPending.compareAndSet(false, true)) {
+            fanOut.execute(() -> {
+                try {
+                    sendHeartbeats();
+                } finally {
+                    heartbeatPending.set(false);
+                }
+            });
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.forEach((key, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(key, emitter);
+                }
+            }
+        });
+    }
+
+    private void deliver(SlotUpdateMessage message) {
+        DayKey key = new DayKey(message.getDoctorId(), message.getDate());
+        Set<SseEmitter> emitters = subscribers.get(key);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("slot")
+                        .data(message, MediaType.APPLICATION_JSON));
+                delivered.increment();
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(key, emitter);
+            }
+        }
+        broadcastLatency.record(System.currentTimeMillis() - message.getPublishedAt(), TimeUnit.MILLISECONDS);
+    }
+
+    private void unsubscribe(DayKey key, SseEmitter emitter) {
+        subscribers.computeIfPresent(key, (k, emitters) -> {
+            if (emitters.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {}
+}
@@ -0,0 +1,11 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.UserPurgeStatus;
+
+public interface UserPurgeService {
+
+    UserPurgeStatus start(Long userId);
+
+    UserPurgeStatus getStatus(String jobId);
+
+}
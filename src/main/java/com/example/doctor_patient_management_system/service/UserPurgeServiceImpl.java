@@ -0,0 +1,356 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.UserPurgeStatus;
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.model.enumeration.Role;
+import com.example.doctor_patient_management_system.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Deletes a user with their appointments, prescriptions, reviews, outbox messages and profile using set-based SQL.
+// Users with at most one chunk of appointments are deleted on the request thread. Larger ones are queued
+// to a background thread that deletes appointments chunk by chunk, each in its own short transaction,
+// before the final transaction removes what is left. Unsent outbox messages go in the same transaction as
+// the appointments they name. Appointments archived by AppointmentPartitionServiceImpl, with their prescriptions
+// and reviews, go in the final transaction. Job progress is kept in Redis so any node can report it; when Redis
+// is down the deletion still runs, untracked, and only its status is lost.
+@Service
+public class UserPurgeServiceImpl implements UserPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPurgeServiceImpl.class);
+
+    private static final String JOB_KEY_PREFIX = "user-purge:job:";
+    private static final String USER_KEY_PREFIX = "user-purge:user:";
+
+    // A RUNNING job not updated for this long is assumed lost (node restart) and may be started again.
+    // QUEUED jobs are not timed out: they can wait behind a long purge without updating.
+    private static final long STALE_JOB_MILLIS = 10 * 60 * 1000L;
+
+    // Outbox payloads are read as text, so a malformed one simply doesn't match instead of failing the purge
+    private static final String PAYLOAD_APPOINTMENT_ID = "substring(payload from '\"appointmentId\"\\s*:\\s*\"?([0-9]+)')";
+    private static final String PAYLOAD_USER_EMAIL = "substring(payload from '\"userEmail\"\\s*:\\s*\"([^\"]*)\"')";
+    private static final String UNSENT_MESSAGES = "DELETE FROM message_outbox WHERE status <> 'SENT' AND ";
+
+    private static final RowMapper<DeletedRow> DELETED_ROW_MAPPER = (rs, rowNum) -> new DeletedRow(
+            rs.getLong("doctor_id"), rs.getObject("appointment_date", LocalDate.class), rs.getString("status"));
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final DoctorCapacityServiceImpl doctorCapacityService;
+    private final SlotOccupancyServiceImpl slotOccupancyService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+    private final Duration statusTtl;
+
+    private final Counter deletedAppointments;
+    private final Timer runs;
+
+    public UserPurgeServiceImpl(UserRepository userRepository,
+                                JdbcTemplate jdbcTemplate,
+                                StringRedisTemplate redisTemplate,
+                                DoctorCapacityServiceImpl doctorCapacityService,
+                                SlotOccupancyServiceImpl slotOccupancyService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.purge.chunk-size:500}") int chunkSize,
+                                @Value("${app.purge.queue-capacity:100}") int queueCapacity,
+                                @Value("${app.purge.status-ttl-hours:24}") long statusTtlHours) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.doctorCapacityService = doctorCapacityService;
+        this.slotOccupancyService = slotOccupancyService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.statusTtl = Duration.ofHours(statusTtlHours);
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> new Thread(r, "user-purge"));
+
+        this.deletedAppointments = Counter.builder("user.purge.appointments").register(meterRegistry);
+        this.runs = Timer.builder("user.purge.run").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public UserPurgeStatus start(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
+        Role role = user.getRole();
+
+        String jobId = UUID.randomUUID().toString();
+        String userKey = USER_KEY_PREFIX + userId;
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(userKey, jobId, statusTtl))) {
+                UserPurgeStatus existing = getStatus(redisTemplate.opsForValue().get(userKey));
+                if (existing != null && !isOver(existing)) {
+                    return existing;
+                }
+                redisTemplate.opsForValue().set(userKey, jobId, statusTtl);
+            }
+        } catch (Exception e) {
+            // Without the per-user key a second request may start another job; the deletes are set-based,
+            // so it finds nothing left to delete rather than failing
+            log.warn(" Deleting user {} without job tracking, Redis unavailable: {}", userId, e.getMessage());
+        }
+
+        long total = role == Role.ADMIN ? 0 : jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM appointments WHERE " + ownerColumn(role) + " = ?", Long.class, userId);
+        long now = System.currentTimeMillis();
+        UserPurgeStatus job = new UserPurgeStatus(jobId, userId, user.getEmail(), role.name(),
+                UserPurgeStatus.State.QUEUED, total, 0, now, now, null);
+        save(job);
+
+        if (total <= chunkSize) {
+            run(job);
+            return job;
+        }
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            fail(job, "Too many deletions in progress, please retry");
+        }
+        return job;
+    }
+
+    @Override
+    public UserPurgeStatus getStatus(String jobId) {
+        if (jobId == null) {
+            return null;
+        }
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(JOB_KEY_PREFIX + jobId);
+        if (fields.isEmpty()) {
+            return null;
+        }
+        return new UserPurgeStatus(jobId,
+                Long.valueOf((String) fields.get("userId")),
+                (String) fields.get("email"),
+                (String) fields.get("role"),
+                UserPurgeStatus.State.valueOf((String) fields.get("state")),
+                Long.parseLong((String) fields.get("totalAppointments")),
+                Long.parseLong((String) fields.get("deletedAppointments")),
+                Long.parseLong((String) fields.get("startedAt")),
+                Long.parseLong((String) fields.get("updatedAt")),
+                (String) fields.get("error"));
+    }
+
+    private void run(UserPurgeStatus job) {
+        Timer.Sample sample = Timer.start();
+        Long userId = job.getUserId();
+        Role role = Role.valueOf(job.getRole());
+        try {
+            job.setState(UserPurgeStatus.State.RUNNING);
+            save(job);
+
+            if (job.getTotalAppointments() > chunkSize) {
+                while (true) {
+                    Map<DayKey, Integer> freed = new HashMap<>();
+                    Integer deleted = transactionTemplate.execute(status -> deleteChunk(userId, role, freed));
+                    afterDelete(deleted, freed, job);
+                    if (deleted < chunkSize) {
+                        break;
+                    }
+                }
+            }
+
+            Map<DayKey, Integer> freed = new HashMap<>();
+            Integer deleted = transactionTemplate.execute(status -> deleteRemaining(userId, role, job.getEmail(), freed));
+            afterDelete(deleted, freed, job);
+
+            job.setState(UserPurgeStatus.State.COMPLETED);
+            save(job);
+            releaseUser(userId);
+            log.info(" Deleted user {} ({}) with {} appointments", job.getEmail(), role, job.getDeletedAppointments());
+        } catch (Exception e) {
+            log.error(" Deleting user {} failed: {}", userId, e.getMessage(), e);
+            fail(job, e.getMessage());
+        } finally {
+            sample.stop(runs);
+        }
+    }
+
+    private int deleteChunk(Long userId, Role role, Map<DayKey, Integer> freed) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM appointments WHERE " + ownerColumn(role)
+                + " = ? ORDER BY id LIMIT ?", Long.class, userId, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Object[] idArray = ids.toArray();
+        Object[] idTexts = ids.stream().map(String::valueOf).toArray();
+        jdbcTemplate.update(UNSENT_MESSAGES + "message_type IN ('BOOKING', 'CANCELLATION') AND "
+                        + PAYLOAD_APPOINTMENT_ID + " = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", idTexts)));
+        jdbcTemplate.update("DELETE FROM prescriptions WHERE appointment_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", idArray)));
+        jdbcTemplate.update("DELETE FROM reviews WHERE appointment_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", idArray)));
+        List<DeletedRow> rows = jdbcTemplate.query(
+                "DELETE FROM appointments WHERE id = ANY(?) RETURNING doctor_id, appointment_date, status",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", idArray)), DELETED_ROW_MAPPER);
+        collectFreed(role, rows, freed);
+        recordFreed(role, freed);
+        return ids.size();
+    }
+
+    // Whatever the chunks left (or everything, for small users), then the profile and the user row
+    private int deleteRemaining(Long userId, Role role, String email, Map<DayKey, Integer> freed) {
+        int deleted = 0;
+        jdbcTemplate.update(UNSENT_MESSAGES + "message_type = 'REGISTRATION' AND " + PAYLOAD_USER_EMAIL + " = ?", email);
+        if (role != Role.ADMIN) {
+            String owned = "SELECT id FROM appointments WHERE " + ownerColumn(role) + " = ?";
+            jdbcTemplate.update(UNSENT_MESSAGES + "message_type IN ('BOOKING', 'CANCELLATION') AND "
+                    + PAYLOAD_APPOINTMENT_ID + " IN (SELECT id::text FROM appointments WHERE "
+                    + ownerColumn(role) + " = ?)", userId);
+            jdbcTemplate.update("DELETE FROM prescriptions WHERE appointment_id IN (" + owned + ")", userId);
+            jdbcTemplate.update("DELETE FROM reviews WHERE appointment_id IN (" + owned + ")", userId);
+            List<DeletedRow> rows = jdbcTemplate.query("DELETE FROM appointments WHERE " + ownerColumn(role)
+                    + " = ? RETURNING doctor_id, appointment_date, status", DELETED_ROW_MAPPER, userId);
+            collectFreed(role, rows, freed);
+            deleted = rows.size();
+            recordFreed(role, freed);
+            deleteArchived(userId, role);
+        }
+
+        if (role == Role.DOCTOR) {
+            jdbcTemplate.update("DELETE FROM doctor_availability_overrides WHERE doctor_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM doctor_availability WHERE doctor_id = ?", userId);
+            doctorCapacityService.removeDoctor(userId);
+            jdbcTemplate.update("DELETE FROM doctors WHERE id = ?", userId);
+        } else if (role == Role.PATIENT) {
+            jdbcTemplate.update("DELETE FROM patients_info WHERE id = ?", userId);
+        }
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        return deleted;
+    }
+
+    // Archived months are past retention, so their appointments hold no capacity or occupancy to give back
+    private void deleteArchived(Long userId, Role role) {
+        String archive = AppointmentPartitionServiceImpl.ARCHIVE_SCHEMA + ".";
+        if (!tableExists(archive + "appointments")) {
+            return;
+        }
+        String owned = "SELECT id FROM " + archive + "appointments WHERE " + ownerColumn(role) + " = ?";
+        for (String table : List.of("prescriptions", "reviews")) {
+            if (tableExists(archive + table)) {
+                jdbcTemplate.update("DELETE FROM " + archive + table + " WHERE appointment_id IN (" + owned + ")", userId);
+            }
+        }
+        int archived = jdbcTemplate.update("DELETE FROM " + archive + "appointments WHERE " + ownerColumn(role)
+                + " = ?", userId);
+        if (archived > 0) {
+            log.info(" Deleted {} archived appointments of user {}", archived, userId);
+        }
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    // A deleted patient's confirmed bookings give the slots back; a deleted doctor's capacity rows go with them
+    private void collectFreed(Role role, List<DeletedRow> rows, Map<DayKey, Integer> freed) {
+        if (role != Role.PATIENT) {
+            return;
+        }
+        for (DeletedRow row : rows) {
+            if ("CONFIRMED".equals(row.status)) {
+                freed.merge(new DayKey(row.doctorId, row.date), 1, Integer::sum);
+            }
+        }
+    }
+
+    private void recordFreed(Role role, Map<DayKey, Integer> freed) {
+        if (role == Role.PATIENT) {
+            freed.forEach((day, count) -> doctorCapacityService.recordFreed(day.doctorId, day.date, count));
+        }
+    }
+
+    // Runs after commit: progress, metrics and occupancy for the freed days
+    private void afterDelete(Integer deleted, Map<DayKey, Integer> freed, UserPurgeStatus job) {
+        int count = deleted != null ? deleted : 0;
+        freed.keySet().forEach(day -> slotOccupancyService.invalidate(day.doctorId, day.date));
+        deletedAppointments.increment(count);
+        job.setDeletedAppointments(job.getDeletedAppointments() + count);
+        save(job);
+    }
+
+    private void fail(UserPurgeStatus job, String error) {
+        job.setState(UserPurgeStatus.State.FAILED);
+        job.setError(error);
+        save(job);
+        releaseUser(job.getUserId());
+    }
+
+    private void releaseUser(Long userId) {
+        try {
+            redisTemplate.delete(USER_KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.warn(" Could not release purge key of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private boolean isOver(UserPurgeStatus job) {
+        return job.getState() == UserPurgeStatus.State.FAILED
+                || job.getState() == UserPurgeStatus.State.COMPLETED
+                || (job.getState() == UserPurgeStatus.State.RUNNING
+                        && System.currentTimeMillis() - job.getUpdatedAt() > STALE_JOB_MILLIS);
+    }
+
+    private void save(UserPurgeStatus job) {
+        job.setUpdatedAt(System.currentTimeMillis());
+        Map<String, String> fields = new HashMap<>();
+        fields.put("userId", job.getUserId().toString());
+        fields.put("email", job.getEmail());
+        fields.put("role", job.getRole());
+        fields.put("state", job.getState().name());
+        fields.put("totalAppointments", Long.toString(job.getTotalAppointments()));
+        fields.put("deletedAppointments", Long.toString(job.getDeletedAppointments()));
+        fields.put("startedAt", Long.toString(job.getStartedAt()));
+        fields.put("updatedAt", Long.toString(job.getUpdatedAt()));
+        if (job.getError() != null) {
+            fields.put("error", job.getError());
+        }
+        String key = JOB_KEY_PREFIX + job.getJobId();
+        // Progress is best effort: a Redis outage must not fail a deletion half way through
+        try {
+            redisTemplate.opsForHash().putAll(key, fields);
+            redisTemplate.expire(key, statusTtl);
+        } catch (Exception e) {
+            log.warn(" Could not record purge {} as {}: {}", job.getJobId(), job.getState(), e.getMessage());
+        }
+    }
+
+    private String ownerColumn(Role role) {
+        return role == Role.DOCTOR ? "doctor_id" : "patient_id";
+    }
+
+    private record DeletedRow(long doctorId, LocalDate date, String status) {}
+
+    private record DayKey(long doctorId, LocalDate date) {}
+}
@@ -0,0 +1,98 @@
+package com.example.doctor_patient_management_system;
+
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.model.enumeration.Role;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import com.example.doctor_patient_management_system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.lifecycle.Startables;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Boots the application against throwaway PostgreSQL and Redis containers; skipped when Docker is not available.
+// The containers are started once per JVM and shared by every subclass, like the cached Spring context.
+// RabbitMQ is not started: tests check the outbox table, and the listeners stay off.
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO"
+})
+public abstract class AbstractIntegrationTests {
+
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void services(DynamicPropertyRegistry registry) {
+        Startables.deepStart(postgres, redis).join();
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected DoctorRepository doctorRepository;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    // Works every day of the week, 20-minute slots from 09:00 to 17:00
+    protected Doctor createDoctor() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User user = userRepository.save(new User(uniqueEmail("doctor"), "secret", Role.DOCTOR));
+            return doctorRepository.save(new Doctor(user, "Dr. Test", "Cardiology", user.getEmail(), "MBBS",
+                    "09:00", "17:00", "Dhaka", "01712345678", 500, null));
+        });
+    }
+
+    protected User createPatient() {
+        return userRepository.save(new User(uniqueEmail("patient"), "secret", Role.PATIENT));
+    }
+
+    protected List<User> createPatients(int count) {
+        List<User> patients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            patients.add(new User(uniqueEmail("patient"), "secret", Role.PATIENT));
+        }
+        return userRepository.saveAll(patients);
+    }
+
+    protected long countConfirmed(Long doctorId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM appointments WHERE doctor_id = ? AND status = 'CONFIRMED'", Long.class, doctorId);
+    }
+
+    protected long countBookingMessages(Long appointmentId) {
+        // Matched as text so another test's malformed payload can't fail the query
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM message_outbox WHERE message_type = 'BOOKING'"
+                        + " AND substring(payload from '\"appointmentId\"\\s*:\\s*([0-9]+)') = ?",
+                Long.class, String.valueOf(appointmentId));
+    }
+
+    private static String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@example.com";
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.doctor_patient_management_system;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+// A clock that only moves when a test advances it
+public class TestClock extends Clock {
+
+    private Instant now;
+
+    public TestClock() {
+        this(Instant.parse("2026-10-18T10:00:30Z"));
+    }
+
+    public TestClock(Instant now) {
+        this.now = now;
+    }
+
+    public void advance(Duration duration) {
+        now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.doctor_patient_management_system.config;
+
+import com.example.doctor_patient_management_system.AbstractIntegrationTests;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.service.AppointmentServiceImpl;
+import com.example.doctor_patient_management_system.service.DoctorCalendarServiceImpl;
+import com.example.doctor_patient_management_system.service.DoctorCapacityServiceImpl;
+import com.example.doctor_patient_management_system.service.RabbitProducerServiceImpl;
+import com.example.doctor_patient_management_system.service.SlotOccupancyServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DatabaseIndexConfigTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private DoctorCapacityServiceImpl doctorCapacityService;
+
+    @Autowired
+    private RabbitProducerServiceImpl rabbitProducerService;
+
+    private final SlotOccupancyServiceImpl slotOccupancyService = mock(SlotOccupancyServiceImpl.class);
+    private final DoctorCalendarServiceImpl doctorCalendarService = mock(DoctorCalendarServiceImpl.class);
+
+    @Test
+    void duplicateConfirmedBookingsAreCancelledBeforeTheIndexIsCreated() {
+        jdbcTemplate.execute("DROP INDEX " + AppointmentServiceImpl.CONFIRMED_SLOT_INDEX);
+        Doctor doctor = createDoctor();
+        LocalDate date = LocalDate.now().plusDays(5);
+        long kept = insertConfirmed(doctor, createPatient(), 1, date);
+        long duplicate = insertConfirmed(doctor, createPatient(), 1, date);
+        long otherSlot = insertConfirmed(doctor, createPatient(), 2, date);
+
+        DatabaseIndexConfig.createConfirmedSlotIndex(jdbcTemplate, new TransactionTemplate(transactionManager),
+                doctorCapacityService, rabbitProducerService, slotOccupancyService, doctorCalendarService);
+
+        assertThat(status(kept)).isEqualTo("CONFIRMED");
+        assertThat(status(duplicate)).isEqualTo("CANCELLED");
+        assertThat(status(otherSlot)).isEqualTo("CONFIRMED");
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+                AppointmentServiceImpl.CONFIRMED_SLOT_INDEX)).isNotNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT booked_count FROM doctor_day_capacity WHERE doctor_id = ? AND capacity_date = ?",
+                Integer.class, doctor.getId(), date)).isEqualTo(2);
+
+        assertThat(countCancellationMessages(duplicate)).isEqualTo(1);
+        assertThat(countCancellationMessages(kept)).isZero();
+        verify(slotOccupancyService).invalidate(doctor.getId(), date);
+        verify(doctorCalendarService).evict(doctor.getId(), YearMonth.from(date));
+    }
+
+    @Test
+    void failureToCreateTheIndexFailsStartup() {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        when(failing.queryForObject(anyString(), eq(String.class), any(Object[].class))).thenReturn(null);
+        doThrow(new IllegalStateException("could not create unique index"))
+                .when(failing).execute(startsWith("CREATE UNIQUE INDEX"));
+        DoctorCapacityServiceImpl capacity = mock(DoctorCapacityServiceImpl.class);
+
+        assertThatThrownBy(() -> DatabaseIndexConfig.createConfirmedSlotIndex(failing,
+                new TransactionTemplate(transactionManager), capacity, rabbitProducerService,
+                slotOccupancyService, doctorCalendarService))
+                .hasMessageContaining("could not create unique index");
+        verify(capacity, never()).rebuild(any());
+        verify(slotOccupancyService, never()).invalidate(any(), any());
+    }
+
+    private long insertConfirmed(Doctor doctor, User patient, int slotId, LocalDate date) {
+        return jdbcTemplate.queryForObject("INSERT INTO appointments (doctor_id, patient_id, slot_id,"
+                        + " appointment_date, appointment_time, status) VALUES (?, ?, ?, ?, '09:00 AM - 09:20 AM',"
+                        + " 'CONFIRMED') RETURNING id",
+                Long.class, doctor.getId(), patient.getId(), slotId, date);
+    }
+
+    private long countCancellationMessages(long appointmentId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM message_outbox WHERE message_type = 'CANCELLATION'"
+                        + " AND substring(payload from '\"appointmentId\"\\s*:\\s*([0-9]+)') = ?",
+                Long.class, String.valueOf(appointmentId));
+    }
+
+    private String status(long appointmentId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM appointments WHERE id = ?", String.class, appointmentId);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.doctor_patient_management_system.config;
+
+import com.example.doctor_patient_management_system.service.AppointmentPartitionServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PartitioningConfigTests {
+
+    @Test
+    void failedMigrationStopsStartupWhenPartitioningIsEnabled() {
+        AppointmentPartitionServiceImpl partitionService = mock(AppointmentPartitionServiceImpl.class);
+        when(partitionService.isEnabled()).thenReturn(true);
+        doThrow(new IllegalStateException("lock timeout")).when(partitionService).migrateIfNeeded();
+
+        assertThatThrownBy(() -> new PartitioningConfig().partitionAppointments(partitionService).run())
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("lock timeout");
+        verify(partitionService, never()).ensurePartitions();
+    }
+
+    @Test
+    void nothingRunsWhenPartitioningIsDisabled() throws Exception {
+        AppointmentPartitionServiceImpl partitionService = mock(AppointmentPartitionServiceImpl.class);
+
+        new PartitioningConfig().partitionAppointments(partitionService).run();
+
+        verify(partitionService, never()).migrateIfNeeded();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.doctor_patient_management_system.controller;
+
+import com.example.doctor_patient_management_system.dto.BookAppointmentRequest;
+import com.example.doctor_patient_management_system.dto.BookAppointmentResponse;
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.model.enumeration.Role;
+import com.example.doctor_patient_management_system.security.JwtUtil;
+import com.example.doctor_patient_management_system.security.UserPrincipal;
+import com.example.doctor_patient_management_system.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorControllerBookingTests {
+
+    private static final Long DOCTOR_ID = 7L;
+
+    private BookingDispatcherImpl bookingDispatcher;
+    private DoctorController controller;
+    private Authentication patient;
+    private final BookAppointmentRequest request = new BookAppointmentRequest(3, LocalDate.now().plusDays(2));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bookingDispatcher = mock(BookingDispatcherImpl.class);
+
+        // Redis is empty and never answers, so the idempotency store runs on its local map
+        ValueOperations<String, Object> values = mock(ValueOperations.class);
+        when(values.setIfAbsent(anyString(), any(), any())).thenReturn(true);
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        IdempotencyServiceImpl idempotencyService =
+                new IdempotencyServiceImpl(redisTemplate, new SimpleMeterRegistry(), 3600, 100, 1);
+
+        controller = new DoctorController(mock(DoctorServiceImpl.class), mock(UserServiceImpl.class),
+                mock(JwtUtil.class), mock(PatientServiceImpl.class), mock(RabbitProducerServiceImpl.class),
+                mock(PrescriptionServiceImpl.class), mock(AppointmentServiceImpl.class),
+                mock(DoctorCalendarServiceImpl.class), mock(DoctorSlotServiceImpl.class),
+                mock(CalendarBatchServiceImpl.class), mock(SlotUpdateBroadcasterImpl.class),
+                mock(SlotSearchServiceImpl.class), mock(SlotHoldServiceImpl.class), bookingDispatcher,
+                idempotencyService, mock(BulkBookingServiceImpl.class));
+
+        User user = new User("patient@example.com", "secret", Role.PATIENT);
+        user.setId(42L);
+        patient = new UsernamePasswordAuthenticationToken(new UserPrincipal(user), null);
+    }
+
+    private void dispatcherReturns(CompletableFuture<Appointment> first, CompletableFuture<Appointment> second) {
+        when(bookingDispatcher.submit(anyLong(), any(), anyInt(), any())).thenReturn(first, second);
+    }
+
+    private static CompletableFuture<Appointment> booked(long appointmentId) {
+        Appointment appointment = new Appointment();
+        appointment.setId(appointmentId);
+        return CompletableFuture.completedFuture(appointment);
+    }
+
+    private ResponseEntity<BookAppointmentResponse> book(String idempotencyKey) {
+        return controller.bookAppointmentAPI(DOCTOR_ID, request, idempotencyKey, patient);
+    }
+
+    @Test
+    void unexpectedFailureIsAServerErrorAndIsNotReplayed() {
+        dispatcherReturns(CompletableFuture.failedFuture(new IllegalStateException("connection refused")), booked(5));
+
+        ResponseEntity<BookAppointmentResponse> failed = book("retry-me");
+        ResponseEntity<BookAppointmentResponse> retried = book("retry-me");
+
+        assertThat(failed.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(failed.getBody().getError()).doesNotContain("connection refused");
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retried.getBody().getAppointmentId()).isEqualTo(5L);
+    }
+
+    @Test
+    void refusalKeepsItsStatusAndIsReplayed() {
+        dispatcherReturns(CompletableFuture.failedFuture(
+                new ResponseStatusException(HttpStatus.CONFLICT, "Slot already booked")), booked(5));
+
+        assertThat(book("conflict").getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(book("conflict").getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        verify(bookingDispatcher, times(1)).submit(anyLong(), any(), anyInt(), any());
+    }
+
+    @Test
+    void retryAfterATimeoutGetsTheBookingThatCommitted() {
+        CompletableFuture<Appointment> queued = new CompletableFuture<>();
+        dispatcherReturns(queued, booked(99));
+
+        ResponseEntity<BookAppointmentResponse> timedOut = book("slow");
+        queued.complete(booked(8).join());
+        ResponseEntity<BookAppointmentResponse> retried = book("slow");
+
+        assertThat(timedOut.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retried.getBody().getAppointmentId()).isEqualTo(8L);
+        verify(bookingDispatcher, times(1)).submit(anyLong(), any(), anyInt(), any());
+    }
+
+    @Test
+    void unexpectedFailureWithoutAKeyIsAServerError() {
+        dispatcherReturns(CompletableFuture.failedFuture(new IllegalStateException("boom")), booked(5));
+
+        assertThat(book(null).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void holdWithoutADateIsABadRequest() {
+        BookAppointmentRequest undated = new BookAppointmentRequest(3, null);
+
+        assertThat(controller.holdSlot(DOCTOR_ID, undated, (UserPrincipal) patient.getPrincipal()).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
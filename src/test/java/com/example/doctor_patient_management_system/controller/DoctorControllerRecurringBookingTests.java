@@ -0,0 +1,66 @@
+package com.example.doctor_patient_management_system.controller;
+
+import com.example.doctor_patient_management_system.AbstractIntegrationTests;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class DoctorControllerRecurringBookingTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private void bookRecurring(Doctor doctor, User patient, LocalDate startDate, int occurrences) throws Exception {
+        mockMvc.perform(post("/doctors/{id}/api/book/recurring", doctor.getId())
+                        .with(user(new UserPrincipal(patient)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"slotId\": 4, \"startDate\": \"" + startDate + "\", \"intervalDays\": 7, "
+                                + "\"occurrences\": " + occurrences + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(occurrences));
+    }
+
+    private List<Long> confirmedIds(Long doctorId) {
+        return jdbcTemplate.queryForList("SELECT id FROM appointments WHERE doctor_id = ? AND status = 'CONFIRMED'",
+                Long.class, doctorId);
+    }
+
+    @Test
+    void appointmentsAndTheirOutboxRowsAreCommittedTogether() throws Exception {
+        Doctor doctor = createDoctor();
+
+        bookRecurring(doctor, createPatient(), LocalDate.now().plusDays(1), 4);
+
+        List<Long> ids = confirmedIds(doctor.getId());
+        assertThat(ids).hasSize(4);
+        assertThat(ids).allSatisfy(id -> assertThat(countBookingMessages(id)).isEqualTo(1));
+    }
+
+    @Test
+    void conflictingDatesGetNeitherAnAppointmentNorAMessage() throws Exception {
+        Doctor doctor = createDoctor();
+        LocalDate start = LocalDate.now().plusDays(1);
+        bookRecurring(doctor, createPatient(), start.plusDays(7), 1);
+
+        bookRecurring(doctor, createPatient(), start, 3);
+
+        List<Long> ids = confirmedIds(doctor.getId());
+        assertThat(ids).hasSize(3);
+        assertThat(ids).allSatisfy(id -> assertThat(countBookingMessages(id)).isEqualTo(1));
+    }
+}
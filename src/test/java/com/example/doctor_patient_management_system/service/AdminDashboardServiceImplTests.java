@@ -0,0 +1,100 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.AdminDashboard;
+import com.example.doctor_patient_management_system.dto.AdminDashboardQuery;
+import com.example.doctor_patient_management_system.dto.DashboardStats;
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+class AdminDashboardServiceImplTests {
+
+    private static final AdminDashboardQuery QUERY = new AdminDashboardQuery(0, 10, null, null, null,
+            0, 10, null, null, null, null, null);
+    private static final DashboardStats STATS = new DashboardStats(3, 2, 1, 5, 4, 1, 2);
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private AdminDashboardServiceImpl service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    // Every section answers after a short query; the appointments table is stuck unless told otherwise
+    private AdminServiceImpl adminService(CountDownLatch appointmentsRelease, CountDownLatch appointmentsInterrupted) {
+        return mock(AdminServiceImpl.class, withSettings().defaultAnswer(invocation -> {
+            int now = running.incrementAndGet();
+            maxRunning.accumulateAndGet(now, Math::max);
+            try {
+                if (invocation.getMethod().getName().equals("getAppointments")) {
+                    try {
+                        appointmentsRelease.await();
+                    } catch (InterruptedException e) {
+                        appointmentsInterrupted.countDown();
+                        throw e;
+                    }
+                    return new PageImpl<>(List.of());
+                }
+                Thread.sleep(20);
+                return switch (invocation.getMethod().getName()) {
+                    case "getDashboardStats" -> STATS;
+                    case "getUsers" -> new PageImpl<>(List.of(new User()));
+                    case "getRecentRegistrations" -> List.of(new User());
+                    case "getRecentAppointments", "getConfirmedAppointments" -> List.of(new Appointment());
+                    case "getIncompleteProfilesCount" -> 7L;
+                    case "getAlerts" -> List.of("Existing alert");
+                    default -> null;
+                };
+            } finally {
+                running.decrementAndGet();
+            }
+        }));
+    }
+
+    @Test
+    void slowSectionIsCancelledWhileTheOthersRender() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        service = new AdminDashboardServiceImpl(adminService(new CountDownLatch(1), interrupted),
+                new SimpleMeterRegistry(), 4, 16, 500, 20);
+
+        AdminDashboard dashboard = service.load(QUERY);
+
+        assertThat(dashboard.stats()).isEqualTo(STATS);
+        assertThat(dashboard.users().getContent()).hasSize(1);
+        assertThat(dashboard.recentRegistrations()).hasSize(1);
+        assertThat(dashboard.recentAppointments()).hasSize(1);
+        assertThat(dashboard.confirmedAppointments()).hasSize(1);
+        assertThat(dashboard.incompleteProfiles()).isEqualTo(7L);
+        assertThat(dashboard.appointments().getContent()).isEmpty();
+        assertThat(dashboard.alerts()).containsExactly("Existing alert",
+                "⚠️ Some dashboard sections could not be loaded: appointments.");
+        // The stuck query gives its loader thread back instead of holding it past the page
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void loadersStayWellBelowTheConnectionPool() {
+        CountDownLatch release = new CountDownLatch(0);
+        service = new AdminDashboardServiceImpl(adminService(release, new CountDownLatch(1)),
+                new SimpleMeterRegistry(), 8, 16, 5000, 10);
+
+        AdminDashboard dashboard = service.load(QUERY);
+
+        assertThat(dashboard.alerts()).containsExactly("Existing alert");
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.AbstractIntegrationTests;
+import com.example.doctor_patient_management_system.dto.AdminAppointmentRow;
+import com.example.doctor_patient_management_system.dto.DashboardStats;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.model.enumeration.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The admin appointment table must cost the same number of statements whatever the page size,
+// so names and prescription presence can't be loaded per row.
+@Import(AdminServiceImplTests.StatementCounting.class)
+class AdminServiceImplTests extends AbstractIntegrationTests {
+
+    private static final int APPOINTMENTS = 30;
+
+    @Autowired
+    private AdminServiceImpl adminService;
+
+    @Autowired
+    private DashboardStatsServiceImpl dashboardStatsService;
+
+    private LocalDate from;
+    private LocalDate to;
+    private List<User> patients;
+
+    // A window no other test books into, so the page holds exactly this test's rows
+    @BeforeEach
+    void seed() {
+        from = LocalDate.now().plusYears(5).plusDays(ThreadLocalRandom.current().nextInt(100_000));
+        to = from.plusDays(APPOINTMENTS - 1);
+        Doctor doctor = createDoctor();
+        patients = createPatients(APPOINTMENTS);
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            User patient = patients.get(i);
+            jdbcTemplate.update("INSERT INTO patients_info (id, patient_name, patient_email, gender, contact) "
+                    + "VALUES (?, ?, ?, 'Female', '01712345678')", patient.getId(), "Patient " + i, patient.getEmail());
+            Long appointmentId = jdbcTemplate.queryForObject("INSERT INTO appointments "
+                    + "(doctor_id, patient_id, slot_id, appointment_date, appointment_time, status) "
+                    + "VALUES (?, ?, 1, ?, '09:00 - 09:20', 'CONFIRMED') RETURNING id", Long.class,
+                    doctor.getId(), patient.getId(), from.plusDays(i));
+            if (i % 2 == 0) {
+                jdbcTemplate.update("INSERT INTO prescriptions (appointment_id, diagnosis, created_at) "
+                        + "VALUES (?, 'Flu', now())", appointmentId);
+            }
+        }
+    }
+
+    private Page<AdminAppointmentRow> page(int page, int size, String search, Long afterId) {
+        return adminService.getAppointments(page, size, null, search, from.toString(), to.toString(), afterId);
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithThePageSize() {
+        int small = StatementCounting.count(() -> page(0, 5, null, null));
+        int large = StatementCounting.count(() -> page(1, 25, null, null));
+
+        assertThat(small).isBetween(1, 2);
+        assertThat(large).isBetween(1, small);
+    }
+
+    @Test
+    void rowsCarryNamesAndPrescriptionsFromTheSameQuery() {
+        Page<AdminAppointmentRow> newestFirst = page(0, APPOINTMENTS, null, null);
+
+        assertThat(newestFirst.getTotalElements()).isEqualTo(APPOINTMENTS);
+        assertThat(newestFirst.getContent()).hasSize(APPOINTMENTS);
+        AdminAppointmentRow newest = newestFirst.getContent().get(0);
+        assertThat(newest.getAppointmentDate()).isEqualTo(to);
+        assertThat(newest.getPatientName()).isEqualTo("Patient " + (APPOINTMENTS - 1));
+        assertThat(newest.getPatientEmail()).isEqualTo(patients.get(APPOINTMENTS - 1).getEmail());
+        assertThat(newest.getDoctorName()).isEqualTo("Dr. Test");
+        assertThat(newestFirst.getContent()).filteredOn(AdminAppointmentRow::isHasPrescription).hasSize(APPOINTMENTS / 2);
+    }
+
+    @Test
+    void searchAndKeysetPagesAreBounded() {
+        String email = patients.get(3).getEmail();
+        int searching = StatementCounting.count(() -> assertThat(page(0, 20, email, null).getContent()).hasSize(1));
+
+        Long cursor = page(0, 10, null, null).getContent().get(9).getId();
+        int keyset = StatementCounting.count(() -> {
+            Page<AdminAppointmentRow> next = page(1, 10, null, cursor);
+            assertThat(next.getContent()).hasSize(10);
+            assertThat(next.getContent().get(0).getAppointmentDate()).isEqualTo(to.minusDays(10));
+        });
+
+        assertThat(searching).isBetween(1, 2);
+        assertThat(keyset).isBetween(1, 2);
+    }
+
+    // Users sharing a search token, so the listing holds exactly these; newest first, as the table shows them
+    private List<User> createListedUsers(String token, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new User("listed-" + token + "-" + UUID.randomUUID() + "@example.com", "secret", Role.PATIENT));
+        }
+        List<User> saved = new ArrayList<>(userRepository.saveAll(users));
+        saved.sort(Comparator.comparing(User::getId).reversed());
+        return saved;
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
+    private static List<Long> ids(Page<User> page) {
+        return ids(page.getContent());
+    }
+
+    @Test
+    void keysetNextAndPreviousAfterANumberedPageJump() {
+        String token = UUID.randomUUID().toString();
+        List<Long> all = ids(createListedUsers(token, 25));
+
+        // Page 4 is picked from the numbers, so there is no cursor and OFFSET serves it
+        Page<User> jumped = adminService.getUsers(3, 5, null, token, null);
+        assertThat(ids(jumped)).isEqualTo(all.subList(15, 20));
+        assertThat(jumped.getNumber()).isEqualTo(3);
+
+        // Next carries the last id shown
+        Long cursor = jumped.getContent().get(4).getId();
+        Page<User> next = adminService.getUsers(4, 5, null, token, cursor);
+        assertThat(ids(next)).isEqualTo(all.subList(20, 25));
+        assertThat(next.getNumber()).isEqualTo(4);
+        assertThat(next.getTotalElements()).isEqualTo(25);
+
+        // Previous from the jumped page has no cursor for page 3 either
+        assertThat(ids(adminService.getUsers(2, 5, null, token, null))).isEqualTo(all.subList(10, 15));
+        // Previous back to a page reached through Next reuses that page's cursor
+        assertThat(ids(adminService.getUsers(3, 5, null, token, all.get(14)))).isEqualTo(all.subList(15, 20));
+    }
+
+    @Test
+    void offsetFallbackCountsExactlyWhileCursorPagesReuseTheCachedCount() {
+        String token = UUID.randomUUID().toString();
+        createListedUsers(token, 12);
+
+        Page<User> first = adminService.getUsers(0, 5, null, token, null);
+        assertThat(first.getTotalElements()).isEqualTo(12);
+
+        User newest = createListedUsers(token, 1).get(0);
+
+        // Within the TTL the cursor page shows the new row but keeps the cached total
+        Page<User> again = adminService.getUsers(0, 5, null, token, null);
+        assertThat(again.getContent().get(0).getId()).isEqualTo(newest.getId());
+        assertThat(again.getTotalElements()).isEqualTo(12);
+
+        // A numbered page counts exactly
+        Page<User> offset = adminService.getUsers(2, 5, null, token, null);
+        assertThat(offset.getTotalElements()).isEqualTo(13);
+        assertThat(offset.getContent()).hasSize(3);
+
+        // Other searches are counted separately
+        assertThat(adminService.getUsers(0, 5, null, newest.getEmail(), null).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void unfilteredCursorPagesTakeTheirTotalFromTheStatsSnapshot() {
+        dashboardStatsService.refresh();
+        DashboardStats snapshot = dashboardStatsService.getStats();
+        createPatient();
+
+        // Registrations aren't applied to the snapshot, so the total lags until the next refresh
+        assertThat(adminService.getUsers(0, 5, null, null, null).getTotalElements()).isEqualTo(snapshot.totalUsers());
+        assertThat(adminService.getUsers(0, 5, "patient", null, null).getTotalElements())
+                .isEqualTo(snapshot.totalPatients());
+        assertThat(userRepository.count()).isEqualTo(snapshot.totalUsers() + 1);
+    }
+
+    // Wraps the DataSource so statements prepared on the calling thread can be counted
+    @TestConfiguration
+    static class StatementCounting {
+
+        private static final ThreadLocal<AtomicInteger> counter = new ThreadLocal<>();
+
+        static int count(Runnable action) {
+            AtomicInteger statements = new AtomicInteger();
+            counter.set(statements);
+            try {
+                action.run();
+            } finally {
+                counter.remove();
+            }
+            return statements.get();
+        }
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource counting(DataSource dataSource) {
+            return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                    new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                        Object result = invoke(dataSource, method, args);
+                        return result instanceof Connection connection ? counting(connection) : result;
+                    });
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        AtomicInteger statements = counter.get();
+                        if (statements != null && method.getName().matches("prepareStatement|prepareCall|createStatement")) {
+                            statements.incrementAndGet();
+                        }
+                        return invoke(connection, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.AbstractIntegrationTests;
+import com.example.doctor_patient_management_system.dto.ArchivedAppointment;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.repository.ReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Converts the shared test database to the partitioned layout; the indexes the migration drops are
+// created again afterwards, as they are at startup, so the other tests run unaffected on either layout.
+class AppointmentPartitionServiceImplTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private AppointmentPartitionServiceImpl partitionService;
+
+    @Autowired
+    private AppointmentServiceImpl appointmentService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    @Qualifier("createPartialIndexes")
+    private CommandLineRunner createPartialIndexes;
+
+    @Test
+    void archivedMonthTakesItsPrescriptionsAndReviewsAlong() throws Exception {
+        partitionService.migrateIfNeeded();
+        createPartialIndexes.run();
+        assertThat(partitionService.isPartitioned()).isTrue();
+
+        // A month well past retention that no earlier run has used, so it has no rows in the default partition
+        YearMonth month = YearMonth.now().minusMonths(30 + ThreadLocalRandom.current().nextInt(1200));
+        String partition = String.format("appointments_p%04d_%02d", month.getYear(), month.getMonthValue());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF appointments FOR VALUES FROM ('"
+                + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+
+        Doctor doctor = createDoctor();
+        User patient = createPatient();
+        LocalDate oldDate = month.atDay(10);
+        long oldAppointment = insertAppointment(doctor, patient, oldDate);
+        jdbcTemplate.update("INSERT INTO prescriptions (appointment_id, diagnosis, created_at) VALUES (?, 'Flu', now())",
+                oldAppointment);
+        jdbcTemplate.update("INSERT INTO reviews (appointment_id, rating, comment, created_at) VALUES (?, 2, 'Old', now())",
+                oldAppointment);
+
+        long recentAppointment = appointmentService.bookSlot(doctor.getId(), patient, 1, LocalDate.now().plusDays(2)).getId();
+        jdbcTemplate.update("INSERT INTO reviews (appointment_id, rating, comment, created_at) VALUES (?, 4, 'New', now())",
+                recentAppointment);
+
+        assertThat(partitionService.archiveOldPartitions()).isGreaterThanOrEqualTo(1);
+
+        assertThat(count("public.prescriptions", oldAppointment)).isZero();
+        assertThat(count("public.reviews", oldAppointment)).isZero();
+        assertThat(count(AppointmentPartitionServiceImpl.ARCHIVE_SCHEMA + ".prescriptions", oldAppointment)).isEqualTo(1);
+        assertThat(count(AppointmentPartitionServiceImpl.ARCHIVE_SCHEMA + ".reviews", oldAppointment)).isEqualTo(1);
+        assertThat(count("public.reviews", recentAppointment)).isEqualTo(1);
+
+        // The remaining reviews still load through their appointments
+        assertThat(reviewRepository.findByAppointmentDoctorIdOrderByCreatedAtDesc(doctor.getId()))
+                .extracting(review -> review.getAppointment().getId())
+                .containsExactly(recentAppointment);
+        assertThat(reviewRepository.countReviewsByDoctorId(doctor.getId())).isEqualTo(1);
+        assertThat(reviewRepository.findAverageRatingByDoctorId(doctor.getId())).isEqualTo(4.0);
+
+        List<ArchivedAppointment> archived = partitionService.getArchivedAppointments(patient.getId());
+        assertThat(archived).extracting(ArchivedAppointment::getId).containsExactly(oldAppointment);
+        assertThat(archived.get(0).getAppointmentDate()).isEqualTo(oldDate);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, partition)).isTrue();
+    }
+
+    private long insertAppointment(Doctor doctor, User patient, LocalDate date) {
+        return jdbcTemplate.queryForObject("INSERT INTO appointments (doctor_id, patient_id, slot_id,"
+                        + " appointment_date, appointment_time, status) VALUES (?, ?, 1, ?, '09:00 AM - 09:20 AM',"
+                        + " 'CONFIRMED') RETURNING id",
+                Long.class, doctor.getId(), patient.getId(), date);
+    }
+
+    private long count(String table, long appointmentId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE appointment_id = ?",
+                Long.class, appointmentId);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.AbstractIntegrationTests;
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentServiceImplTests extends AbstractIntegrationTests {
+
+    private static final int BOOKINGS = 200;
+
+    @Autowired
+    private AppointmentServiceImpl appointmentService;
+
+    // Calls bookSlot directly, not through the per-doctor lane, so the inserts really race
+    // the way they do across nodes and only the partial unique index can settle them
+    @Test
+    void simultaneousBookingsOfOneSlotHaveExactlyOneWinner() throws Exception {
+        Doctor doctor = createDoctor();
+        List<User> patients = createPatients(BOOKINGS);
+        LocalDate date = LocalDate.now().plusDays(3);
+
+        ExecutorService pool = Executors.newFixedThreadPool(50);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Appointment> booked = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        int[] conflicts = new int[1];
+
+        for (User patient : patients) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    booked.add(appointmentService.bookSlot(doctor.getId(), patient, 1, date));
+                } catch (ResponseStatusException e) {
+                    if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                        synchronized (conflicts) {
+                            conflicts[0]++;
+                        }
+                    } else {
+                        unexpected.add(e);
+                    }
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(booked).hasSize(1);
+        assertThat(conflicts[0]).isEqualTo(BOOKINGS - 1);
+
+        assertThat(countConfirmed(doctor.getId())).isEqualTo(1);
+        assertThat(countBookingMessages(booked.peek().getId())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT booked_count FROM doctor_day_capacity WHERE doctor_id = ? AND capacity_date = ?",
+                Integer.class, doctor.getId(), date)).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledBookingFreesTheSlotForAnotherPatient() {
+        Doctor doctor = createDoctor();
+        LocalDate date = LocalDate.now().plusDays(3);
+
+        Appointment first = appointmentService.bookSlot(doctor.getId(), createPatient(), 2, date);
+        appointmentService.cancel(first);
+        Appointment second = appointmentService.bookSlot(doctor.getId(), createPatient(), 2, date);
+
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(countConfirmed(doctor.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentCancellationsFreeTheSlotOnce() throws Exception {
+        Doctor doctor = createDoctor();
+        LocalDate date = LocalDate.now().plusDays(3);
+        appointmentService.bookSlot(doctor.getId(), createPatient(), 1, date);
+        Appointment appointment = appointmentService.bookSlot(doctor.getId(), createPatient(), 2, date);
+
+        // Every caller loaded the appointment while it was still confirmed
+        ExecutorService pool = Executors.newFixedThreadPool(10);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Appointment copy = appointmentService.getById(appointment.getId());
+            futures.add(pool.submit(() -> {
+                start.await();
+                appointmentService.cancelAppointment(copy);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(countConfirmed(doctor.getId())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT booked_count FROM doctor_day_capacity WHERE doctor_id = ? AND capacity_date = ?",
+                Integer.class, doctor.getId(), date)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.AbstractIntegrationTests;
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// The same contended workload through the lanes and through concurrent bookSlot calls, the path every
+// booking took before the dispatcher: both must end with one booking per slot, and the lanes must refuse
+// the losers without attempting their inserts.
+class BookingDispatcherImplTests extends AbstractIntegrationTests {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingDispatcherImplTests.class);
+
+    private static final int DOCTORS = 8;
+    private static final int SLOTS = 3;
+    private static final int PATIENTS_PER_SLOT = 10;
+
+    @Autowired
+    private AppointmentServiceImpl appointmentService;
+
+    @Autowired
+    private SlotOccupancyServiceImpl slotOccupancyService;
+
+    private AppointmentServiceImpl countingAppointmentService;
+    private BookingDispatcherImpl dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        // Calls go through to the transactional bean; the wrapper only records them
+        countingAppointmentService = mock(AppointmentServiceImpl.class, delegatesTo(appointmentService));
+        dispatcher = new BookingDispatcherImpl(countingAppointmentService, slotOccupancyService,
+                new SimpleMeterRegistry(), 4, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void lanesRefuseContendedSlotsWithoutWritingAndMatchConcurrentBooking() throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(32);
+        try {
+            Workload direct = new Workload();
+            Outcome concurrent = direct.run(request -> CompletableFuture.supplyAsync(() ->
+                    appointmentService.bookSlot(request.doctorId(), request.patient(), request.slotId(),
+                            request.date()), requestThreads));
+
+            Workload laned = new Workload();
+            Outcome dispatched = laned.run(request -> dispatcher.submit(request.doctorId(), request.patient(),
+                    request.slotId(), request.date()));
+
+            log.info(" {} contended bookings: concurrent bookSlot {} ms ({}/s), lanes {} ms ({}/s)",
+                    direct.requests.size(), concurrent.millis, concurrent.perSecond(direct.requests.size()),
+                    dispatched.millis, dispatched.perSecond(laned.requests.size()));
+
+            for (Outcome outcome : List.of(concurrent, dispatched)) {
+                assertThat(outcome.unexpected).isEmpty();
+                assertThat(outcome.booked.get()).isEqualTo(DOCTORS * SLOTS);
+                assertThat(outcome.conflicts.get()).isEqualTo(DOCTORS * SLOTS * (PATIENTS_PER_SLOT - 1));
+            }
+            for (Doctor doctor : laned.doctors) {
+                assertThat(countConfirmed(doctor.getId())).isEqualTo(SLOTS);
+            }
+            // Only each slot's first request reached bookSlot; every other one was refused from the occupancy index
+            verify(countingAppointmentService, times(DOCTORS * SLOTS)).bookSlot(anyLong(), any(), anyInt(), any());
+        } finally {
+            requestThreads.shutdown();
+        }
+    }
+
+    @Test
+    void slotFreedOnAnotherNodeIsBookedDespiteTheStaleIndex() {
+        Doctor doctor = createDoctor();
+        LocalDate date = LocalDate.now().plusDays(6);
+        Appointment first = appointmentService.bookSlot(doctor.getId(), createPatient(), 1, date);
+        assertThat(slotOccupancyService.isBooked(doctor.getId(), date, 1)).isTrue();
+        jdbcTemplate.update("UPDATE appointments SET status = 'CANCELLED' WHERE id = ?", first.getId());
+
+        Appointment second = dispatcher.submit(doctor.getId(), createPatient(), 1, date).join();
+
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(countConfirmed(doctor.getId())).isEqualTo(1);
+    }
+
+    private record BookingRequest(Long doctorId, User patient, int slotId, LocalDate date) {}
+
+    private static final class Outcome {
+        final AtomicInteger booked = new AtomicInteger();
+        final AtomicInteger conflicts = new AtomicInteger();
+        final List<Throwable> unexpected = new ArrayList<>();
+        long millis;
+
+        long perSecond(int requests) {
+            return millis == 0 ? requests : requests * 1000L / millis;
+        }
+    }
+
+    // Fresh doctors each run, so both paths start from an empty occupancy index and empty days
+    private final class Workload {
+        final List<Doctor> doctors = new ArrayList<>();
+        final List<BookingRequest> requests = new ArrayList<>();
+
+        Workload() {
+            LocalDate date = LocalDate.now().plusDays(5);
+            List<User> patients = createPatients(DOCTORS * SLOTS * PATIENTS_PER_SLOT);
+            for (int d = 0; d < DOCTORS; d++) {
+                doctors.add(createDoctor());
+            }
+            // Interleaved so every doctor and slot is contended at the same time
+            int next = 0;
+            for (int p = 0; p < PATIENTS_PER_SLOT; p++) {
+                for (Doctor doctor : doctors) {
+                    for (int slot = 1; slot <= SLOTS; slot++) {
+                        requests.add(new BookingRequest(doctor.getId(), patients.get(next++), slot, date));
+                    }
+                }
+            }
+        }
+
+        Outcome run(Function<BookingRequest, CompletableFuture<Appointment>> submit) throws Exception {
+            Outcome outcome = new Outcome();
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (BookingRequest request : requests) {
+                futures.add(submit.apply(request).handle((saved, error) -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause == null) {
+                        outcome.booked.incrementAndGet();
+                    } else if (cause instanceof ResponseStatusException e && e.getStatusCode() == HttpStatus.CONFLICT) {
+                        outcome.conflicts.incrementAndGet();
+                    } else {
+                        synchronized (outcome.unexpected) {
+                            outcome.unexpected.add(cause);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+            outcome.millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return outcome;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.config.JacksonConfig;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorDayCapacityRepository;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CalendarBatchServiceImplTests {
+
+    private static final LocalDate START = LocalDate.of(2026, 11, 2);
+
+    private final Map<String, Long> counters = new ConcurrentHashMap<>();
+    private ValueOperations<String, String> values;
+    private CalendarBatchServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Doctor doctor = new Doctor();
+        doctor.setId(5L);
+        doctor.setConsultationStartTime("09:00");
+        doctor.setConsultationEndTime("10:00");
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findAllById(any())).thenReturn(List.of(doctor));
+        SlotTemplateServiceImpl slotTemplateService = new SlotTemplateServiceImpl(doctorRepository);
+
+        values = mock(ValueOperations.class);
+        when(values.increment(anyString())).thenAnswer(invocation -> counters.merge(invocation.getArgument(0), 1L, Long::sum));
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+
+        service = new CalendarBatchServiceImpl(doctorRepository,
+                new BatchAvailabilityServiceImpl(mock(DoctorDayCapacityRepository.class), slotTemplateService),
+                new JacksonConfig().objectMapper(), redisTemplate, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private String stream(Long userId) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.streamCalendars(userId, List.of(5L), START, START.plusDays(1)).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void calendarsAreWrittenWithTheSharedMapper() throws Exception {
+        assertThat(stream(1L))
+                .startsWith("{\"startDate\":\"2026-11-02\",\"endDate\":\"2026-11-03\",\"calendars\":[{\"doctorId\":5,")
+                .contains("\"date\":\"2026-11-02\"");
+    }
+
+    @Test
+    void eachUserGetsALimitedNumberOfBatchesPerMinute() throws Exception {
+        // Two calls could straddle a minute boundary; a fresh window only ever lets more through
+        for (int i = 0; i < 3; i++) {
+            stream(1L);
+        }
+        counters.replaceAll((key, count) -> 3L);
+
+        assertThatThrownBy(() -> stream(1L))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(stream(2L)).contains("\"doctorId\":5");
+    }
+
+    @Test
+    void batchesAreServedWhenRedisIsDown() throws Exception {
+        when(values.increment(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(stream(1L)).contains("\"doctorId\":5");
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.TestClock;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import com.example.doctor_patient_management_system.service.CancellationRateService.Window;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CancellationRateServiceImplTests {
+
+    private static final Long DOCTOR_ID = 7L;
+
+    // Stands in for Redis hashes and sets, shared by every node in a test
+    private final Map<String, Map<Object, Object>> hashes = new HashMap<>();
+    private final Map<String, Set<String>> sets = new HashMap<>();
+
+    private final TestClock clock = new TestClock();
+    private StringRedisTemplate redisTemplate;
+    private DoctorRepository doctorRepository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        HashOperations<String, Object, Object> hashOps = mock(HashOperations.class);
+        doAnswer(invocation -> hashes.put(invocation.getArgument(0), new HashMap<>(invocation.<Map<Object, Object>>getArgument(1))))
+                .when(hashOps).putAll(anyString(), anyMap());
+        when(hashOps.entries(anyString())).thenAnswer(invocation ->
+                new HashMap<>(hashes.getOrDefault(invocation.<String>getArgument(0), Map.of())));
+
+        SetOperations<String, String> setOps = mock(SetOperations.class);
+        when(setOps.add(anyString(), any(String[].class))).thenAnswer(invocation -> {
+            sets.computeIfAbsent(invocation.getArgument(0), key -> new HashSet<>()).add(invocation.getArgument(1));
+            return 1L;
+        });
+        when(setOps.members(anyString())).thenAnswer(invocation ->
+                new HashSet<>(sets.getOrDefault(invocation.<String>getArgument(0), Set.of())));
+        when(setOps.remove(anyString(), any(Object[].class))).thenAnswer(invocation ->
+                sets.getOrDefault(invocation.<String>getArgument(0), new HashSet<>()).remove(invocation.getArgument(1)) ? 1L : 0L);
+
+        redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOps);
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        doAnswer(invocation -> hashes.put(invocation.getArgument(1), hashes.remove(invocation.<String>getArgument(0))))
+                .when(redisTemplate).rename(anyString(), anyString());
+
+        Doctor doctor = new Doctor();
+        doctor.setId(DOCTOR_ID);
+        doctor.setDoctorName("Dr. Rahman");
+        doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findAllById(any())).thenReturn(List.of(doctor));
+    }
+
+    private CancellationRateServiceImpl node() {
+        return new CancellationRateServiceImpl(redisTemplate, doctorRepository, new SimpleMeterRegistry(), 0.33, 20, clock);
+    }
+
+    private static void record(CancellationRateServiceImpl service, Long doctorId, int booked, int cancelled) {
+        for (int i = 0; i < booked; i++) {
+            service.recordBooked(doctorId);
+        }
+        for (int i = 0; i < cancelled; i++) {
+            service.recordCancelled(doctorId);
+        }
+    }
+
+    @Test
+    void eventsSlideOutOfEachWindowWhenItsSpanHasPassed() {
+        CancellationRateServiceImpl service = node();
+        record(service, DOCTOR_ID, 3, 1);
+
+        clock.advance(Duration.ofMinutes(61));
+        assertThat(service.getRate(Window.HOUR).total()).isZero();
+        assertThat(service.getRate(Window.DAY).total()).isEqualTo(4);
+
+        clock.advance(Duration.ofHours(24));
+        assertThat(service.getRate(Window.DAY).total()).isZero();
+        assertThat(service.getRate(Window.WEEK).total()).isEqualTo(4);
+
+        clock.advance(Duration.ofDays(7));
+        assertThat(service.getRate(Window.WEEK).total()).isZero();
+    }
+
+    @Test
+    void hourWindowCountsEventsFromEveryMinuteOfTheLastHour() {
+        CancellationRateServiceImpl service = node();
+        for (int minute = 0; minute < 60; minute++) {
+            record(service, DOCTOR_ID, 1, 0);
+            clock.advance(Duration.ofMinutes(1));
+        }
+
+        // The first minute's booking has just left the window
+        assertThat(service.getRate(Window.HOUR).booked()).isEqualTo(59);
+        assertThat(service.getDoctorRate(DOCTOR_ID, Window.HOUR).booked()).isEqualTo(59);
+    }
+
+    @Test
+    void highRateAlertsOnlyOnceThereAreEnoughEvents() {
+        CancellationRateServiceImpl service = node();
+        record(service, 1L, 0, 10);
+        assertThat(service.getAlerts()).isEmpty();
+
+        record(service, 2L, 4, 0);
+        record(service, 3L, 3, 3);
+        // 13 of 20 cancelled, each doctor under the minimum on their own
+        assertThat(service.getAlerts()).containsExactly("High cancellation rate in the last hour: 13 cancelled vs 7 booked.");
+    }
+
+    @Test
+    void doctorAlertClearsWhenTheDailyRateDropsUnderTheThreshold() {
+        CancellationRateServiceImpl service = node();
+        record(service, DOCTOR_ID, 12, 8);
+        assertThat(service.getAlerts())
+                .contains("High cancellation rate for Dr. Rahman in the last day: 8 cancelled vs 12 booked.");
+
+        // 8 of 25 is under a third
+        record(service, DOCTOR_ID, 5, 0);
+        assertThat(service.getAlerts()).noneMatch(alert -> alert.contains("Dr. Rahman"));
+    }
+
+    @Test
+    void nodesSnapshotToTheirOwnKeysAndReadEachOthersCounts() {
+        CancellationRateServiceImpl first = node();
+        CancellationRateServiceImpl second = node();
+        record(first, DOCTOR_ID, 10, 0);
+        record(second, DOCTOR_ID, 0, 15);
+
+        first.snapshot();
+        second.snapshot();
+        first.snapshot();
+
+        assertThat(hashes.keySet()).hasSize(2).allMatch(key -> key.startsWith("cancellation-rate:snapshot:"));
+        for (CancellationRateServiceImpl node : List.of(first, second)) {
+            assertThat(node.getRate(Window.HOUR).booked()).isEqualTo(10);
+            assertThat(node.getRate(Window.HOUR).cancelled()).isEqualTo(15);
+            assertThat(node.getDoctorRate(DOCTOR_ID, Window.DAY).total()).isEqualTo(25);
+            assertThat(node.getAlerts()).contains(
+                    "High cancellation rate for Dr. Rahman in the last day: 15 cancelled vs 10 booked.");
+        }
+    }
+
+    @Test
+    void restartedNodeReadsItsPreviousRunsSnapshot() {
+        CancellationRateServiceImpl before = node();
+        record(before, DOCTOR_ID, 6, 2);
+        before.snapshot();
+
+        CancellationRateServiceImpl after = node();
+        after.refresh();
+        record(after, DOCTOR_ID, 1, 0);
+
+        assertThat(after.getRate(Window.DAY).booked()).isEqualTo(7);
+        assertThat(after.getRate(Window.DAY).cancelled()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredNodeIsForgotten() {
+        CancellationRateServiceImpl gone = node();
+        record(gone, DOCTOR_ID, 4, 0);
+        gone.snapshot();
+        hashes.clear();
+
+        CancellationRateServiceImpl service = node();
+        service.refresh();
+
+        assertThat(service.getRate(Window.DAY).total()).isZero();
+        assertThat(sets.get("cancellation-rate:nodes")).isEmpty();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.AbstractIntegrationTests;
+import com.example.doctor_patient_management_system.dto.DashboardStats;
+import com.example.doctor_patient_management_system.event.AppointmentSlotEvent;
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import com.example.doctor_patient_management_system.model.enumeration.AppointmentStatus;
+import com.example.doctor_patient_management_system.model.enumeration.Role;
+import com.example.doctor_patient_management_system.repository.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardStatsServiceImplTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentServiceImpl appointmentService;
+
+    private static AppointmentSlotEvent event(AppointmentSlotEvent.Type type) {
+        return new AppointmentSlotEvent(type, 1L, 1L, LocalDate.now(), 1);
+    }
+
+    private static List<Object[]> statusRows(long confirmed, long cancelled) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{AppointmentStatus.CONFIRMED, confirmed});
+        rows.add(new Object[]{AppointmentStatus.CANCELLED, cancelled});
+        return rows;
+    }
+
+    // The counts getDashboardStats and getIncompleteProfilesCount computed before the aggregates
+    @Test
+    void statsMatchTheFullTableComputation() {
+        Doctor doctor = createDoctor();
+        LocalDate date = LocalDate.now().plusDays(3);
+        appointmentService.bookSlot(doctor.getId(), createPatient(), 1, date);
+        Appointment cancelled = appointmentService.bookSlot(doctor.getId(), createPatient(), 2, date);
+        appointmentService.cancelAppointment(cancelled);
+        // A row without a status was counted in the total but in neither status
+        User patient = createPatient();
+        Long unknown = jdbcTemplate.queryForObject("INSERT INTO appointments (doctor_id, patient_id, slot_id,"
+                + " appointment_date, appointment_time, status) VALUES (?, ?, 3, ?, '10:00 - 10:20', NULL)"
+                + " RETURNING id", Long.class, doctor.getId(), patient.getId(), date);
+        try {
+            long admins = userRepository.countByRole(Role.ADMIN);
+            long doctors = userRepository.countByRole(Role.DOCTOR);
+            long patients = userRepository.countByRole(Role.PATIENT);
+            List<Appointment> all = appointmentRepository.findAll();
+            DashboardStats expected = new DashboardStats(admins, doctors, patients, admins + doctors + patients,
+                    all.size(),
+                    all.stream().filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED).count(),
+                    all.stream().filter(a -> a.getStatus() == AppointmentStatus.CANCELLED).count());
+            long incomplete = userRepository.countByCompleteFalse();
+
+            DashboardStatsServiceImpl service = new DashboardStatsServiceImpl(appointmentRepository, userRepository,
+                    new SimpleMeterRegistry(), 60);
+
+            assertThat(service.getStats()).isEqualTo(expected);
+            assertThat(service.getIncompleteProfiles()).isEqualTo(incomplete);
+        } finally {
+            jdbcTemplate.update("DELETE FROM appointments WHERE id = ?", unknown);
+        }
+    }
+
+    @Test
+    void eventDuringTheQueryIsNotCountedTwice() {
+        AppointmentRepository appointments = mock(AppointmentRepository.class);
+        DashboardStatsServiceImpl service = new DashboardStatsServiceImpl(appointments, userRepository,
+                new SimpleMeterRegistry(), 60);
+        AtomicInteger queries = new AtomicInteger();
+        // The booking commits while the first query runs, and its result already includes it
+        when(appointments.countGroupedByStatus()).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 1) {
+                service.onSlotEvent(event(AppointmentSlotEvent.Type.BOOKED));
+            }
+            return statusRows(6, 2);
+        });
+
+        service.refresh();
+
+        assertThat(queries.get()).isEqualTo(2);
+        assertThat(service.getStats().confirmedAppointments()).isEqualTo(6);
+        assertThat(service.getStats().totalAppointments()).isEqualTo(8);
+
+        service.onSlotEvent(event(AppointmentSlotEvent.Type.FREED));
+        assertThat(service.getStats().confirmedAppointments()).isEqualTo(5);
+        assertThat(service.getStats().cancelledAppointments()).isEqualTo(3);
+        assertThat(service.getStats().totalAppointments()).isEqualTo(8);
+    }
+
+    @Test
+    void busyQueriesStopRetryingWithoutCountingTwice() {
+        AppointmentRepository appointments = mock(AppointmentRepository.class);
+        DashboardStatsServiceImpl service = new DashboardStatsServiceImpl(appointments, userRepository,
+                new SimpleMeterRegistry(), 60);
+        AtomicInteger queries = new AtomicInteger();
+        when(appointments.countGroupedByStatus()).thenAnswer(invocation -> {
+            int n = queries.incrementAndGet();
+            service.onSlotEvent(event(AppointmentSlotEvent.Type.BOOKED));
+            return statusRows(10 + n, 0);
+        });
+
+        service.refresh();
+
+        assertThat(queries.get()).isEqualTo(3);
+        assertThat(service.getStats().confirmedAppointments()).isEqualTo(13);
+        assertThat(service.getStats().totalAppointments()).isEqualTo(13);
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.TestClock;
+import com.example.doctor_patient_management_system.dto.AvailableDoctorSummary;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorAvailabilityRepository;
+import com.example.doctor_patient_management_system.repository.DoctorDayCapacityRepository;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The window-based listings must give the same answers as the per-doctor, per-day lookups they replaced
+class DoctorAvailabilityServiceImplTests {
+
+    private final LocalDate today = LocalDate.now();
+    private final List<Doctor> doctors = new ArrayList<>();
+    private final Map<Long, Map<LocalDate, Integer>> booked = new HashMap<>();
+    private final Map<Long, Set<LocalDate>> blocked = new HashMap<>();
+
+    private DoctorAvailabilityServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(doctors));
+
+        DoctorDayCapacityRepository capacityRepository = mock(DoctorDayCapacityRepository.class);
+        when(capacityRepository.findByDoctorIdsAndDateBetween(any(), any(), any())).thenAnswer(invocation ->
+                capacityRows(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        SlotTemplateServiceImpl slotTemplateService = new SlotTemplateServiceImpl(doctorRepository, new TestClock());
+        service = new DoctorAvailabilityServiceImpl(mock(DoctorAvailabilityRepository.class), doctorRepository,
+                slotTemplateService, new BatchAvailabilityServiceImpl(capacityRepository, slotTemplateService),
+                mock(OffDayScheduleServiceImpl.class));
+
+        // Two slots: full today, one left tomorrow
+        doctor(1L, "09:00", "09:40", null, "Cardiology");
+        book(1L, today, 2);
+        book(1L, today.plusDays(1), 1);
+
+        // No slots at all and nothing booked
+        doctor(2L, "10:00", "10:10", null, "Cardiology");
+
+        // No consultation hours, but a booking today
+        doctor(3L, null, null, null, "Cardiology");
+        book(3L, today, 1);
+
+        // Works one weekday only, and that day is blocked this week
+        String otherDays = Arrays.stream(DayOfWeek.values())
+                .filter(day -> day != today.getDayOfWeek())
+                .map(DayOfWeek::name)
+                .collect(Collectors.joining(", "));
+        doctor(4L, "09:00", "10:00", otherDays, "Cardiology");
+        block(4L, today);
+
+        // Never works
+        doctor(5L, "09:00", "10:00", "monday,tuesday,wednesday,thursday,friday,saturday,sunday", "Cardiology");
+
+        // Fully booked for the coming week, free after that
+        doctor(6L, "09:00", "17:00", null, "Neurology");
+        for (int i = 0; i <= 8; i++) {
+            book(6L, today.plusDays(i), 24);
+        }
+
+        // Blocked today, partly booked tomorrow
+        doctor(7L, "09:00", "12:00", "", "Dermatology");
+        block(7L, today);
+        book(7L, today.plusDays(1), 3);
+    }
+
+    @Test
+    void availableDoctorsMatchThePerDoctorLookups() {
+        List<String> expected = describe(referenceAvailableDoctors());
+
+        assertThat(describe(service.getAvailableDoctors(Integer.MAX_VALUE))).isEqualTo(expected);
+        assertThat(describe(service.getAvailableDoctors(3))).isEqualTo(expected.subList(0, 3));
+        assertThat(describe(service.getAvailableDoctorsPage(PageRequest.of(1, 2)).getContent()))
+                .isEqualTo(expected.subList(2, 4));
+        assertThat(service.getAvailableDoctorsPage(PageRequest.of(0, 2)).getTotalElements())
+                .isEqualTo(expected.size());
+        // The doctor without slots and without bookings has always been listed as available today
+        assertThat(expected).contains("2 " + today + " 0");
+    }
+
+    @Test
+    void upcomingFlatListMatchesThePerDayLookups() {
+        for (String speciality : new String[]{null, "", "Dermatology", "neurology", "Unknown"}) {
+            for (int limit : new int[]{1, 2, 3, Integer.MAX_VALUE}) {
+                assertThat(describe(service.getUpcomingAvailableFlatList(limit, speciality)))
+                        .as("limit %d, speciality %s", limit, speciality)
+                        .isEqualTo(describe(referenceFlatList(limit, speciality)));
+            }
+        }
+    }
+
+    private void doctor(Long id, String start, String end, String offDays, String speciality) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        doctor.setConsultationStartTime(start);
+        doctor.setConsultationEndTime(end);
+        doctor.setOffDays(offDays);
+        doctor.setSpeciality(speciality);
+        doctors.add(doctor);
+    }
+
+    private void book(Long doctorId, LocalDate date, int count) {
+        booked.computeIfAbsent(doctorId, id -> new HashMap<>()).put(date, count);
+    }
+
+    private void block(Long doctorId, LocalDate date) {
+        blocked.computeIfAbsent(doctorId, id -> new HashSet<>()).add(date);
+    }
+
+    private List<Object[]> capacityRows(Collection<Long> doctorIds, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long doctorId : doctorIds) {
+            Set<LocalDate> dates = new HashSet<>(booked.getOrDefault(doctorId, Map.of()).keySet());
+            dates.addAll(blocked.getOrDefault(doctorId, Set.of()));
+            for (LocalDate date : dates) {
+                if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
+                    rows.add(new Object[]{doctorId, date, bookedCount(doctorId, date), isBlocked(doctorId, date)});
+                }
+            }
+        }
+        return rows;
+    }
+
+    private int bookedCount(Long doctorId, LocalDate date) {
+        return booked.getOrDefault(doctorId, Map.of()).getOrDefault(date, 0);
+    }
+
+    private boolean isBlocked(Long doctorId, LocalDate date) {
+        return blocked.getOrDefault(doctorId, Set.of()).contains(date);
+    }
+
+    // The lookups the listings used to run for every doctor and day
+
+    private boolean referenceIsOffDay(Doctor doctor, LocalDate date) {
+        if (isBlocked(doctor.getId(), date)) {
+            return true;
+        }
+        if (doctor.getOffDays() == null || doctor.getOffDays().isBlank()) {
+            return false;
+        }
+        return Arrays.stream(doctor.getOffDays().split(","))
+                .map(String::trim)
+                .anyMatch(offDay -> offDay.equalsIgnoreCase(date.getDayOfWeek().name()));
+    }
+
+    private int referenceTotalSlots(Doctor doctor) {
+        if (doctor.getConsultationStartTime() == null || doctor.getConsultationEndTime() == null) {
+            return 0;
+        }
+        long minutes = Duration.between(LocalTime.parse(doctor.getConsultationStartTime()),
+                LocalTime.parse(doctor.getConsultationEndTime())).toMinutes();
+        return minutes <= 0 ? 0 : (int) (minutes / 20);
+    }
+
+    private LocalDate referenceNextAvailableDate(Doctor doctor) {
+        for (LocalDate date = today; !date.isAfter(today.plusDays(7)); date = date.plusDays(1)) {
+            int bookedOnDay = bookedCount(doctor.getId(), date);
+            if (!referenceIsOffDay(doctor, date) && (bookedOnDay == 0 || bookedOnDay < referenceTotalSlots(doctor))) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    private int referenceSlotsNextWeek(Doctor doctor) {
+        int total = 0;
+        for (LocalDate date = today; !date.isAfter(today.plusDays(7)); date = date.plusDays(1)) {
+            if (!referenceIsOffDay(doctor, date)) {
+                total += referenceTotalSlots(doctor) - bookedCount(doctor.getId(), date);
+            }
+        }
+        return total;
+    }
+
+    private List<AvailableDoctorSummary> referenceAvailableDoctors() {
+        return doctors.stream()
+                .filter(d -> referenceNextAvailableDate(d) != null)
+                .map(d -> new AvailableDoctorSummary(d, referenceNextAvailableDate(d), referenceSlotsNextWeek(d)))
+                .sorted((a, b) -> a.getNextAvailableDate().compareTo(b.getNextAvailableDate()))
+                .collect(Collectors.toList());
+    }
+
+    private List<AvailableDoctorSummary> referenceFlatList(int limit, String speciality) {
+        List<Doctor> candidates = doctors.stream()
+                .filter(d -> speciality == null || speciality.isBlank() || speciality.equalsIgnoreCase(d.getSpeciality()))
+                .toList();
+        List<AvailableDoctorSummary> result = new ArrayList<>();
+        Set<Long> added = new HashSet<>();
+        for (LocalDate date = today; !date.isAfter(today.plusDays(30)); date = date.plusDays(1)) {
+            if (result.size() >= limit) break;
+            for (Doctor doctor : candidates) {
+                if (added.contains(doctor.getId()) || referenceIsOffDay(doctor, date)) continue;
+                int total = referenceTotalSlots(doctor);
+                if (total > 0 && bookedCount(doctor.getId(), date) < total) {
+                    result.add(new AvailableDoctorSummary(doctor, date));
+                    added.add(doctor.getId());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<String> describe(List<AvailableDoctorSummary> summaries) {
+        return summaries.stream()
+                .map(s -> s.getDoctor().getId() + " " + s.getNextAvailableDate() + " " + s.getAvailableSlotsNextWeek())
+                .toList();
+    }
+}
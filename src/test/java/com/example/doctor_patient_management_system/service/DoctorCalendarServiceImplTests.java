@@ -0,0 +1,205 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.DayStatus;
+import com.example.doctor_patient_management_system.repository.DoctorDayCapacityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorCalendarServiceImplTests {
+
+    private static final Long DOCTOR_ID = 11L;
+
+    private final YearMonth month = YearMonth.now().plusMonths(2);
+    private final LocalDate firstDay = month.atDay(1);
+
+    private DoctorAvailabilityServiceImpl availabilityService;
+    private DoctorDayCapacityRepository capacityRepository;
+    private StringRedisTemplate redisTemplate;
+    private DoctorCalendarServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        availabilityService = mock(DoctorAvailabilityServiceImpl.class);
+        when(availabilityService.totalSlotsPerDay(DOCTOR_ID)).thenReturn(8);
+        capacityRepository = mock(DoctorDayCapacityRepository.class);
+
+        // Generations live in a Redis hash; a map stands in for it
+        Map<String, String> generations = new ConcurrentHashMap<>();
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(hashOperations.get(anyString(), any())).thenAnswer(invocation ->
+                generations.get(invocation.getArgument(0) + "/" + invocation.getArgument(1)));
+        when(hashOperations.increment(anyString(), any(), anyLong())).thenAnswer(invocation -> {
+            String field = invocation.getArgument(0) + "/" + invocation.getArgument(1);
+            long delta = invocation.getArgument(2);
+            return Long.parseLong(generations.merge(field, String.valueOf(delta),
+                    (current, added) -> String.valueOf(Long.parseLong(current) + Long.parseLong(added))));
+        });
+        redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+
+        service = new DoctorCalendarServiceImpl(availabilityService, capacityRepository,
+                new ConcurrentMapCacheManager("doctorCalendar"), redisTemplate, new SimpleMeterRegistry());
+    }
+
+    private void stubBookedOnFirstDay(int... counts) {
+        var stubbing = when(capacityRepository.findBookedCountsByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any()));
+        for (int count : counts) {
+            stubbing = stubbing.thenReturn(List.<Object[]>of(new Object[]{firstDay, count}));
+        }
+    }
+
+    private int bookedOnFirstDay() {
+        DayStatus day = service.getCalendarData(DOCTOR_ID, month.getYear(), month.getMonthValue()).get(0);
+        return day.getBookedCount();
+    }
+
+    @Test
+    void monthIsComputedOnceUntilEvicted() {
+        stubBookedOnFirstDay(1, 2);
+
+        assertThat(bookedOnFirstDay()).isEqualTo(1);
+        assertThat(bookedOnFirstDay()).isEqualTo(1);
+        service.evict(DOCTOR_ID, month);
+        assertThat(bookedOnFirstDay()).isEqualTo(2);
+
+        verify(capacityRepository, times(2)).findBookedCountsByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any());
+    }
+
+    @Test
+    void evictionDuringComputeIsNotOverwrittenByTheOlderMonth() {
+        when(capacityRepository.findBookedCountsByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any()))
+                .thenAnswer(invocation -> {
+                    // A booking commits and evicts after the counts were read but before the month is cached
+                    service.evict(DOCTOR_ID, month);
+                    return List.<Object[]>of(new Object[]{firstDay, 1});
+                })
+                .thenReturn(List.<Object[]>of(new Object[]{firstDay, 2}));
+
+        assertThat(bookedOnFirstDay()).isEqualTo(1);
+        assertThat(bookedOnFirstDay()).isEqualTo(2);
+    }
+
+    @Test
+    void evictingOneMonthKeepsOtherMonthsCached() {
+        stubBookedOnFirstDay(1);
+
+        bookedOnFirstDay();
+        service.evict(DOCTOR_ID, month.plusMonths(1));
+        bookedOnFirstDay();
+
+        verify(capacityRepository, times(1)).findBookedCountsByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any());
+    }
+
+    @Test
+    void generationHashExpiresAfterTheEntriesCachedUnderIt() {
+        stubBookedOnFirstDay(1);
+
+        bookedOnFirstDay();
+        service.evict(DOCTOR_ID, month);
+
+        verify(redisTemplate, times(2)).expire("doctorCalendar:generation:" + DOCTOR_ID, Duration.ofHours(1));
+    }
+
+    @Test
+    void calendarMatchesThePerDayComputation() {
+        LocalDate today = LocalDate.now();
+        List<Booking> bookings = new ArrayList<>();
+        Set<LocalDate> blocked = new HashSet<>();
+        for (YearMonth m = YearMonth.now().minusMonths(1); !m.isAfter(YearMonth.now().plusMonths(1)); m = m.plusMonths(1)) {
+            for (int day = 1; day <= m.lengthOfMonth(); day++) {
+                LocalDate date = m.atDay(day);
+                // Empty, partly booked, fully booked, cancelled-only and blocked days, spread over every weekday
+                int booked = day % 5 == 1 ? 8 : day % 5 == 2 ? 3 : day % 5 == 3 ? 1 : 0;
+                for (int slot = 1; slot <= booked; slot++) {
+                    bookings.add(new Booking(date, slot, true));
+                }
+                if (day % 5 == 4) {
+                    bookings.add(new Booking(date, 2, false));
+                }
+                if (day % 7 == 3) {
+                    blocked.add(date);
+                }
+            }
+        }
+        blocked.add(today);
+        when(availabilityService.isOffDay(any(), eq(DOCTOR_ID))).thenAnswer(invocation -> {
+            LocalDate date = invocation.getArgument(0);
+            return blocked.contains(date) || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+        });
+        // The capacity read model holds the confirmed count per day
+        when(capacityRepository.findBookedCountsByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any()))
+                .thenAnswer(invocation -> {
+                    LocalDate start = invocation.getArgument(1);
+                    LocalDate end = invocation.getArgument(2);
+                    return bookings.stream()
+                            .filter(b -> b.confirmed() && !b.date().isBefore(start) && !b.date().isAfter(end))
+                            .collect(Collectors.groupingBy(Booking::date, Collectors.summingInt(b -> 1)))
+                            .entrySet().stream()
+                            .map(e -> new Object[]{e.getKey(), e.getValue()})
+                            .toList();
+                });
+
+        for (YearMonth m = YearMonth.now().minusMonths(1); !m.isAfter(YearMonth.now().plusMonths(1)); m = m.plusMonths(1)) {
+            List<DayStatus> days = service.getCalendarData(DOCTOR_ID, m.getYear(), m.getMonthValue());
+            assertThat(describe(days)).as("%s", m).isEqualTo(describe(perDayCalendar(m, today, bookings)));
+        }
+    }
+
+    // The month as it was built before the grouped count: every day filters the month's confirmed bookings
+    private List<DayStatus> perDayCalendar(YearMonth month, LocalDate today, List<Booking> bookings) {
+        Map<LocalDate, List<Integer>> slotsByDate = bookings.stream()
+                .filter(b -> b.confirmed() && YearMonth.from(b.date()).equals(month))
+                .collect(Collectors.groupingBy(Booking::date,
+                        Collectors.mapping(Booking::slotId, Collectors.toList())));
+        int totalSlots = availabilityService.totalSlotsPerDay(DOCTOR_ID);
+
+        List<DayStatus> days = new ArrayList<>();
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            LocalDate date = month.atDay(day);
+            boolean isPast = date.isBefore(today);
+            boolean isOff = availabilityService.isOffDay(date, DOCTOR_ID);
+            int bookedCount = slotsByDate.getOrDefault(date, List.of()).size();
+            int available = totalSlots - bookedCount;
+            String status = isPast ? "past" : isOff ? "off" : bookedCount == 0 ? "available" : bookedCount < totalSlots ? "partial" : "full";
+            days.add(new DayStatus(date, status, bookedCount, available, date.isEqual(today),
+                    date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH)));
+        }
+        return days;
+    }
+
+    private static List<String> describe(List<DayStatus> days) {
+        return days.stream().map(d -> d.getDate() + " " + d.getStatus() + " " + d.getBookedCount() + " "
+                + d.getAvailableCount() + " " + d.isToday() + " " + d.getDayName()).toList();
+    }
+
+    private record Booking(LocalDate date, int slotId, boolean confirmed) {}
+}
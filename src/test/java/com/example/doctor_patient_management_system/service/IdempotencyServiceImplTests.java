@@ -0,0 +1,162 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.BookAppointmentResponse;
+import com.example.doctor_patient_management_system.dto.IdempotentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceImplTests {
+
+    private static final Long USER_ID = 42L;
+    private static final String FINGERPRINT = "7:2030-01-01:3";
+
+    // Stands in for Redis values
+    private final Map<String, Object> redis = new ConcurrentHashMap<>();
+    private IdempotencyServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ValueOperations<String, Object> values = mock(ValueOperations.class);
+        when(values.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        when(values.setIfAbsent(anyString(), any(), any(Duration.class))).thenAnswer(invocation ->
+                redis.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(values).set(anyString(), any(), any(Duration.class));
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(redisTemplate.delete(anyString())).thenAnswer(invocation -> redis.remove(invocation.<String>getArgument(0)) != null);
+
+        service = new IdempotencyServiceImpl(redisTemplate, new SimpleMeterRegistry(), 3600, 100, 1);
+    }
+
+    private static CompletableFuture<IdempotentResponse> outcome(int status, BookAppointmentResponse body) {
+        return CompletableFuture.completedFuture(new IdempotentResponse(FINGERPRINT, status, body));
+    }
+
+    @Test
+    void clientOutcomeIsReplayedWithoutRunningTheActionAgain() {
+        AtomicInteger runs = new AtomicInteger();
+
+        IdempotentResponse first = service.execute(USER_ID, "key-1", FINGERPRINT, () -> {
+            runs.incrementAndGet();
+            return outcome(409, new BookAppointmentResponse(false, "Slot already booked"));
+        });
+        IdempotentResponse replay = service.execute(USER_ID, "key-1", FINGERPRINT, () -> {
+            runs.incrementAndGet();
+            return outcome(200, new BookAppointmentResponse(true, "Booking confirmed successfully", 1L));
+        });
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(409);
+        assertThat(replay.getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    void serverErrorIsNotRememberedSoARetryRunsAgain() {
+        AtomicInteger runs = new AtomicInteger();
+
+        service.execute(USER_ID, "key-2", FINGERPRINT, () -> {
+            runs.incrementAndGet();
+            return outcome(500, new BookAppointmentResponse(false, "Booking failed, please try again"));
+        });
+        IdempotentResponse retry = service.execute(USER_ID, "key-2", FINGERPRINT, () -> {
+            runs.incrementAndGet();
+            return outcome(200, new BookAppointmentResponse(true, "Booking confirmed successfully", 5L));
+        });
+
+        assertThat(runs).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getBody().getAppointmentId()).isEqualTo(5L);
+    }
+
+    @Test
+    void failedActionReleasesTheKey() {
+        assertThatThrownBy(() -> service.execute(USER_ID, "key-3", FINGERPRINT,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("lane down"))))
+                .isInstanceOf(IllegalStateException.class);
+
+        IdempotentResponse retry = service.execute(USER_ID, "key-3", FINGERPRINT,
+                () -> outcome(200, new BookAppointmentResponse(true, "Booking confirmed successfully", 6L)));
+        assertThat(retry.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void bookingThatOutlivesTheWaitKeepsTheKeyAndIsReplayedOnceItCommits() {
+        CompletableFuture<IdempotentResponse> slowBooking = new CompletableFuture<>();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> service.execute(USER_ID, "key-4", FINGERPRINT, () -> {
+            runs.incrementAndGet();
+            return slowBooking;
+        }))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // Still queued: a retry joins the running booking instead of booking again
+        assertThatThrownBy(() -> service.execute(USER_ID, "key-4", FINGERPRINT, () -> {
+            runs.incrementAndGet();
+            return outcome(409, new BookAppointmentResponse(false, "Slot already booked"));
+        })).isInstanceOf(ResponseStatusException.class);
+
+        slowBooking.complete(new IdempotentResponse(FINGERPRINT, 200,
+                new BookAppointmentResponse(true, "Booking confirmed successfully", 9L)));
+
+        IdempotentResponse replay = service.execute(USER_ID, "key-4", FINGERPRINT, () -> {
+            runs.incrementAndGet();
+            return outcome(409, new BookAppointmentResponse(false, "Slot already booked"));
+        });
+        assertThat(runs).hasValue(1);
+        assertThat(replay.getStatus()).isEqualTo(200);
+        assertThat(replay.getBody().getAppointmentId()).isEqualTo(9L);
+    }
+
+    @Test
+    void pendingMarkerFromAnotherNodeIsWaitedForAndItsOutcomeReplayed() throws Exception {
+        redis.put("idempotency:" + USER_ID + ":key-5", "PENDING");
+        CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            redis.put("idempotency:" + USER_ID + ":key-5", new IdempotentResponse(FINGERPRINT, 200,
+                    new BookAppointmentResponse(true, "Booking confirmed successfully", 11L)));
+        });
+
+        IdempotentResponse response = service.execute(USER_ID, "key-5", FINGERPRINT,
+                () -> outcome(409, new BookAppointmentResponse(false, "Slot already booked")));
+
+        assertThat(response.getBody().getAppointmentId()).isEqualTo(11L);
+    }
+
+    @Test
+    void keyReusedForADifferentRequestIsRejected() {
+        service.execute(USER_ID, "key-6", FINGERPRINT,
+                () -> outcome(200, new BookAppointmentResponse(true, "Booking confirmed successfully", 1L)));
+
+        assertThatThrownBy(() -> service.execute(USER_ID, "key-6", "7:2030-01-01:4",
+                () -> outcome(200, new BookAppointmentResponse(true, "Booking confirmed successfully", 2L))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+}
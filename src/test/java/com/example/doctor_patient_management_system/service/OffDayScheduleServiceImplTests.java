@@ -0,0 +1,89 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorAvailabilityOverrideRepository;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OffDayScheduleServiceImplTests {
+
+    private static final Long DOCTOR_ID = 3L;
+    // A Wednesday
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 15);
+
+    private DoctorAvailabilityOverrideRepository overrideRepository;
+    private OffDayScheduleServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        overrideRepository = mock(DoctorAvailabilityOverrideRepository.class);
+        Doctor doctor = new Doctor();
+        doctor.setOffDays("SUNDAY");
+        when(doctorRepository.findById(DOCTOR_ID)).thenReturn(Optional.of(doctor));
+        service = new OffDayScheduleServiceImpl(doctorRepository, overrideRepository);
+    }
+
+    @Test
+    void scheduleIsLoadedOnceAndAnswersWeeklyAndBlockedDays() {
+        when(overrideRepository.findBlockedDatesByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any()))
+                .thenReturn(List.of(DAY));
+
+        assertThat(service.isOffDay(DOCTOR_ID, DAY)).isTrue();
+        assertThat(service.isOffDay(DOCTOR_ID, DAY.plusDays(4))).isTrue();
+        assertThat(service.isOffDay(DOCTOR_ID, DAY.plusDays(1))).isFalse();
+
+        verify(overrideRepository, times(1)).findBlockedDatesByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any());
+    }
+
+    @Test
+    void invalidateDropsTheCachedSchedule() {
+        when(overrideRepository.findBlockedDatesByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any()))
+                .thenReturn(List.of(), List.of(DAY));
+
+        assertThat(service.isOffDay(DOCTOR_ID, DAY)).isFalse();
+        service.invalidate(DOCTOR_ID);
+
+        assertThat(service.isOffDay(DOCTOR_ID, DAY)).isTrue();
+    }
+
+    @Test
+    void invalidationDuringALoadWinsOverTheLoadedSchedule() {
+        // The first load reads the overrides, then a block on DAY commits and invalidates before the load is cached
+        when(overrideRepository.findBlockedDatesByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any()))
+                .thenAnswer(invocation -> {
+                    service.invalidate(DOCTOR_ID);
+                    return List.of();
+                })
+                .thenReturn(List.of(DAY));
+
+        assertThat(service.isOffDay(DOCTOR_ID, DAY)).isFalse();
+
+        assertThat(service.isOffDay(DOCTOR_ID, DAY)).isTrue();
+        verify(overrideRepository, times(2)).findBlockedDatesByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any());
+    }
+
+    @Test
+    void dateOutsideTheLoadedWindowReloads() {
+        when(overrideRepository.findBlockedDatesByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any()))
+                .thenReturn(List.of());
+
+        service.isOffDay(DOCTOR_ID, DAY);
+        service.isOffDay(DOCTOR_ID, DAY.plusMonths(6));
+
+        verify(overrideRepository, times(2)).findBlockedDatesByDoctorIdAndDateBetween(eq(DOCTOR_ID), any(), any());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.AbstractIntegrationTests;
+import com.example.doctor_patient_management_system.model.Appointment;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlotHoldServiceImplTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private SlotHoldServiceImpl slotHoldService;
+
+    @Autowired
+    private AppointmentServiceImpl appointmentService;
+
+    @Autowired
+    private DoctorServiceImpl doctorService;
+
+    @Autowired
+    private SlotOccupancyServiceImpl slotOccupancyService;
+
+    private Doctor doctor;
+    private User patient;
+    private final LocalDate date = LocalDate.now().plusDays(4);
+
+    @BeforeEach
+    void setUp() {
+        doctor = createDoctor();
+        patient = createPatient();
+    }
+
+    private void assertRefused(LocalDate day, int slotId, HttpStatus status) {
+        assertThatThrownBy(() -> slotHoldService.hold(doctor.getId(), day, slotId, patient.getId()))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(status);
+        if (day != null) {
+            assertThat(slotHoldService.getHeldSlots(doctor.getId(), day).get(slotId)).isFalse();
+        }
+    }
+
+    @Test
+    void holdIsExclusiveUntilReleased() {
+        long expiresAt = slotHoldService.hold(doctor.getId(), date, 1, patient.getId());
+        User other = createPatient();
+
+        assertThat(expiresAt).isBetween(System.currentTimeMillis() + 60_000, System.currentTimeMillis() + 180_000);
+        assertThat(slotHoldService.hold(doctor.getId(), date, 1, other.getId())).isEqualTo(-1);
+        assertThat(slotHoldService.isHeldByOther(doctor.getId(), date, 1, other.getId())).isTrue();
+        assertThat(slotHoldService.isHeldByOther(doctor.getId(), date, 1, patient.getId())).isFalse();
+        assertThat(slotHoldService.getHeldSlots(doctor.getId(), date).get(1)).isTrue();
+
+        slotHoldService.release(doctor.getId(), date, 1, patient.getId());
+        assertThat(slotHoldService.hold(doctor.getId(), date, 1, other.getId())).isPositive();
+    }
+
+    @Test
+    void slotsThatCannotBeBookedAreNotHeld() {
+        assertRefused(null, 1, HttpStatus.BAD_REQUEST);
+        assertRefused(LocalDate.now().minusDays(1), 1, HttpStatus.BAD_REQUEST);
+        // 09:00 to 17:00 is 24 slots
+        assertRefused(date, 25, HttpStatus.BAD_REQUEST);
+        assertRefused(date, 0, HttpStatus.BAD_REQUEST);
+
+        doctorService.blockDay(doctor.getId(), date.plusDays(1));
+        assertRefused(date.plusDays(1), 1, HttpStatus.BAD_REQUEST);
+
+        appointmentService.bookSlot(doctor.getId(), createPatient(), 2, date);
+        assertRefused(date, 2, HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void staleOccupancyIsCheckedAgainstTheDatabase() {
+        Appointment booked = appointmentService.bookSlot(doctor.getId(), createPatient(), 3, date);
+        assertThat(slotOccupancyService.isBooked(doctor.getId(), date, 3)).isTrue();
+        // Cancelled on another node: this node's occupancy index still has the slot as booked
+        jdbcTemplate.update("UPDATE appointments SET status = 'CANCELLED' WHERE id = ?", booked.getId());
+        assertThat(slotOccupancyService.isBooked(doctor.getId(), date, 3)).isTrue();
+
+        assertThat(slotHoldService.hold(doctor.getId(), date, 3, patient.getId())).isPositive();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.event.AppointmentSlotEvent;
+import com.example.doctor_patient_management_system.repository.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotOccupancyServiceImplTests {
+
+    private static final Long DOCTOR_ID = 7L;
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private AppointmentRepository appointmentRepository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private SlotOccupancyServiceImpl service(int maxEntries, long ttlSeconds) {
+        return new SlotOccupancyServiceImpl(appointmentRepository, meterRegistry, maxEntries, ttlSeconds);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("slot.occupancy.lookups").tag("result", result).counter().count();
+    }
+
+    @Test
+    void missLoadsDayOnceAndServesLaterLookupsFromBitmap() {
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY)).thenReturn(List.of(1, 4));
+        SlotOccupancyServiceImpl occupancy = service(100, 60);
+
+        assertThat(occupancy.isBooked(DOCTOR_ID, DAY, 1)).isTrue();
+        assertThat(occupancy.isBooked(DOCTOR_ID, DAY, 2)).isFalse();
+        assertThat(occupancy.getBookedCount(DOCTOR_ID, DAY)).isEqualTo(2);
+
+        verify(appointmentRepository, times(1)).findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY);
+        assertThat(lookups("miss")).isEqualTo(1);
+        assertThat(lookups("hit")).isEqualTo(2);
+    }
+
+    @Test
+    void bookedHitIsConfirmedByReloadingTheDay() {
+        // Slot 1 is freed on another node after this node cached the day
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY))
+                .thenReturn(List.of(1, 4), List.of(4));
+        SlotOccupancyServiceImpl occupancy = service(100, 60);
+
+        assertThat(occupancy.isBooked(DOCTOR_ID, DAY, 1)).isTrue();
+        assertThat(occupancy.isBookedConfirmed(DOCTOR_ID, DAY, 2)).isFalse();
+        assertThat(occupancy.isBookedConfirmed(DOCTOR_ID, DAY, 1)).isFalse();
+        assertThat(occupancy.isBooked(DOCTOR_ID, DAY, 1)).isFalse();
+        assertThat(occupancy.isBookedConfirmed(DOCTOR_ID, DAY, 4)).isTrue();
+
+        verify(appointmentRepository, times(3)).findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY);
+    }
+
+    @Test
+    void nullSlotIdsFromLegacyRowsAreIgnored() {
+        List<Integer> slots = new ArrayList<>();
+        slots.add(null);
+        slots.add(3);
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY)).thenReturn(slots);
+
+        assertThat(service(100, 60).getBookedSlots(DOCTOR_ID, DAY)).isEqualTo(bits(3));
+    }
+
+    @Test
+    void returnedBitmapIsACopy() {
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY)).thenReturn(List.of(2));
+        SlotOccupancyServiceImpl occupancy = service(100, 60);
+
+        occupancy.getBookedSlots(DOCTOR_ID, DAY).set(5);
+
+        assertThat(occupancy.getBookedSlots(DOCTOR_ID, DAY)).isEqualTo(bits(2));
+    }
+
+    @Test
+    void markBookedAndFreedUpdateTheCachedDay() {
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY)).thenReturn(List.of(1));
+        SlotOccupancyServiceImpl occupancy = service(100, 60);
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+
+        occupancy.markBooked(DOCTOR_ID, DAY, 6);
+        occupancy.markFreed(DOCTOR_ID, DAY, 1);
+
+        assertThat(occupancy.getBookedSlots(DOCTOR_ID, DAY)).isEqualTo(bits(6));
+        verify(appointmentRepository, times(1)).findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY);
+    }
+
+    @Test
+    void slotEventWithoutSlotIdInvalidatesTheDay() {
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY)).thenReturn(List.of(1));
+        SlotOccupancyServiceImpl occupancy = service(100, 60);
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+
+        occupancy.onSlotEvent(new AppointmentSlotEvent(AppointmentSlotEvent.Type.FREED, 1L, DOCTOR_ID, DAY, null));
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+
+        verify(appointmentRepository, times(2)).findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY);
+    }
+
+    @Test
+    void expiredEntryIsReloaded() {
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY)).thenReturn(List.of(1));
+        SlotOccupancyServiceImpl occupancy = service(100, 0);
+
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+
+        verify(appointmentRepository, times(2)).findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY);
+    }
+
+    @Test
+    void leastRecentlyUsedDayIsEvictedOverTheLimit() {
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(anyLong(), any())).thenReturn(List.of());
+        SlotOccupancyServiceImpl occupancy = service(2, 60);
+
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+        occupancy.getBookedSlots(DOCTOR_ID, DAY.plusDays(1));
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+        occupancy.getBookedSlots(DOCTOR_ID, DAY.plusDays(2));
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+        occupancy.getBookedSlots(DOCTOR_ID, DAY.plusDays(1));
+
+        verify(appointmentRepository, times(1)).findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY);
+        verify(appointmentRepository, times(2)).findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY.plusDays(1));
+        assertThat(meterRegistry.get("slot.occupancy.evictions").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void loadThatRacedWithAMutationOfTheSameDayIsServedButNotCached() {
+        SlotOccupancyServiceImpl occupancy = service(100, 60);
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY)).thenAnswer(invocation -> {
+            occupancy.markBooked(DOCTOR_ID, DAY, 9);
+            return List.of(1);
+        });
+
+        assertThat(occupancy.getBookedSlots(DOCTOR_ID, DAY)).isEqualTo(bits(1));
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+
+        verify(appointmentRepository, times(2)).findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY);
+    }
+
+    @Test
+    void mutationsOfOtherDaysDoNotDiscardALoadInFlight() {
+        SlotOccupancyServiceImpl occupancy = service(100, 60);
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY)).thenAnswer(invocation -> {
+            occupancy.markBooked(DOCTOR_ID, DAY.plusDays(1), 9);
+            occupancy.invalidate(DOCTOR_ID + 1, DAY);
+            return List.of(1);
+        });
+
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+        occupancy.getBookedSlots(DOCTOR_ID, DAY);
+
+        verify(appointmentRepository, times(1)).findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY);
+    }
+
+    @Test
+    void bitmapHandedOutBeforeAMutationDoesNotChange() {
+        when(appointmentRepository.findBookedSlotIdsByDoctorIdAndDate(DOCTOR_ID, DAY)).thenReturn(List.of(1));
+        SlotOccupancyServiceImpl occupancy = service(100, 60);
+        BitSet before = occupancy.getBookedSlots(DOCTOR_ID, DAY);
+
+        occupancy.markBooked(DOCTOR_ID, DAY, 3);
+
+        assertThat(before).isEqualTo(bits(1));
+        assertThat(occupancy.isBooked(DOCTOR_ID, DAY, 3)).isTrue();
+    }
+
+    @Test
+    void preloadFillsEveryDayOfTheRangeWithOneQuery() {
+        List<Object[]> rows = List.of(new Object[]{DAY, 2}, new Object[]{DAY.plusDays(2), 5});
+        when(appointmentRepository.findBookedSlotsByDoctorIdAndDateBetween(DOCTOR_ID, DAY, DAY.plusDays(2)))
+                .thenReturn(rows);
+        SlotOccupancyServiceImpl occupancy = service(100, 60);
+
+        occupancy.preload(DOCTOR_ID, DAY, DAY.plusDays(2));
+
+        assertThat(occupancy.getBookedSlots(DOCTOR_ID, DAY)).isEqualTo(bits(2));
+        assertThat(occupancy.getBookedSlots(DOCTOR_ID, DAY.plusDays(1))).isEqualTo(bits());
+        assertThat(occupancy.getBookedSlots(DOCTOR_ID, DAY.plusDays(2))).isEqualTo(bits(5));
+        verify(appointmentRepository, times(0)).findBookedSlotIdsByDoctorIdAndDate(anyLong(), any());
+    }
+
+    private static BitSet bits(int... slotIds) {
+        BitSet bits = new BitSet();
+        for (int slotId : slotIds) {
+            bits.set(slotId);
+        }
+        return bits;
+    }
+}
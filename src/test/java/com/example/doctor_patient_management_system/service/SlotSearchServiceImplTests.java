@@ -0,0 +1,147 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.dto.AvailabilityWindow;
+import com.example.doctor_patient_management_system.dto.DoctorSchedule;
+import com.example.doctor_patient_management_system.dto.SlotSearchResult;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotSearchServiceImplTests {
+
+    // Tomorrow onwards, so no slot is skipped for having already started today
+    private final LocalDate start = LocalDate.now().plusDays(1);
+    private final LocalDate end = start.plusDays(6);
+
+    private DoctorRepository doctorRepository;
+    private SlotTemplateServiceImpl slotTemplateService;
+    private SlotOccupancyServiceImpl slotOccupancyService;
+    private AvailabilityWindow window;
+    private SlotSearchServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        doctorRepository = mock(DoctorRepository.class);
+        slotTemplateService = new SlotTemplateServiceImpl(doctorRepository);
+        slotOccupancyService = mock(SlotOccupancyServiceImpl.class);
+        when(slotOccupancyService.getBookedSlots(anyLong(), any())).thenReturn(new BitSet());
+
+        window = new AvailabilityWindow(start, end);
+        BatchAvailabilityServiceImpl batchAvailabilityService = mock(BatchAvailabilityServiceImpl.class);
+        when(batchAvailabilityService.loadWindow(any(), eq(start), eq(end))).thenReturn(window);
+
+        service = new SlotSearchServiceImpl(doctorRepository, batchAvailabilityService,
+                slotTemplateService, slotOccupancyService);
+    }
+
+    // 20-minute slots between the given hours
+    private Doctor doctor(long id, String from, String to) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        doctor.setDoctorName("Doctor " + id);
+        doctor.setConsultationStartTime(from);
+        doctor.setConsultationEndTime(to);
+        window.addDoctor(new DoctorSchedule(id, EnumSet.noneOf(DayOfWeek.class),
+                slotTemplateService.compile(from, to).size()));
+        return doctor;
+    }
+
+    private List<String> search(int limit, Doctor... doctors) {
+        when(doctorRepository.findAll()).thenReturn(List.of(doctors));
+        return service.findEarliestSlots(null, start, end, limit).stream()
+                .map(this::describe)
+                .toList();
+    }
+
+    private String describe(SlotSearchResult result) {
+        return result.getDoctorId() + "@" + (result.getDate().toEpochDay() - start.toEpochDay()) + "#" + result.getSlotId();
+    }
+
+    @Test
+    void mergesDoctorsInStartTimeOrder() {
+        Doctor late = doctor(1, "09:00", "10:00");
+        Doctor early = doctor(2, "08:00", "09:00");
+
+        assertThat(search(4, late, early)).containsExactly("2@0#1", "2@0#2", "2@0#3", "1@0#1");
+    }
+
+    @Test
+    void equalStartTimesAreOrderedByDoctorId() {
+        Doctor second = doctor(5, "09:00", "09:40");
+        Doctor first = doctor(4, "09:00", "09:40");
+
+        assertThat(search(3, second, first)).containsExactly("4@0#1", "5@0#1", "4@0#2");
+    }
+
+    @Test
+    void bookedSlotsAreSkipped() {
+        Doctor doctor = doctor(1, "09:00", "10:00");
+        BitSet booked = new BitSet();
+        booked.set(1);
+        booked.set(2);
+        when(slotOccupancyService.getBookedSlots(1L, start)).thenReturn(booked);
+
+        assertThat(search(2, doctor)).containsExactly("1@0#3", "1@1#1");
+    }
+
+    @Test
+    void blockedAndFullDaysAreSkippedWithoutReadingTheirBookings() {
+        Doctor doctor = doctor(1, "09:00", "09:40");
+        window.addBlockedDay(1L, start);
+        window.addBookedCount(1L, start.plusDays(1), 2);
+
+        assertThat(search(1, doctor)).containsExactly("1@2#1");
+        verify(slotOccupancyService, never()).getBookedSlots(1L, start);
+        verify(slotOccupancyService, never()).getBookedSlots(1L, start.plusDays(1));
+    }
+
+    @Test
+    void doctorsThatCannotMakeTheTopKAreNeverProbed() {
+        Doctor early = doctor(1, "08:00", "12:00");
+        Doctor late = doctor(2, "14:00", "16:00");
+
+        assertThat(search(3, early, late)).containsExactly("1@0#1", "1@0#2", "1@0#3");
+        verify(slotOccupancyService, never()).getBookedSlots(eq(2L), any());
+    }
+
+    @Test
+    void searchEndsWhenTheWindowRunsOut() {
+        Doctor doctor = doctor(1, "09:00", "09:20");
+
+        assertThat(search(50, doctor)).hasSize(7);
+    }
+
+    @Test
+    void invalidLimitAndOversizedRangeAreRejected() {
+        assertThatThrownBy(() -> service.findEarliestSlots(null, start, end, 0))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.findEarliestSlots(null, start, end, SlotSearchServiceImpl.MAX_LIMIT + 1))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.findEarliestSlots(null, start,
+                start.plusDays(SlotSearchServiceImpl.MAX_DAYS), 10))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void emptyRangeReturnsNothing() {
+        assertThat(service.findEarliestSlots(null, start, start.minusDays(1), 10)).isEmpty();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.TestClock;
+import com.example.doctor_patient_management_system.dto.SlotTemplate;
+import com.example.doctor_patient_management_system.dto.TimeSlot;
+import com.example.doctor_patient_management_system.event.DoctorScheduleEvent;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotTemplateServiceImplTests {
+
+    private static final Long DOCTOR_ID = 7L;
+
+    private final TestClock clock = new TestClock();
+    private DoctorRepository doctorRepository;
+    private SlotTemplateServiceImpl service;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctor = doctor("09:00", "17:00");
+        doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findById(DOCTOR_ID)).thenAnswer(invocation -> Optional.of(doctor));
+        service = new SlotTemplateServiceImpl(doctorRepository, clock);
+    }
+
+    private static Doctor doctor(String start, String end) {
+        Doctor doctor = new Doctor();
+        doctor.setId(DOCTOR_ID);
+        doctor.setConsultationStartTime(start);
+        doctor.setConsultationEndTime(end);
+        return doctor;
+    }
+
+    private static List<String> describe(List<TimeSlot> slots) {
+        return slots.stream().map(slot -> slot.getId() + " " + slot.getSlotName() + " " + slot.getStartTime()
+                + " - " + slot.getEndTime() + " " + slot.getSession()).toList();
+    }
+
+    @Test
+    void templateMatchesThePerRequestBuild() {
+        String[][] windows = {{"09:00", "17:00"}, {"08:10", "21:00"}, {"11:30", "13:15"}, {"00:00", "23:59"},
+                {"16:50", "17:10"}, {"10:00", "10:10"}, {"17:00", "09:00"}, {"9", "17:00"}, {"ab:cd", "17:00"}};
+        for (String[] window : windows) {
+            assertThat(describe(service.compile(window[0], window[1]).getSlots()))
+                    .as("%s to %s", window[0], window[1])
+                    .isEqualTo(describe(perRequestBuild(window[0], window[1])));
+        }
+    }
+
+    @Test
+    void doctorsWithTheSameHoursShareOneCompiledTemplate() {
+        SlotTemplate first = service.getTemplate(doctor("09:00", "17:00"));
+        SlotTemplate second = service.getTemplate(doctor("09:00", "17:00"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(service.getTemplate(doctor("09:00", "16:00"))).isNotSameAs(first);
+    }
+
+    @Test
+    void doctorEntryIsReusedUntilTheScheduleChanges() {
+        assertThat(service.getTemplate(DOCTOR_ID).size()).isEqualTo(24);
+        doctor = doctor("09:00", "12:00");
+        assertThat(service.getTemplate(DOCTOR_ID).size()).isEqualTo(24);
+        verify(doctorRepository, times(1)).findById(DOCTOR_ID);
+
+        service.onScheduleEvent(DoctorScheduleEvent.profileChanged(DOCTOR_ID));
+
+        assertThat(service.getTemplate(DOCTOR_ID).size()).isEqualTo(9);
+        verify(doctorRepository, times(2)).findById(DOCTOR_ID);
+    }
+
+    @Test
+    void doctorEntryIsReloadedAfterFiveMinutes() {
+        service.getTemplate(DOCTOR_ID);
+        // Changed on another node, so no event reaches this one
+        doctor = doctor("09:00", "12:00");
+
+        clock.advance(Duration.ofMinutes(4));
+        assertThat(service.getTemplate(DOCTOR_ID).size()).isEqualTo(24);
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(service.getTemplate(DOCTOR_ID).size()).isEqualTo(9);
+    }
+
+    // DoctorSlotServiceImpl's slot generation from before templates were compiled and shared
+    private static List<TimeSlot> perRequestBuild(String startTimeStr, String endTimeStr) {
+        List<TimeSlot> slots = new ArrayList<>();
+        int slotId = 1;
+        try {
+            String[] startParts = startTimeStr.split(":");
+            String[] endParts = endTimeStr.split(":");
+            int currentMinutes = Integer.parseInt(startParts[0]) * 60 + Integer.parseInt(startParts[1]);
+            int endMinutes = Integer.parseInt(endParts[0]) * 60 + Integer.parseInt(endParts[1]);
+
+            Map<String, Integer> sessionCounters = new HashMap<>();
+            while (currentMinutes + 20 <= endMinutes) {
+                int startHr = currentMinutes / 60;
+                int endHr = (currentMinutes + 20) / 60;
+                String session = startHr < 12 ? "Morning" : startHr < 17 ? "Afternoon" : "Evening";
+                int slotNumber = sessionCounters.getOrDefault(session, 1);
+                sessionCounters.put(session, slotNumber + 1);
+                slots.add(new TimeSlot(slotId++, session + " Slot " + slotNumber,
+                        formatTime(startHr, currentMinutes % 60), formatTime(endHr, (currentMinutes + 20) % 60), session));
+                currentMinutes += 20;
+            }
+        } catch (Exception e) {
+        }
+        return slots;
+    }
+
+    private static String formatTime(int h, int m) {
+        String period = h >= 12 ? "PM" : "AM";
+        int hour12 = h % 12 == 0 ? 12 : h % 12;
+        return String.format("%02d:%02d %s", hour12, m, period);
+    }
+}
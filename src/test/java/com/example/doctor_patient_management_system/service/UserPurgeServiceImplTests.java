@@ -0,0 +1,215 @@
+package com.example.doctor_patient_management_system.service;
+
+import com.example.doctor_patient_management_system.AbstractIntegrationTests;
+import com.example.doctor_patient_management_system.dto.UserPurgeStatus;
+import com.example.doctor_patient_management_system.model.Doctor;
+import com.example.doctor_patient_management_system.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// A chunk of two makes a five-appointment patient go through the chunked background path
+@TestPropertySource(properties = "app.purge.chunk-size=2")
+class UserPurgeServiceImplTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private UserPurgeServiceImpl userPurgeService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private AppointmentPartitionServiceImpl partitionService;
+
+    @Autowired
+    private DoctorCapacityServiceImpl doctorCapacityService;
+
+    @Autowired
+    private SlotOccupancyServiceImpl slotOccupancyService;
+
+    @Autowired
+    @Qualifier("createPartialIndexes")
+    private CommandLineRunner createPartialIndexes;
+
+    private List<Long> book(Doctor doctor, User patient, int count) {
+        List<Long> ids = new ArrayList<>();
+        LocalDate date = LocalDate.now().plusDays(1);
+        for (int slot = 1; slot <= count; slot++) {
+            ids.add(jdbcTemplate.queryForObject("INSERT INTO appointments "
+                    + "(doctor_id, patient_id, slot_id, appointment_date, appointment_time, status) "
+                    + "VALUES (?, ?, ?, ?, '09:00 - 09:20', 'CONFIRMED') RETURNING id", Long.class,
+                    doctor.getId(), patient.getId(), slot, date));
+        }
+        return ids;
+    }
+
+    private long outbox(String type, String payload, String status) {
+        return jdbcTemplate.queryForObject("INSERT INTO message_outbox "
+                + "(message_type, payload, routing_key, created_at, status, retry_count) "
+                + "VALUES (?, ?, 'test.key', now(), ?, 0) RETURNING id", Long.class, type, payload, status);
+    }
+
+    private boolean outboxExists(long id) {
+        return jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM message_outbox WHERE id = ?)",
+                Boolean.class, id);
+    }
+
+    private UserPurgeStatus awaitOver(String jobId) {
+        await().atMost(Duration.ofSeconds(30)).until(() -> {
+            UserPurgeStatus.State state = userPurgeService.getStatus(jobId).getState();
+            return state == UserPurgeStatus.State.COMPLETED || state == UserPurgeStatus.State.FAILED;
+        });
+        return userPurgeService.getStatus(jobId);
+    }
+
+    @Test
+    void unsentMessagesGoWithTheirAppointmentsAndMalformedPayloadsAreSkipped() {
+        Doctor doctor = createDoctor();
+        User patient = createPatient();
+        User other = createPatient();
+        List<Long> appointments = book(doctor, patient, 5);
+        Long otherAppointment = book(createDoctor(), other, 1).get(0);
+
+        List<Long> pending = new ArrayList<>();
+        for (Long id : appointments) {
+            pending.add(outbox("BOOKING", "{\"appointmentId\":" + id + ",\"patientEmail\":\"x\"}", "PENDING"));
+        }
+        long cancellation = outbox("CANCELLATION", "{\"appointmentId\": " + appointments.get(0) + "}", "FAILED");
+        long registration = outbox("REGISTRATION", "{\"userEmail\":\"" + patient.getEmail() + "\"}", "PENDING");
+        long sent = outbox("BOOKING", "{\"appointmentId\":" + appointments.get(1) + "}", "SENT");
+        long malformed = outbox("BOOKING", "{not json", "PENDING");
+        long othersMessage = outbox("BOOKING", "{\"appointmentId\":" + otherAppointment + "}", "PENDING");
+
+        UserPurgeStatus job = awaitOver(userPurgeService.start(patient.getId()).getJobId());
+
+        assertThat(job.getState()).isEqualTo(UserPurgeStatus.State.COMPLETED);
+        assertThat(job.getDeletedAppointments()).isEqualTo(5);
+        assertThat(userRepository.existsById(patient.getId())).isFalse();
+        assertThat(pending).noneMatch(this::outboxExists);
+        assertThat(outboxExists(cancellation)).isFalse();
+        assertThat(outboxExists(registration)).isFalse();
+        assertThat(outboxExists(sent)).isTrue();
+        assertThat(outboxExists(malformed)).isTrue();
+        assertThat(outboxExists(othersMessage)).isTrue();
+
+        jdbcTemplate.update("DELETE FROM message_outbox WHERE id IN (?, ?, ?)", sent, malformed, othersMessage);
+    }
+
+    @Test
+    void queuedJobIsNotTakenOverHoweverLongItWaits() {
+        User patient = createPatient();
+        String queued = staleJob(patient, UserPurgeStatus.State.QUEUED);
+
+        assertThat(userPurgeService.start(patient.getId()).getJobId()).isEqualTo(queued);
+    }
+
+    @Test
+    void runningJobThatStoppedUpdatingIsStartedAgain() {
+        User patient = createPatient();
+        String lost = staleJob(patient, UserPurgeStatus.State.RUNNING);
+
+        UserPurgeStatus restarted = userPurgeService.start(patient.getId());
+
+        assertThat(restarted.getJobId()).isNotEqualTo(lost);
+        assertThat(awaitOver(restarted.getJobId()).getState()).isEqualTo(UserPurgeStatus.State.COMPLETED);
+    }
+
+    @Test
+    void archivedAppointmentsGoWithTheUser() throws Exception {
+        partitionService.migrateIfNeeded();
+        createPartialIndexes.run();
+        // A month past retention that no earlier run has used
+        YearMonth month = YearMonth.now().minusMonths(30 + ThreadLocalRandom.current().nextInt(1200));
+        jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS appointments_p%04d_%02d PARTITION OF appointments"
+                + " FOR VALUES FROM ('%s') TO ('%s')", month.getYear(), month.getMonthValue(), month.atDay(1),
+                month.plusMonths(1).atDay(1)));
+
+        Doctor doctor = createDoctor();
+        User patient = createPatient();
+        User other = createPatient();
+        long archived = insertAppointment(doctor, patient, month.atDay(3));
+        long othersArchived = insertAppointment(doctor, other, month.atDay(4));
+        for (long id : List.of(archived, othersArchived)) {
+            jdbcTemplate.update("INSERT INTO prescriptions (appointment_id, diagnosis, created_at) VALUES (?, 'Flu', now())", id);
+            jdbcTemplate.update("INSERT INTO reviews (appointment_id, rating, comment, created_at) VALUES (?, 3, 'Ok', now())", id);
+        }
+        partitionService.archiveOldPartitions();
+        book(doctor, patient, 1);
+
+        UserPurgeStatus job = awaitOver(userPurgeService.start(patient.getId()).getJobId());
+
+        assertThat(job.getState()).isEqualTo(UserPurgeStatus.State.COMPLETED);
+        for (String table : List.of("prescriptions", "reviews")) {
+            assertThat(countArchived(table, "appointment_id", archived)).isZero();
+            assertThat(countArchived(table, "appointment_id", othersArchived)).isEqualTo(1);
+        }
+        assertThat(countArchived("appointments", "id", archived)).isZero();
+        assertThat(countArchived("appointments", "id", othersArchived)).isEqualTo(1);
+    }
+
+    @Test
+    void userIsDeletedWhileRedisIsDown() {
+        StringRedisTemplate downRedis = mock(StringRedisTemplate.class);
+        when(downRedis.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+        when(downRedis.opsForHash()).thenThrow(new RedisConnectionFailureException("down"));
+        when(downRedis.delete(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        UserPurgeServiceImpl service = new UserPurgeServiceImpl(userRepository, jdbcTemplate, downRedis,
+                doctorCapacityService, slotOccupancyService, transactionManager, new SimpleMeterRegistry(), 500, 10, 24);
+        try {
+            Doctor doctor = createDoctor();
+            User patient = createPatient();
+            book(doctor, patient, 3);
+
+            UserPurgeStatus job = service.start(patient.getId());
+
+            assertThat(job.getState()).isEqualTo(UserPurgeStatus.State.COMPLETED);
+            assertThat(job.getDeletedAppointments()).isEqualTo(3);
+            assertThat(userRepository.existsById(patient.getId())).isFalse();
+            assertThat(countConfirmed(doctor.getId())).isZero();
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private long insertAppointment(Doctor doctor, User patient, LocalDate date) {
+        return jdbcTemplate.queryForObject("INSERT INTO appointments (doctor_id, patient_id, slot_id,"
+                + " appointment_date, appointment_time, status) VALUES (?, ?, 1, ?, '09:00 - 09:20', 'CONFIRMED')"
+                + " RETURNING id", Long.class, doctor.getId(), patient.getId(), date);
+    }
+
+    private long countArchived(String table, String column, long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + AppointmentPartitionServiceImpl.ARCHIVE_SCHEMA
+                + "." + table + " WHERE " + column + " = ?", Long.class, id);
+    }
+
+    // A job last updated an hour ago, as a node that died or a long queue would leave it
+    private String staleJob(User user, UserPurgeStatus.State state) {
+        String jobId = UUID.randomUUID().toString();
+        String anHourAgo = Long.toString(System.currentTimeMillis() - Duration.ofHours(1).toMillis());
+        redisTemplate.opsForHash().putAll("user-purge:job:" + jobId, Map.of("userId", user.getId().toString(),
+                "email", user.getEmail(), "role", "PATIENT", "state", state.name(), "totalAppointments", "0",
+                "deletedAppointments", "0", "startedAt", anHourAgo, "updatedAt", anHourAgo));
+        redisTemplate.opsForValue().set("user-purge:user:" + user.getId(), jobId);
+        return jobId;
+    }
+}